@@ -0,0 +1,32 @@
+package com.tn.query.java.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled and the results, including <code>gc.alloc.rate.norm</code> (bytes/op), written as JSON so they can be
+ * compared between versions.  Any standard JMH command line options can be passed, e.g. <code>-rff results/1.0.1.json OperatorBenchmark</code>.
+ */
+public final class BenchmarkRunner
+{
+  private static final String RESULT = "target/jmh-result.json";
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws Exception
+  {
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+    new Runner(
+      new OptionsBuilder()
+        .parent(commandLineOptions)
+        .addProfiler(GCProfiler.class)
+        .resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+        .result(commandLineOptions.getResult().orElse(RESULT))
+        .build()
+    ).run();
+  }
+}
@@ -0,0 +1,91 @@
+package com.tn.query.java.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tn.query.QueryParser;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetterBenchmark
+{
+  private static final Map<String, String> VALUES = Map.ofEntries(
+    Map.entry("booleanValue", "true"),
+    Map.entry("byteValue", "50"),
+    Map.entry("charValue", "m"),
+    Map.entry("doubleValue", "50.0"),
+    Map.entry("doublePrimitive", "50.0"),
+    Map.entry("floatValue", "50.0"),
+    Map.entry("intValue", "500"),
+    Map.entry("intPrimitive", "500"),
+    Map.entry("localDateValue", "2021-05-01"),
+    Map.entry("longValue", "500"),
+    Map.entry("longPrimitive", "500"),
+    Map.entry("shortValue", "500"),
+    Map.entry("stringValue", "Smith500")
+  );
+
+  @Param({
+    "booleanValue",
+    "byteValue",
+    "charValue",
+    "doubleValue",
+    "doublePrimitive",
+    "floatValue",
+    "intValue",
+    "intPrimitive",
+    "localDateValue",
+    "longValue",
+    "longPrimitive",
+    "shortValue",
+    "stringValue"
+  })
+  public String field;
+
+  @Param({"1000", "1000000"})
+  public int size;
+
+  private Predicate<Target> equal;
+  private Predicate<Target> greaterThan;
+  private List<Target> targets;
+
+  @Setup
+  public void setUp()
+  {
+    QueryParser<Predicate<Target>> queryParser = Targets.queryParser();
+
+    this.equal = queryParser.parse(this.field + " = " + VALUES.get(this.field));
+    this.greaterThan = queryParser.parse(this.field + " > " + VALUES.get(this.field));
+    this.targets = Targets.targets(this.size);
+  }
+
+  @Benchmark
+  public int equal()
+  {
+    return Targets.count(this.targets, this.equal);
+  }
+
+  @Benchmark
+  public int greaterThan()
+  {
+    return Targets.count(this.targets, this.greaterThan);
+  }
+}
@@ -0,0 +1,58 @@
+package com.tn.query.java.benchmark;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InBenchmark
+{
+  @Param({"intValue", "intPrimitive", "longValue", "longPrimitive", "stringValue"})
+  public String field;
+
+  @Param({"4", "64", "4096"})
+  public int values;
+
+  @Param({"1000", "1000000"})
+  public int size;
+
+  private Predicate<Target> predicate;
+  private List<Target> targets;
+
+  @Setup
+  public void setUp()
+  {
+    String prefix = this.field.equals("stringValue") ? "Smith" : "";
+
+    this.predicate = Targets.queryParser().parse(
+      IntStream.range(0, this.values).map(i -> i * 3).mapToObj(i -> prefix + i).collect(joining(", ", this.field + " ∈ [", "]"))
+    );
+    this.targets = Targets.targets(this.size);
+  }
+
+  @Benchmark
+  public int filter()
+  {
+    return Targets.count(this.targets, this.predicate);
+  }
+}
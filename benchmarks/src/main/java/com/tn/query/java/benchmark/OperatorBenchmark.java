@@ -0,0 +1,63 @@
+package com.tn.query.java.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperatorBenchmark
+{
+  @Param({
+    "intValue = 500",
+    "intValue != 500",
+    "intValue > 500",
+    "intValue >= 500",
+    "intValue < 500",
+    "intValue <= 500",
+    "stringValue ≈ Smi*",
+    "stringValue ≈ *99",
+    "stringValue ≈ *mit*",
+    "stringValue ≈ S*h9*",
+    "stringValue !≈ Smi*",
+    "intValue ∈ [1, 2, 3]",
+    "intValue = 500 && stringValue ≈ Smi*",
+    "intValue = 500 || stringValue ≈ Smi*"
+  })
+  public String query;
+
+  @Param({"1000", "1000000"})
+  public int size;
+
+  private Predicate<Target> predicate;
+  private List<Target> targets;
+
+  @Setup
+  public void setUp()
+  {
+    this.predicate = Targets.queryParser().parse(this.query);
+    this.targets = Targets.targets(this.size);
+  }
+
+  @Benchmark
+  public int filter()
+  {
+    return Targets.count(this.targets, this.predicate);
+  }
+}
@@ -0,0 +1,56 @@
+package com.tn.query.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tn.query.QueryParser;
+import com.tn.query.java.CachingQueryParser;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark
+{
+  @Param({
+    "intValue = 500",
+    "(intValue = 500 && stringValue ≈ Smi*) || (longValue > 10 && charValue ∈ [a, b, c])"
+  })
+  public String query;
+
+  private QueryParser<Predicate<Target>> queryParser;
+  private QueryParser<Predicate<Target>> cachingQueryParser;
+
+  @Setup
+  public void setUp()
+  {
+    this.queryParser = Targets.queryParser();
+    this.cachingQueryParser = new CachingQueryParser<>(Targets.queryParser(), 100);
+  }
+
+  @Benchmark
+  public Predicate<Target> parse()
+  {
+    return this.queryParser.parse(this.query);
+  }
+
+  @Benchmark
+  public Predicate<Target> parseCached()
+  {
+    return this.cachingQueryParser.parse(this.query);
+  }
+}
@@ -0,0 +1,17 @@
+package com.tn.query.java.benchmark;
+
+import java.time.LocalDate;
+
+public class Target
+{
+  boolean booleanValue;
+  byte byteValue;
+  char charValue;
+  double doubleValue;
+  float floatValue;
+  int intValue;
+  LocalDate localDateValue;
+  long longValue;
+  short shortValue;
+  String stringValue;
+}
@@ -0,0 +1,123 @@
+package com.tn.query.java.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import com.tn.query.DefaultQueryParser;
+import com.tn.query.Mapper;
+import com.tn.query.PredicateFactory;
+import com.tn.query.QueryParser;
+import com.tn.query.java.CompilingPredicateFactory;
+import com.tn.query.java.Getter;
+import com.tn.query.java.JavaPredicateFactory;
+import com.tn.query.java.OptimisingPredicateFactory;
+import com.tn.query.java.SharingPredicateFactory;
+
+final class Targets
+{
+  static final int RANGE = 1000;
+
+  private static final long SEED = 20250719L;
+  private static final String[] NAMES = {"Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Johnson", "Davies", "Robinson", "Wright"};
+  private static final LocalDate EPOCH = LocalDate.of(2020, 1, 1);
+
+  private Targets() {}
+
+  static List<Getter<Target>> getters()
+  {
+    return List.of(
+      Getter.booleanValue("booleanValue", target -> target.booleanValue),
+      Getter.byteValue("byteValue", target -> target.byteValue),
+      Getter.charValue("charValue", target -> target.charValue),
+      Getter.doubleValue("doubleValue", target -> target.doubleValue),
+      Getter.doublePrimitive("doublePrimitive", target -> target.doubleValue),
+      Getter.floatValue("floatValue", target -> target.floatValue),
+      Getter.intValue("intValue", target -> target.intValue),
+      Getter.intPrimitive("intPrimitive", target -> target.intValue),
+      Getter.comparableValue("localDateValue", target -> target.localDateValue),
+      Getter.longValue("longValue", target -> target.longValue),
+      Getter.longPrimitive("longPrimitive", target -> target.longValue),
+      Getter.shortValue("shortValue", target -> target.shortValue),
+      Getter.comparableValue("stringValue", target -> target.stringValue)
+    );
+  }
+
+  static List<Mapper> mappers()
+  {
+    return List.of(
+      Mapper.toBoolean("booleanValue"),
+      Mapper.toByte("byteValue"),
+      Mapper.toChar("charValue"),
+      Mapper.toDouble("doubleValue"),
+      Mapper.toDouble("doublePrimitive"),
+      Mapper.toFloat("floatValue"),
+      Mapper.toInt("intValue"),
+      Mapper.toInt("intPrimitive"),
+      Mapper.toLocalDate("localDateValue"),
+      Mapper.toLong("longValue"),
+      Mapper.toLong("longPrimitive"),
+      Mapper.toShort("shortValue")
+    );
+  }
+
+  static QueryParser<Predicate<Target>> queryParser()
+  {
+    return queryParser("java");
+  }
+
+  static QueryParser<Predicate<Target>> queryParser(String predicateFactory)
+  {
+    return new DefaultQueryParser<>(predicateFactory(predicateFactory), mappers());
+  }
+
+  private static PredicateFactory<Predicate<Target>> predicateFactory(String predicateFactory)
+  {
+    switch (predicateFactory)
+    {
+      case "java": return new JavaPredicateFactory<>(getters());
+      case "compiling": return new CompilingPredicateFactory<>(getters());
+      case "optimising": return new OptimisingPredicateFactory<>(getters());
+      case "sharing": return new SharingPredicateFactory<>(getters());
+      default: throw new IllegalArgumentException("Unknown predicate factory: " + predicateFactory);
+    }
+  }
+
+  static List<Target> targets(int size)
+  {
+    Random random = new Random(SEED);
+
+    List<Target> targets = new ArrayList<>(size);
+    for (int i = 0; i < size; i++)
+    {
+      Target target = new Target();
+      target.booleanValue = random.nextBoolean();
+      target.byteValue = (byte)random.nextInt(Byte.MAX_VALUE);
+      target.charValue = (char)('a' + random.nextInt(26));
+      target.doubleValue = random.nextInt(RANGE) / 10.0;
+      target.floatValue = random.nextInt(RANGE) / 10.0F;
+      target.intValue = random.nextInt(RANGE);
+      target.localDateValue = EPOCH.plusDays(random.nextInt(RANGE));
+      target.longValue = random.nextInt(RANGE);
+      target.shortValue = (short)random.nextInt(RANGE);
+      target.stringValue = NAMES[random.nextInt(NAMES.length)] + random.nextInt(RANGE);
+
+      targets.add(target);
+    }
+
+    return targets;
+  }
+
+  static int count(List<Target> targets, Predicate<Target> predicate)
+  {
+    int count = 0;
+    for (Target target : targets)
+    {
+      if (predicate.test(target)) count++;
+    }
+
+    return count;
+  }
+}
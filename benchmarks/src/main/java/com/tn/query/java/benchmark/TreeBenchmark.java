@@ -0,0 +1,83 @@
+package com.tn.query.java.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBenchmark
+{
+  private static final String[] TERMS = {
+    "intValue > 100",
+    "longPrimitive < 900",
+    "stringValue ≈ *1*",
+    "charValue != z",
+    "doubleValue >= 10.0",
+    "shortValue ∈ [1, 2, 3, 4]",
+    "localDateValue < 2022-01-01",
+    "intPrimitive <= 950"
+  };
+
+  @Param({"2", "8", "32"})
+  public int depth;
+
+  @Param({"AND", "OR", "MIXED"})
+  public String junction;
+
+  @Param({"1000", "1000000"})
+  public int size;
+
+  @Param({"java", "compiling", "optimising", "sharing"})
+  public String predicateFactory;
+
+  private Predicate<Target> predicate;
+  private List<Target> targets;
+
+  @Setup
+  public void setUp()
+  {
+    this.predicate = Targets.queryParser(this.predicateFactory).parse(query(0));
+    this.targets = Targets.targets(this.size);
+  }
+
+  @Benchmark
+  public int filter()
+  {
+    return Targets.count(this.targets, this.predicate);
+  }
+
+  private String query(int level)
+  {
+    String term = TERMS[level % TERMS.length];
+    if (level == this.depth - 1) return term;
+
+    return term + " " + junction(level) + " (" + query(level + 1) + ")";
+  }
+
+  private String junction(int level)
+  {
+    switch (this.junction)
+    {
+      case "AND": return "&&";
+      case "OR": return "||";
+      default: return level % 2 == 0 ? "&&" : "||";
+    }
+  }
+}
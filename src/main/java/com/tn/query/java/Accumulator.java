@@ -0,0 +1,91 @@
+package com.tn.query.java;
+
+import com.tn.query.QueryException;
+
+//The count, sum, minimum and maximum of a field's values in a group, integral and floating point values kept apart so that neither is boxed or rounded.
+final class Accumulator
+{
+  private long longCount;
+  private long longSum;
+  private long longMin = Long.MAX_VALUE;
+  private long longMax = Long.MIN_VALUE;
+  private long doubleCount;
+  private double doubleSum;
+  private double doubleMin = Double.POSITIVE_INFINITY;
+  private double doubleMax = Double.NEGATIVE_INFINITY;
+
+  void add(long value)
+  {
+    this.longCount++;
+    this.longSum += value;
+    this.longMin = Math.min(this.longMin, value);
+    this.longMax = Math.max(this.longMax, value);
+  }
+
+  void add(double value)
+  {
+    this.doubleCount++;
+    this.doubleSum += value;
+    this.doubleMin = Math.min(this.doubleMin, value);
+    this.doubleMax = Math.max(this.doubleMax, value);
+  }
+
+  void add(Object value)
+  {
+    if (value == null) return;
+
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) add(((Number)value).longValue());
+    else if (value instanceof Number) add(((Number)value).doubleValue());
+    else throw new QueryException("Cannot aggregate: " + value);
+  }
+
+  void merge(Accumulator accumulator)
+  {
+    this.longCount += accumulator.longCount;
+    this.longSum += accumulator.longSum;
+    this.longMin = Math.min(this.longMin, accumulator.longMin);
+    this.longMax = Math.max(this.longMax, accumulator.longMax);
+    this.doubleCount += accumulator.doubleCount;
+    this.doubleSum += accumulator.doubleSum;
+    this.doubleMin = Math.min(this.doubleMin, accumulator.doubleMin);
+    this.doubleMax = Math.max(this.doubleMax, accumulator.doubleMax);
+  }
+
+  long count()
+  {
+    return this.longCount + this.doubleCount;
+  }
+
+  Number sum()
+  {
+    if (count() == 0) return null;
+    if (this.doubleCount == 0) return this.longSum;
+
+    return this.longSum + this.doubleSum;
+  }
+
+  Number min()
+  {
+    if (count() == 0) return null;
+    if (this.doubleCount == 0) return this.longMin;
+    if (this.longCount == 0) return this.doubleMin;
+
+    return Math.min(this.longMin, this.doubleMin);
+  }
+
+  Number max()
+  {
+    if (count() == 0) return null;
+    if (this.doubleCount == 0) return this.longMax;
+    if (this.longCount == 0) return this.doubleMax;
+
+    return Math.max(this.longMax, this.doubleMax);
+  }
+
+  Double average()
+  {
+    if (count() == 0) return null;
+
+    return (this.longSum + this.doubleSum) / count();
+  }
+}
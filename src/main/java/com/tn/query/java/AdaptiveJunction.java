@@ -0,0 +1,267 @@
+package com.tn.query.java;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/*
+ * An and/or that tests its operands in the order most likely to short-circuit soonest for the least cost: an and tests the operands that cheaply fail
+ * first, an or those that cheaply pass.  The order starts from an estimate of each operand's cost and pass rate, then 1 in SAMPLE_RATE tests every operand
+ * is timed and its result recorded, and the operands are re-ranked from these samples every REORDER_SAMPLES samples.
+ *
+ * An operand is never tested ahead of an operand written before it that may fail, e.g. a like or a comparison of a value that may be null, so the
+ * result is always that of testing the operands in the order they were written.  An operand that may fail can itself be tested ahead of operands
+ * written before it that can't, and if it fails the operands are tested again in the written order to decide whether the test fails.
+ */
+final class AdaptiveJunction<T> extends Junction<T>
+{
+  private static final int SAMPLE_RATE = 64;
+  private static final int REORDER_SAMPLES = 128;
+  private static final double PRIOR_SAMPLES = 8;
+  private static final double MIN_RATE = 0.001;
+
+  private final Operand<T>[] operands;
+  private volatile Operand<T>[] order;
+
+  //Updated without synchronization, a lost update only delays re-ranking.
+  private int samples;
+
+  @SuppressWarnings("unchecked")
+  private AdaptiveJunction(boolean and, Predicate<T>[] operands)
+  {
+    super(and, operands);
+
+    this.operands = Arrays.stream(operands).map(Operand::new).toArray(Operand[]::new);
+    this.order = rank(this.operands, and, false);
+  }
+
+  static <T> AdaptiveJunction<T> and(Predicate<T> left, Predicate<T> right)
+  {
+    return new AdaptiveJunction<>(true, flatten(true, left, right));
+  }
+
+  static <T> AdaptiveJunction<T> or(Predicate<T> left, Predicate<T> right)
+  {
+    return new AdaptiveJunction<>(false, flatten(false, left, right));
+  }
+
+  @Override
+  public boolean test(T t)
+  {
+    Operand<T>[] order = this.order;
+
+    try
+    {
+      return ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0 ? sample(order, t) : test(order, t);
+    }
+    catch (RuntimeException e)
+    {
+      //An operand written after one that decides the result mustn't fail the test, so the written order decides whether it fails.
+      return test(this.operands, t);
+    }
+  }
+
+  private boolean test(Operand<T>[] order, T t)
+  {
+    boolean and = isAnd();
+    for (Operand<T> operand : order)
+    {
+      if (operand.predicate.test(t) != and) return !and;
+    }
+
+    return and;
+  }
+
+  private boolean sample(Operand<T>[] order, T t)
+  {
+    boolean and = isAnd();
+    boolean result = and;
+    boolean decided = false;
+    RuntimeException failure = null;
+
+    for (Operand<T> operand : order)
+    {
+      long start = System.nanoTime();
+      boolean passed;
+      try
+      {
+        passed = operand.predicate.test(t);
+      }
+      catch (RuntimeException e)
+      {
+        //A failure is recorded as not deciding the junction, so that operands that fail are ranked behind those that decide it.
+        operand.record(and, System.nanoTime() - start);
+        if (!decided && failure == null) failure = e;
+        continue;
+      }
+
+      operand.record(passed, System.nanoTime() - start);
+
+      if (!decided && failure == null && passed != and)
+      {
+        decided = true;
+        result = !and;
+      }
+    }
+
+    if (++this.samples % REORDER_SAMPLES == 0) this.order = rank(this.operands, and, true);
+
+    if (failure != null) throw failure;
+
+    return result;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> Operand<T>[] rank(Operand<T>[] operands, boolean and, boolean sampled)
+  {
+    //Sampled costs are in nanoseconds and the estimates aren't, so they're only used once every operand has been sampled.
+    boolean allSampled = sampled && Arrays.stream(operands).allMatch(operand -> operand.samples > 0);
+    double[] ranks = Arrays.stream(operands).mapToDouble(operand -> operand.rank(and, allSampled)).toArray();
+
+    //Picks the best ranked operand not written after an operand that may fail and is still to be tested, keeping the written order on ties.
+    Operand<T>[] order = new Operand[operands.length];
+    boolean[] ranked = new boolean[operands.length];
+    for (int i = 0; i < order.length; i++)
+    {
+      int best = -1;
+      for (int j = 0; j < operands.length; j++)
+      {
+        if (ranked[j]) continue;
+        if (best == -1 || ranks[j] < ranks[best]) best = j;
+        if (!operands[j].infallible) break;
+      }
+
+      ranked[best] = true;
+      order[i] = operands[best];
+    }
+
+    return order;
+  }
+
+  static double cost(Predicate<?> predicate)
+  {
+    if (predicate instanceof Term) return cost((Term<?>)predicate);
+    if (predicate instanceof Junction) return ((Junction<?>)predicate).operands().stream().mapToDouble(AdaptiveJunction::cost).sum();
+
+    return 10;
+  }
+
+  static double passRate(Predicate<?> predicate)
+  {
+    if (predicate instanceof Term) return passRate((Term<?>)predicate);
+    if (predicate instanceof Junction)
+    {
+      Junction<?> junction = (Junction<?>)predicate;
+      return junction.isAnd()
+        ? junction.operands().stream().mapToDouble(AdaptiveJunction::passRate).reduce(1, (rate1, rate2) -> rate1 * rate2)
+        : 1 - junction.operands().stream().mapToDouble(operand -> 1 - passRate(operand)).reduce(1, (rate1, rate2) -> rate1 * rate2);
+    }
+
+    return 0.5;
+  }
+
+  //Whether testing the predicate can't fail, given getters that don't: equality doesn't depend on the type of the value, and comparisons of primitive
+  //values were checked when the term was built, but comparisons of other values and likes fail for null or mismatched values.
+  static boolean infallible(Predicate<?> predicate)
+  {
+    if (predicate instanceof Constant) return true;
+    if (predicate instanceof Junction) return ((Junction<?>)predicate).operands().stream().allMatch(AdaptiveJunction::infallible);
+    if (!(predicate instanceof Term)) return false;
+
+    Term<?> term = (Term<?>)predicate;
+    switch (term.operator())
+    {
+      case EQUAL:
+      case NOT_EQUAL:
+      case IN:
+        return true;
+
+      case LIKE:
+      case NOT_LIKE:
+        return false;
+
+      default:
+        return primitive(term);
+    }
+  }
+
+  private static boolean primitive(Term<?> term)
+  {
+    return term.getter() instanceof Getter.IntGetter || term.getter() instanceof Getter.LongGetter || term.getter() instanceof Getter.DoubleGetter;
+  }
+
+  private static double cost(Term<?> term)
+  {
+    boolean primitive = primitive(term);
+
+    switch (term.operator())
+    {
+      case EQUAL:
+      case NOT_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return primitive ? 1 : 2;
+
+      case IN:
+        return 3;
+
+      default:
+        //A like with more than one literal part is a regex, otherwise it's a startsWith, endsWith or contains.
+        return term.value() instanceof String && LikePattern.literals((String)term.value()).length > 1 ? 20 : 4;
+    }
+  }
+
+  private static double passRate(Term<?> term)
+  {
+    switch (term.operator())
+    {
+      case EQUAL: return 0.1;
+      case NOT_EQUAL: return 0.9;
+      case IN: return Math.min(0.9, 0.1 * ((Collection<?>)term.value()).size());
+      case LIKE: return 0.25;
+      case NOT_LIKE: return 0.75;
+      default: return 0.5;
+    }
+  }
+
+  private static final class Operand<T>
+  {
+    private final Predicate<T> predicate;
+    private final double cost;
+    private final double passRate;
+    private final boolean infallible;
+
+    //Sample statistics, updated without synchronization as they are only estimates.
+    private long samples;
+    private long passes;
+    private long nanos;
+
+    private Operand(Predicate<T> predicate)
+    {
+      this.predicate = predicate;
+      this.cost = cost(predicate);
+      this.passRate = passRate(predicate);
+      this.infallible = infallible(predicate);
+    }
+
+    private void record(boolean passed, long nanos)
+    {
+      this.samples++;
+      if (passed) this.passes++;
+      this.nanos += nanos;
+    }
+
+    private double rank(boolean and, boolean sampled)
+    {
+      //The estimated pass rate is a prior that the samples gradually outweigh.
+      double passRate = sampled ? (this.passes + this.passRate * PRIOR_SAMPLES) / (this.samples + PRIOR_SAMPLES) : this.passRate;
+      double cost = sampled ? (double)this.nanos / this.samples : this.cost;
+
+      //The expected cost of the test that decides the junction: the cost of the operand divided by the chance it decides it.
+      return cost / Math.max(and ? 1 - passRate : passRate, MIN_RATE);
+    }
+  }
+}
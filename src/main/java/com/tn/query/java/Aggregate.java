@@ -0,0 +1,77 @@
+package com.tn.query.java;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The aggregated values of one group of an <code>Aggregation</code>.
+ * <p>
+ * Sums, minimums and maximums are <code>Long</code>s when all of a field's values are integral (<code>int</code>, <code>long</code>, <code>short</code>
+ * or <code>byte</code>), otherwise <code>Double</code>s, and are <code>null</code> when the group has no values for the field.  <code>null</code> values
+ * are ignored.
+ */
+public class Aggregate
+{
+  private final List<Object> key;
+  private final long count;
+  private final Map<String, Accumulator> accumulators;
+
+  Aggregate(List<Object> key, long count, Map<String, Accumulator> accumulators)
+  {
+    this.key = key;
+    this.count = count;
+    this.accumulators = accumulators;
+  }
+
+  /**
+   * Returns the values of the group by fields, in the order they were added to the <code>Aggregation</code>.
+   */
+  public List<Object> key()
+  {
+    return this.key;
+  }
+
+  public long count()
+  {
+    return this.count;
+  }
+
+  public long count(String field)
+  {
+    return accumulator(field).count();
+  }
+
+  public Number sum(String field)
+  {
+    return accumulator(field).sum();
+  }
+
+  public Number min(String field)
+  {
+    return accumulator(field).min();
+  }
+
+  public Number max(String field)
+  {
+    return accumulator(field).max();
+  }
+
+  public Double average(String field)
+  {
+    return accumulator(field).average();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "Aggregate{key=" + this.key + ", count=" + this.count + "}";
+  }
+
+  private Accumulator accumulator(String field)
+  {
+    Accumulator accumulator = this.accumulators.get(field);
+    if (accumulator == null) throw new IllegalArgumentException("Not aggregated: " + field);
+
+    return accumulator;
+  }
+}
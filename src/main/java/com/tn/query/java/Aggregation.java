@@ -0,0 +1,91 @@
+package com.tn.query.java;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.tn.query.QueryException;
+import com.tn.query.java.Getter.DoubleGetter;
+import com.tn.query.java.Getter.IntGetter;
+import com.tn.query.java.Getter.LongGetter;
+
+/**
+ * Groups objects by the values of their group by fields, counting them and aggregating the values of their aggregated fields, built from the same
+ * <code>Getter</code>s as the <code>JavaPredicateFactory</code> used to parse queries.  Run by <code>QueryExecutor.aggregate</code>, which filters,
+ * groups and aggregates in a single pass:
+ * <pre>
+ * Aggregation&lt;Person&gt; aggregation = new Aggregation&lt;&gt;(getters).withGroupBy("sex").withAggregate("salary");
+ * </pre>
+ * Values are accumulated as primitives, and groups by a single <code>int</code> or <code>long</code> primitive field are found without boxing.
+ */
+public class Aggregation<T>
+{
+  private final Map<String, Getter<T>> getters;
+  private final List<Getter<T>> groupBy = new ArrayList<>();
+  private final List<Getter<T>> aggregates = new ArrayList<>();
+
+  public Aggregation(Collection<Getter<T>> getters)
+  {
+    this.getters = getters.stream().collect(toMap(Getter::name, identity()));
+  }
+
+  public Aggregation<T> withGroupBy(String field)
+  {
+    this.groupBy.add(getter(field));
+    return this;
+  }
+
+  public Aggregation<T> withAggregate(String field)
+  {
+    Getter<T> getter = getter(field);
+
+    //A getter declared to return a type that can't be a number would fail on its first value.
+    Class<?> type = getter.type();
+    if (type != null && !Number.class.isAssignableFrom(type) && Modifier.isFinal(type.getModifiers()))
+    {
+      throw new QueryException("Cannot aggregate: " + field);
+    }
+
+    if (!this.aggregates.contains(getter)) this.aggregates.add(getter);
+    return this;
+  }
+
+  Groups<T> groups()
+  {
+    return new Groups<>(this.groupBy, this.aggregates.stream().map(Aggregation::accumulate).toList(), this.aggregates.stream().map(Getter::name).toList());
+  }
+
+  private static <T> Groups.Accumulate<T> accumulate(Getter<T> getter)
+  {
+    if (getter instanceof IntGetter)
+    {
+      IntGetter<T> intGetter = (IntGetter<T>)getter;
+      return (target, accumulator) -> accumulator.add(intGetter.getInt(target));
+    }
+    if (getter instanceof LongGetter)
+    {
+      LongGetter<T> longGetter = (LongGetter<T>)getter;
+      return (target, accumulator) -> accumulator.add(longGetter.getLong(target));
+    }
+    if (getter instanceof DoubleGetter)
+    {
+      DoubleGetter<T> doubleGetter = (DoubleGetter<T>)getter;
+      return (target, accumulator) -> accumulator.add(doubleGetter.getDouble(target));
+    }
+
+    return (target, accumulator) -> accumulator.add(getter.get(target));
+  }
+
+  private Getter<T> getter(String field)
+  {
+    Getter<T> getter = this.getters.get(field);
+    if (getter == null) throw new QueryException("Getter missing for: " + field);
+
+    return getter;
+  }
+}
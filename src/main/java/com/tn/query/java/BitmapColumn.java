@@ -0,0 +1,89 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * A column held as a compressed bitmap of the rows for each distinct value, rather than a value for each row.  Equality terms look up the one bitmap
+ * for their value, and any other term is tested once per value, against the first row holding that value, then takes the union of the bitmaps of the
+ * values that match.  Only suited to fields with few distinct values.
+ */
+final class BitmapColumn<T> extends Column<T>
+{
+  private final Map<Object, CompressedBitmap> bitmaps;
+  private final Object[] representatives;
+  private final CompressedBitmap[] representativeBitmaps;
+
+  @SuppressWarnings("unchecked")
+  BitmapColumn(Getter<T> getter, Object[] rows)
+  {
+    super(getter);
+
+    Map<Object, CompressedBitmap> bitmaps = new HashMap<>();
+    List<Object> representatives = new ArrayList<>();
+    List<CompressedBitmap> representativeBitmaps = new ArrayList<>();
+
+    for (int row = 0; row < rows.length; row++)
+    {
+      Object value = getter.get((T)rows[row]);
+
+      CompressedBitmap bitmap = bitmaps.get(value);
+      if (bitmap == null)
+      {
+        bitmap = new CompressedBitmap();
+        bitmaps.put(value, bitmap);
+        representatives.add(rows[row]);
+        representativeBitmaps.add(bitmap);
+      }
+
+      bitmap.add(row);
+    }
+
+    bitmaps.values().forEach(CompressedBitmap::optimise);
+
+    this.bitmaps = bitmaps;
+    this.representatives = representatives.toArray();
+    this.representativeBitmaps = representativeBitmaps.toArray(new CompressedBitmap[0]);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  boolean evaluate(Term<T> term, Selection matches, Selection undecided)
+  {
+    switch (term.operator())
+    {
+      //The map's keys are the getter's values, boxed for primitive getters, so a lookup finds the rows the term's equality test would match.
+      case EQUAL:
+        equal(term.value(), matches);
+        return true;
+
+      case NOT_EQUAL:
+        equal(term.value(), matches);
+        matches.not();
+        return true;
+
+      default:
+        for (int value = 0; value < this.representatives.length; value++)
+        {
+          try
+          {
+            if (term.test((T)this.representatives[value])) this.representativeBitmaps[value].or(matches);
+          }
+          catch (RuntimeException e)
+          {
+            this.representativeBitmaps[value].or(undecided);
+          }
+        }
+
+        return true;
+    }
+  }
+
+  private void equal(Object right, Selection matches)
+  {
+    CompressedBitmap bitmap = this.bitmaps.get(right);
+    if (bitmap != null) bitmap.or(matches);
+  }
+}
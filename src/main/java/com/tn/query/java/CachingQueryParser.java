@@ -0,0 +1,153 @@
+package com.tn.query.java;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import com.tn.query.QueryParser;
+
+/**
+ * Caches the predicates parsed by another <code>QueryParser</code> by trimmed query, holding at most <code>maximumSize</code> and evicting
+ * with the CLOCK approximation of least-recently-used so that lookups don't need a lock.
+ * <p>
+ * Given a version, such as a <code>GetterRegistry</code>'s, predicates cached before the version changed are parsed again when next used, so that they
+ * pick up replaced getters.
+ */
+public class CachingQueryParser<T> implements QueryParser<Predicate<T>>
+{
+  private final QueryParser<Predicate<T>> queryParser;
+  private final int maximumSize;
+  private final LongSupplier version;
+  private final Map<String, Entry<T>> cache = new ConcurrentHashMap<>();
+  private final Queue<String> clock = new ConcurrentLinkedQueue<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public CachingQueryParser(QueryParser<Predicate<T>> queryParser, int maximumSize)
+  {
+    this(queryParser, maximumSize, () -> 0);
+  }
+
+  public CachingQueryParser(QueryParser<Predicate<T>> queryParser, int maximumSize, LongSupplier version)
+  {
+    if (maximumSize <= 0) throw new IllegalArgumentException("Maximum size must be greater than zero, received: " + maximumSize);
+
+    this.queryParser = queryParser;
+    this.maximumSize = maximumSize;
+    this.version = version;
+  }
+
+  @Override
+  public Predicate<T> parse(String query)
+  {
+    String key = normalise(query);
+    long version = this.version.getAsLong();
+
+    Entry<T> entry = this.cache.get(key);
+    if (entry != null && entry.version == version)
+    {
+      entry.referenced = true;
+      this.hits.increment();
+
+      return entry.predicate;
+    }
+
+    this.misses.increment();
+
+    //The version is read before parsing, so a change while parsing leaves the entry out of date rather than the change unnoticed.
+    Entry<T> parsed = new Entry<>(this.queryParser.parse(query), version);
+    if (entry != null)
+    {
+      //An out of date entry is replaced in place, keeping its place in the clock.
+      this.cache.replace(key, entry, parsed);
+      return parsed.predicate;
+    }
+
+    entry = this.cache.putIfAbsent(key, parsed);
+    if (entry != null) return entry.predicate;
+
+    this.clock.add(key);
+    if (this.cache.size() > this.maximumSize) evict();
+
+    return parsed.predicate;
+  }
+
+  public long hitCount()
+  {
+    return this.hits.sum();
+  }
+
+  public long missCount()
+  {
+    return this.misses.sum();
+  }
+
+  public long evictionCount()
+  {
+    return this.evictions.sum();
+  }
+
+  public int size()
+  {
+    return this.cache.size();
+  }
+
+  public void clear()
+  {
+    synchronized (this.clock)
+    {
+      this.cache.clear();
+      this.clock.clear();
+    }
+  }
+
+  private void evict()
+  {
+    synchronized (this.clock)
+    {
+      while (this.cache.size() > this.maximumSize)
+      {
+        String key = this.clock.poll();
+        if (key == null) return;
+
+        Entry<T> entry = this.cache.get(key);
+        if (entry == null) continue;
+
+        if (entry.referenced)
+        {
+          entry.referenced = false;
+          this.clock.add(key);
+        }
+        else
+        {
+          this.cache.remove(key);
+          this.evictions.increment();
+        }
+      }
+    }
+  }
+
+  //Whitespace within the query may be part of a value, e.g. in a like pattern, so only leading and trailing whitespace is ignored.
+  static String normalise(String query)
+  {
+    return query.strip();
+  }
+
+  private static class Entry<T>
+  {
+    private final Predicate<T> predicate;
+    private final long version;
+    private volatile boolean referenced;
+
+    private Entry(Predicate<T> predicate, long version)
+    {
+      this.predicate = predicate;
+      this.version = version;
+    }
+  }
+}
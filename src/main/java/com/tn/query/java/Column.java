@@ -0,0 +1,53 @@
+package com.tn.query.java;
+
+import com.tn.query.java.Getter.DoubleGetter;
+import com.tn.query.java.Getter.IntGetter;
+import com.tn.query.java.Getter.LongGetter;
+
+/*
+ * The values of one field for every row of a ColumnarSnapshot.
+ */
+abstract class Column<T>
+{
+  private final Getter<T> getter;
+
+  Column(Getter<T> getter)
+  {
+    this.getter = getter;
+  }
+
+  Getter<T> getter()
+  {
+    return this.getter;
+  }
+
+  //Sets the rows matching the term in matches, and the rows that can only be decided by testing them, e.g. because they would throw, in undecided.
+  //Returns false if the term can't be evaluated from the column at all.
+  abstract boolean evaluate(Term<T> term, Selection matches, Selection undecided);
+
+  @SuppressWarnings("unchecked")
+  static <T> Column<T> of(Getter<T> getter, Object[] rows)
+  {
+    if (getter instanceof IntGetter) return IntColumn.of((IntGetter<T>)getter, rows);
+    if (getter instanceof LongGetter) return LongColumn.of((LongGetter<T>)getter, rows);
+    if (getter instanceof DoubleGetter) return DoubleColumn.of((DoubleGetter<T>)getter, rows);
+
+    Object[] values = new Object[rows.length];
+    Class<?> type = null;
+    for (int row = 0; row < rows.length; row++)
+    {
+      Object value = getter.get((T)rows[row]);
+      values[row] = value;
+
+      if (value == null) continue;
+      if (type == null) type = value.getClass();
+      else if (type != value.getClass()) type = Object.class;
+    }
+
+    if (type == Integer.class) return IntColumn.of(getter, values);
+    if (type == Long.class) return LongColumn.of(getter, values);
+    if (type == Double.class) return DoubleColumn.of(getter, values);
+
+    return new DictionaryColumn<>(getter, rows, values);
+  }
+}
@@ -0,0 +1,188 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.tn.query.QueryException;
+
+/**
+ * A read-only copy of a collection, holding each field given by the <code>Getter</code>s as a column: <code>int</code>, <code>long</code> and
+ * <code>double</code> values in primitive arrays and any other values dictionary encoded.
+ * <p>
+ * <code>filter</code> and <code>count</code> evaluate each term of a query over a whole column, combining the selected rows of each term a word of bits at a
+ * time.  The results, including any <code>QueryException</code>, are the same as testing each object in turn, provided the objects don't change after the
+ * snapshot is taken.  The predicates must come from a <code>JavaPredicateFactory</code> or <code>CompilingPredicateFactory</code> built with the same
+ * <code>Getter</code>s to be evaluated by column, others are tested against each object.
+ * <p>
+ * Fields with few distinct values, such as booleans and enums, can instead be held as a bitmap index with <code>withBitmapIndex</code>: a compressed
+ * bitmap of the rows holding each value, so that an <code>=</code> or <code>!=</code> term is a single lookup and other terms are tested once per value.
+ */
+public class ColumnarSnapshot<T>
+{
+  private final Object[] rows;
+  private final Map<String, Column<T>> columns;
+
+  public ColumnarSnapshot(Collection<T> targets, Collection<Getter<T>> getters)
+  {
+    this.rows = targets.toArray();
+    this.columns = new HashMap<>(getters.stream().collect(toMap(Getter::name, getter -> Column.of(getter, this.rows))));
+  }
+
+  public ColumnarSnapshot<T> withBitmapIndex(String field)
+  {
+    Column<T> column = this.columns.get(field);
+    if (column == null) throw new QueryException("Getter missing for: " + field);
+
+    this.columns.put(field, new BitmapColumn<>(column.getter(), this.rows));
+    return this;
+  }
+
+  public int size()
+  {
+    return this.rows.length;
+  }
+
+  public List<T> filter(Predicate<T> predicate)
+  {
+    Selection selection = select(predicate);
+
+    List<T> matches = new ArrayList<>(selection.cardinality());
+    for (int row = selection.next(0); row >= 0; row = selection.next(row + 1))
+    {
+      matches.add(row(row));
+    }
+
+    return matches;
+  }
+
+  public int count(Predicate<T> predicate)
+  {
+    return select(predicate).cardinality();
+  }
+
+  private Selection select(Predicate<T> predicate)
+  {
+    Node<T> node = Node.of(predicate);
+    if (node == null)
+    {
+      Selection matches = new Selection(this.rows.length);
+      for (int row = 0; row < this.rows.length; row++)
+      {
+        if (predicate.test(row(row))) matches.set(row);
+      }
+
+      return matches;
+    }
+
+    Outcome outcome = evaluate(node);
+
+    //Testing the undecided rows in order throws the same exception, if any, as testing every object would have.
+    for (int row = outcome.undecided.next(0); row >= 0; row = outcome.undecided.next(row + 1))
+    {
+      if (predicate.test(row(row))) outcome.matches.set(row);
+    }
+
+    return outcome.matches;
+  }
+
+  private Outcome evaluate(Predicate<T> predicate)
+  {
+    Node<T> node = Node.of(predicate);
+
+    if (node instanceof Term)
+    {
+      Term<T> term = (Term<T>)node;
+      Column<T> column = this.columns.get(term.field());
+
+      Outcome outcome = new Outcome(this.rows.length);
+      if (column != null && column.getter() == term.getter() && column.evaluate(term, outcome.matches, outcome.undecided)) return outcome;
+
+      return scan(term);
+    }
+
+    if (node instanceof Constant)
+    {
+      Outcome outcome = new Outcome(this.rows.length);
+      if (((Constant<T>)node).value()) outcome.matches.not();
+
+      return outcome;
+    }
+
+    if (node instanceof Junction)
+    {
+      Junction<T> junction = (Junction<T>)node;
+
+      Outcome outcome = null;
+      for (Predicate<T> operand : junction.operands())
+      {
+        outcome = outcome == null ? evaluate(operand) : outcome.combine(junction.isAnd(), evaluate(operand));
+        if (outcome.undecided.isEmpty() && (junction.isAnd() ? outcome.matches.isEmpty() : outcome.matches.isFull())) break;
+      }
+
+      return outcome;
+    }
+
+    return scan(predicate);
+  }
+
+  private Outcome scan(Predicate<T> predicate)
+  {
+    Outcome outcome = new Outcome(this.rows.length);
+    for (int row = 0; row < this.rows.length; row++)
+    {
+      try
+      {
+        if (predicate.test(row(row))) outcome.matches.set(row);
+      }
+      catch (RuntimeException e)
+      {
+        outcome.undecided.set(row);
+      }
+    }
+
+    return outcome;
+  }
+
+  @SuppressWarnings("unchecked")
+  private T row(int row)
+  {
+    return (T)this.rows[row];
+  }
+
+  //The matches are only meaningful for the rows that aren't undecided.
+  private static class Outcome
+  {
+    private final Selection matches;
+    private final Selection undecided;
+
+    private Outcome(int size)
+    {
+      this(new Selection(size), new Selection(size));
+    }
+
+    private Outcome(Selection matches, Selection undecided)
+    {
+      this.matches = matches;
+      this.undecided = undecided;
+    }
+
+    //Follows the short-circuiting of Junction: the right operand is only tested, and so can only be undecided, when the left doesn't decide the row.
+    private Outcome combine(boolean and, Outcome right)
+    {
+      Selection tested = and ? this.matches.copy() : this.matches.copy().or(this.undecided).not();
+      this.undecided.or(tested.and(right.undecided));
+
+      if (and) this.matches.and(right.matches);
+      else this.matches.or(right.matches);
+      this.matches.andNot(this.undecided);
+
+      return this;
+    }
+  }
+}
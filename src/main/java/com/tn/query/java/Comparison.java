@@ -0,0 +1,160 @@
+package com.tn.query.java;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+
+import com.tn.query.QueryException;
+
+/**
+ * Resolves how a value is compared to the right-hand side of a comparison when the predicate is built.
+ */
+final class Comparison
+{
+  //The type each class's compareTo accepts, empty for classes that aren't comparable.
+  private static final ClassValue<Optional<Class<?>>> COMPARED_TYPES = new ClassValue<>()
+  {
+    @Override
+    protected Optional<Class<?>> computeValue(Class<?> type)
+    {
+      return Optional.ofNullable(comparedType(type));
+    }
+  };
+
+  private Comparison() {}
+
+  /**
+   * Returns a function comparing values read by a getter declared to return <code>type</code>, or of an unknown type when <code>type</code> is
+   * <code>null</code>, to <code>right</code>.
+   */
+  static ToIntFunction<Object> of(String left, Class<?> type, Object right)
+  {
+    if (!(right instanceof Comparable)) throw new QueryException("Cannot compare: " + right);
+
+    Class<?> comparedType = type != null ? COMPARED_TYPES.get(type).orElse(null) : null;
+    if (comparedType != null && comparedType != Object.class)
+    {
+      if (!comparedType.isInstance(right)) throw new QueryException("Type mismatch: " + left + " and " + right);
+
+      //Every value of the declared type accepts the right value, so only null is left to check.
+      return value ->
+      {
+        if (value == null) throw new QueryException("Cannot compare: null");
+
+        return compareTo(value, right);
+      };
+    }
+    if (comparedType == null && type != null && Modifier.isFinal(type.getModifiers()))
+    {
+      throw new QueryException("Cannot compare: " + left);
+    }
+
+    return dynamic(right);
+  }
+
+  /**
+   * Compares two values, neither of which may be <code>null</code>, reporting values that can't be compared with a <code>QueryException</code>.
+   */
+  static int compare(Object value1, Object value2)
+  {
+    if (!(value1 instanceof Comparable)) throw new QueryException("Cannot compare: " + value1);
+
+    Class<?> comparedType = COMPARED_TYPES.get(value1.getClass()).orElseThrow();
+    if (comparedType == Object.class) return uncheckedCompareTo(value1, value2);
+    if (!comparedType.isInstance(value2)) throw new QueryException("Type mismatch: " + value1 + " and " + value2);
+
+    return compareTo(value1, value2);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compareTo(Object value, Object right)
+  {
+    return ((Comparable<Object>)value).compareTo(right);
+  }
+
+  private static ToIntFunction<Object> dynamic(Object right)
+  {
+    //The getter's type isn't known, so values are checked, but only once per class when they're not of the right value's class.
+    Class<?> rightType = right.getClass();
+    Class<?> rightComparedType = COMPARED_TYPES.get(rightType).orElseThrow();
+    boolean resolved = rightComparedType != Object.class && rightComparedType.isInstance(right);
+
+    return value ->
+    {
+      if (resolved && value != null && value.getClass() == rightType) return compareTo(value, right);
+      if (!(value instanceof Comparable)) throw new QueryException("Cannot compare: " + value);
+
+      Class<?> comparedType = COMPARED_TYPES.get(value.getClass()).orElseThrow();
+      if (comparedType == Object.class) return uncheckedCompareTo(value, right);
+      if (!comparedType.isInstance(right)) throw new QueryException("Type mismatch: " + value + " and " + right);
+
+      return compareTo(value, right);
+    };
+  }
+
+  private static int uncheckedCompareTo(Object value, Object right)
+  {
+    //Raw comparables, or ones whose type can't be resolved, may still reject the right value.
+    try
+    {
+      return compareTo(value, right);
+    }
+    catch (ClassCastException e)
+    {
+      throw new QueryException("Type mismatch: " + value + " and " + right);
+    }
+  }
+
+  private static Class<?> comparedType(Class<?> type)
+  {
+    if (!Comparable.class.isAssignableFrom(type)) return null;
+    if (Enum.class.isAssignableFrom(type) && type != Enum.class)
+    {
+      //Enum.compareTo only accepts constants of the same enum, which constants with bodies subclass.
+      Class<?> enumType = type;
+      while (enumType.getSuperclass() != Enum.class) enumType = enumType.getSuperclass();
+
+      return enumType;
+    }
+
+    for (Class<?> current = type; current != null; current = current.getSuperclass())
+    {
+      Type argument = comparableArgument(current);
+      if (argument != null) return erasure(argument);
+    }
+
+    return Object.class;
+  }
+
+  private static Type comparableArgument(Class<?> type)
+  {
+    for (Type superInterface : type.getGenericInterfaces())
+    {
+      if (superInterface == Comparable.class) return Object.class;
+      if (superInterface instanceof ParameterizedType && ((ParameterizedType)superInterface).getRawType() == Comparable.class)
+      {
+        return ((ParameterizedType)superInterface).getActualTypeArguments()[0];
+      }
+
+      Class<?> rawInterface = (Class<?>)(superInterface instanceof ParameterizedType ? ((ParameterizedType)superInterface).getRawType() : superInterface);
+      Type argument = comparableArgument(rawInterface);
+      if (argument != null) return argument;
+    }
+
+    return null;
+  }
+
+  private static Class<?> erasure(Type type)
+  {
+    if (type instanceof Class) return (Class<?>)type;
+    if (type instanceof ParameterizedType) return erasure(((ParameterizedType)type).getRawType());
+    if (type instanceof TypeVariable) return erasure(((TypeVariable<?>)type).getBounds()[0]);
+    if (type instanceof WildcardType) return erasure(((WildcardType)type).getUpperBounds()[0]);
+
+    return Object.class;
+  }
+}
@@ -0,0 +1,88 @@
+package com.tn.query.java;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.function.Predicate;
+
+final class CompiledPredicate<T> implements Predicate<T>
+{
+  private static final MethodHandle TEST;
+  private static final MethodHandle FALSE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, Object.class);
+  private static final MethodHandle TRUE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, Object.class);
+
+  static
+  {
+    try
+    {
+      TEST = MethodHandles.publicLookup().findVirtual(Predicate.class, "test", methodType(boolean.class, Object.class));
+    }
+    catch (ReflectiveOperationException e)
+    {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final MethodHandle handle;
+  private final Node<T> node;
+  private volatile Predicate<T> compiled;
+
+  private CompiledPredicate(MethodHandle handle, Node<T> node)
+  {
+    this.handle = handle;
+    this.node = node;
+  }
+
+  static <T> CompiledPredicate<T> of(Predicate<T> predicate)
+  {
+    return predicate instanceof CompiledPredicate ? (CompiledPredicate<T>)predicate : new CompiledPredicate<>(TEST.bindTo(predicate), Node.of(predicate));
+  }
+
+  static <T> CompiledPredicate<T> and(Predicate<T> left, Predicate<T> right)
+  {
+    CompiledPredicate<T> compiledLeft = of(left);
+    CompiledPredicate<T> compiledRight = of(right);
+
+    return new CompiledPredicate<>(
+      MethodHandles.guardWithTest(compiledLeft.handle, compiledRight.handle, FALSE),
+      compiledLeft.node != null && compiledRight.node != null ? Junction.and(compiledLeft.node, compiledRight.node) : null
+    );
+  }
+
+  static <T> CompiledPredicate<T> or(Predicate<T> left, Predicate<T> right)
+  {
+    CompiledPredicate<T> compiledLeft = of(left);
+    CompiledPredicate<T> compiledRight = of(right);
+
+    return new CompiledPredicate<>(
+      MethodHandles.guardWithTest(compiledLeft.handle, TRUE, compiledRight.handle),
+      compiledLeft.node != null && compiledRight.node != null ? Junction.or(compiledLeft.node, compiledRight.node) : null
+    );
+  }
+
+  //The equivalent, uncompiled, query or null if the query contains predicates not built by JavaPredicateFactory.
+  Node<T> node()
+  {
+    return this.node;
+  }
+
+  @Override
+  public boolean test(T t)
+  {
+    return compiled().test(t);
+  }
+
+  private Predicate<T> compiled()
+  {
+    //Only the root of a query is ever tested, so the hidden class is defined lazily to avoid defining one for every and/or in the query.
+    Predicate<T> compiled = this.compiled;
+    if (compiled == null)
+    {
+      compiled = QueryClass.define(this.handle);
+      this.compiled = compiled;
+    }
+
+    return compiled;
+  }
+}
@@ -0,0 +1,240 @@
+package com.tn.query.java;
+
+import java.util.Arrays;
+
+/*
+ * A compressed bitmap of row numbers, split like a Roaring bitmap into chunks of 65536 rows each held in whichever container is smallest: a sorted array
+ * of the rows in the chunk when there are few of them, a plain bitmap when there are many, or runs of consecutive rows when the rows are clustered.
+ * Rows must be added in ascending order.
+ */
+final class CompressedBitmap
+{
+  private static final int CHUNK_BITS = 16;
+  private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+  private static final int ARRAY_LIMIT = 4096;
+  private static final int BITMAP_WORDS = 1 << (CHUNK_BITS - 6);
+
+  private int[] keys = new int[4];
+  private Container[] containers = new Container[4];
+  private int size;
+  private int cardinality;
+
+  void add(int row)
+  {
+    int key = row >>> CHUNK_BITS;
+    if (this.size == 0 || this.keys[this.size - 1] != key)
+    {
+      if (this.size == this.keys.length)
+      {
+        //Optimising may have trimmed the arrays, even to nothing.
+        this.keys = Arrays.copyOf(this.keys, Math.max(this.size * 2, 4));
+        this.containers = Arrays.copyOf(this.containers, Math.max(this.size * 2, 4));
+      }
+
+      this.keys[this.size] = key;
+      this.containers[this.size++] = new ArrayContainer();
+    }
+
+    this.containers[this.size - 1] = this.containers[this.size - 1].add(row & CHUNK_MASK);
+    this.cardinality++;
+  }
+
+  int cardinality()
+  {
+    return this.cardinality;
+  }
+
+  //Called once every row has been added, converting each container to runs when they're smaller.  Rows may still be added afterwards.
+  CompressedBitmap optimise()
+  {
+    for (int i = 0; i < this.size; i++) this.containers[i] = this.containers[i].optimise();
+
+    this.keys = Arrays.copyOf(this.keys, this.size);
+    this.containers = Arrays.copyOf(this.containers, this.size);
+
+    return this;
+  }
+
+  //Sets the rows in the selection, a chunk at a time.
+  void or(Selection selection)
+  {
+    long[] words = selection.words();
+    for (int i = 0; i < this.size; i++) this.containers[i].or(words, this.keys[i] << (CHUNK_BITS - 6));
+  }
+
+  //Sets the bits from..to, inclusive, of the words.
+  private static void set(long[] words, int from, int to)
+  {
+    int first = from >>> 6;
+    int last = to >>> 6;
+    if (first == last)
+    {
+      words[first] |= (-1L << from) & (-1L >>> (63 - (to & 63)));
+      return;
+    }
+
+    words[first] |= -1L << from;
+    for (int word = first + 1; word < last; word++) words[word] = -1L;
+    words[last] |= -1L >>> (63 - (to & 63));
+  }
+
+  private abstract static class Container
+  {
+    abstract Container add(int value);
+
+    abstract Container optimise();
+
+    abstract void or(long[] words, int offset);
+  }
+
+  private static final class ArrayContainer extends Container
+  {
+    private char[] values = new char[4];
+    private int cardinality;
+
+    @Override
+    Container add(int value)
+    {
+      if (this.cardinality == ARRAY_LIMIT) return new BitmapContainer(this).add(value);
+      if (this.cardinality == this.values.length) this.values = Arrays.copyOf(this.values, Math.min(this.cardinality * 2, ARRAY_LIMIT));
+
+      this.values[this.cardinality++] = (char)value;
+      return this;
+    }
+
+    @Override
+    Container optimise()
+    {
+      int runs = 0;
+      for (int i = 0; i < this.cardinality; i++)
+      {
+        if (i == 0 || this.values[i] != this.values[i - 1] + 1) runs++;
+      }
+
+      //Each run is two chars to the array's one per value.
+      if (runs * 2 < this.cardinality)
+      {
+        RunContainer container = new RunContainer(runs);
+        for (int i = 0; i < this.cardinality; i++) container.append(this.values[i]);
+
+        return container;
+      }
+
+      this.values = Arrays.copyOf(this.values, this.cardinality);
+      return this;
+    }
+
+    @Override
+    void or(long[] words, int offset)
+    {
+      for (int i = 0; i < this.cardinality; i++)
+      {
+        char value = this.values[i];
+        words[offset + (value >>> 6)] |= 1L << value;
+      }
+    }
+  }
+
+  private static final class BitmapContainer extends Container
+  {
+    private final long[] words = new long[BITMAP_WORDS];
+
+    private BitmapContainer(Container container)
+    {
+      container.or(this.words, 0);
+    }
+
+    @Override
+    Container add(int value)
+    {
+      this.words[value >>> 6] |= 1L << value;
+      return this;
+    }
+
+    @Override
+    Container optimise()
+    {
+      int runs = 0;
+      long previous = 0;
+      for (long word : this.words)
+      {
+        //A run starts at each set bit whose lower neighbour, possibly the top bit of the previous word, isn't set.
+        runs += Long.bitCount(word & ~(word << 1 | previous >>> 63));
+        previous = word;
+      }
+
+      //Each run is four bytes, the bitmap eight thousand.
+      if (runs * 4 >= BITMAP_WORDS * Long.BYTES) return this;
+
+      RunContainer container = new RunContainer(runs);
+      for (int word = 0; word < BITMAP_WORDS; word++)
+      {
+        for (long bits = this.words[word]; bits != 0; bits &= bits - 1) container.append((word << 6) + Long.numberOfTrailingZeros(bits));
+      }
+
+      return container;
+    }
+
+    @Override
+    void or(long[] words, int offset)
+    {
+      //The last chunk may extend past the end of the selection, but none of its bits do.
+      for (int word = 0, end = Math.min(BITMAP_WORDS, words.length - offset); word < end; word++) words[offset + word] |= this.words[word];
+    }
+  }
+
+  private static final class RunContainer extends Container
+  {
+    //The first and last value of each run, inclusive.
+    private final char[] runs;
+    private int count;
+
+    private RunContainer(int runs)
+    {
+      this.runs = new char[runs * 2];
+    }
+
+    //Runs are sized when optimising, so a row added afterwards goes to whichever of an array or bitmap holds the runs' values.
+    @Override
+    Container add(int value)
+    {
+      int cardinality = 0;
+      for (int run = 0; run < this.count; run++) cardinality += this.runs[run * 2 + 1] - this.runs[run * 2] + 1;
+
+      if (cardinality >= ARRAY_LIMIT) return new BitmapContainer(this).add(value);
+
+      ArrayContainer container = new ArrayContainer();
+      for (int run = 0; run < this.count; run++)
+      {
+        for (int runValue = this.runs[run * 2]; runValue <= this.runs[run * 2 + 1]; runValue++) container.add(runValue);
+      }
+
+      return container.add(value);
+    }
+
+    @Override
+    Container optimise()
+    {
+      return this;
+    }
+
+    @Override
+    void or(long[] words, int offset)
+    {
+      for (int run = 0; run < this.count; run++) set(words, (offset << 6) + this.runs[run * 2], (offset << 6) + this.runs[run * 2 + 1]);
+    }
+
+    private void append(int value)
+    {
+      if (this.count > 0 && this.runs[this.count * 2 - 1] + 1 == value)
+      {
+        this.runs[this.count * 2 - 1] = (char)value;
+        return;
+      }
+
+      this.runs[this.count * 2] = (char)value;
+      this.runs[this.count * 2 + 1] = (char)value;
+      this.count++;
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.tn.query.java;
+
+import java.util.function.Predicate;
+
+/*
+ * A query known to pass or fail for every object without testing it, e.g. one simplified to false, so that whatever runs the query can skip testing the
+ * objects altogether.
+ */
+final class Constant<T> extends Node<T>
+{
+  private static final Constant<?> TRUE = new Constant<>(true);
+  private static final Constant<?> FALSE = new Constant<>(false);
+
+  private final boolean value;
+
+  private Constant(boolean value)
+  {
+    this.value = value;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> Constant<T> of(boolean value)
+  {
+    return (Constant<T>)(value ? TRUE : FALSE);
+  }
+
+  static <T> boolean isFalse(Predicate<T> predicate)
+  {
+    Node<T> node = Node.of(predicate);
+    return node instanceof Constant && !((Constant<T>)node).value;
+  }
+
+  boolean value()
+  {
+    return this.value;
+  }
+
+  @Override
+  public boolean test(T t)
+  {
+    return this.value;
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.valueOf(this.value);
+  }
+}
@@ -0,0 +1,81 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * A column of codes, one per distinct value.  A term only needs testing once per code, against the first row holding that value, to know its outcome
+ * for every row.
+ */
+final class DictionaryColumn<T> extends Column<T>
+{
+  private static final byte FALSE = 0;
+  private static final byte TRUE = 1;
+  private static final byte UNDECIDED = 2;
+
+  private final int[] codes;
+  private final Object[] representatives;
+
+  DictionaryColumn(Getter<T> getter, Object[] rows, Object[] values)
+  {
+    super(getter);
+
+    Map<Object, Integer> dictionary = new HashMap<>();
+    List<Object> representatives = new ArrayList<>();
+
+    this.codes = new int[values.length];
+    for (int row = 0; row < values.length; row++)
+    {
+      Integer code = dictionary.get(values[row]);
+      if (code == null)
+      {
+        code = representatives.size();
+        dictionary.put(values[row], code);
+        representatives.add(rows[row]);
+      }
+
+      this.codes[row] = code;
+    }
+
+    this.representatives = representatives.toArray();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  boolean evaluate(Term<T> term, Selection matches, Selection undecided)
+  {
+    byte[] outcomes = new byte[this.representatives.length];
+    for (int code = 0; code < outcomes.length; code++)
+    {
+      try
+      {
+        outcomes[code] = term.test((T)this.representatives[code]) ? TRUE : FALSE;
+      }
+      catch (RuntimeException e)
+      {
+        outcomes[code] = UNDECIDED;
+      }
+    }
+
+    long[] matchWords = matches.words();
+    long[] undecidedWords = undecided.words();
+    for (int word = 0; word < matchWords.length; word++)
+    {
+      long matchBits = 0;
+      long undecidedBits = 0;
+      for (int row = word << 6, end = Math.min(row + 64, this.codes.length); row < end; row++)
+      {
+        byte outcome = outcomes[this.codes[row]];
+        matchBits |= (long)(outcome & TRUE) << row;
+        undecidedBits |= (long)(outcome >>> 1) << row;
+      }
+
+      matchWords[word] = matchBits;
+      undecidedWords[word] = undecidedBits;
+    }
+
+    return true;
+  }
+}
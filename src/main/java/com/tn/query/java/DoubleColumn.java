@@ -0,0 +1,76 @@
+package com.tn.query.java;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import com.tn.query.java.Getter.DoubleGetter;
+
+final class DoubleColumn<T> extends NumericColumn<T>
+{
+  private final double[] values;
+
+  private DoubleColumn(Getter<T> getter, double[] values, Selection nulls)
+  {
+    super(getter, nulls);
+    this.values = values;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> DoubleColumn<T> of(DoubleGetter<T> getter, Object[] rows)
+  {
+    double[] values = new double[rows.length];
+    for (int row = 0; row < rows.length; row++) values[row] = getter.getDouble((T)rows[row]);
+
+    return new DoubleColumn<>(getter, values, null);
+  }
+
+  static <T> DoubleColumn<T> of(Getter<T> getter, Object[] boxed)
+  {
+    double[] values = new double[boxed.length];
+    for (int row = 0; row < boxed.length; row++)
+    {
+      if (boxed[row] != null) values[row] = (Double)boxed[row];
+    }
+
+    return new DoubleColumn<>(getter, values, nulls(boxed));
+  }
+
+  @Override
+  boolean accepts(Object right)
+  {
+    return right instanceof Double;
+  }
+
+  @Override
+  void compare(Object right, int mask, long[] words)
+  {
+    double value = (Double)right;
+    for (int word = 0; word < words.length; word++)
+    {
+      long bits = 0;
+      for (int row = word << 6, end = Math.min(row + 64, this.values.length); row < end; row++)
+      {
+        bits |= (long)(mask >>> (Double.compare(this.values[row], value) + 1) & 1) << row;
+      }
+
+      words[word] = bits;
+    }
+  }
+
+  @Override
+  void in(List<?> right, long[] words)
+  {
+    //Double.equals compares the bits of the values, so a set of the bits matches the same values.
+    LongPredicate values = InSet.longSet(right.stream().filter(Double.class::isInstance).mapToLong(value -> Double.doubleToLongBits((Double)value)).toArray());
+    for (int word = 0; word < words.length; word++)
+    {
+      long bits = 0;
+      for (int row = word << 6, end = Math.min(row + 64, this.values.length); row < end; row++)
+      {
+        if (values.test(Double.doubleToLongBits(this.values[row]))) bits |= 1L << row;
+      }
+
+      words[word] = bits;
+    }
+  }
+}
@@ -1,16 +1,21 @@
 package com.tn.query.java;
 
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import com.tn.query.Named;
 
 public class Getter<T> extends Named
 {
+  private final Class<?> type;
   private final Function<T, ?> get;
 
-  private Getter(String name, Function<T, ?> get)
+  private Getter(String name, Class<?> type, Function<T, ?> get)
   {
     super(name);
+    this.type = type;
     this.get = get;
   }
 
@@ -19,48 +24,122 @@ public class Getter<T> extends Named
     return this.get.apply(t);
   }
 
+  //The declared type of the values returned by get, used to resolve comparisons when predicates are built.
+  Class<?> type()
+  {
+    return this.type;
+  }
+
   public static <T> Getter<T> booleanValue(String name, Function<T, Boolean> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Boolean.class, get);
   }
 
   public static <T> Getter<T> byteValue(String name, Function<T, Byte> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Byte.class, get);
   }
 
   public static <T> Getter<T> charValue(String name, Function<T, Character> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Character.class, get);
   }
 
   public static <T> Getter<T> comparableValue(String name, Function<T, Comparable<?>> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Comparable.class, get);
+  }
+
+  public static <T> Getter<T> doublePrimitive(String name, ToDoubleFunction<T> get)
+  {
+    return new DoubleGetter<>(name, get);
   }
 
   public static <T> Getter<T> doubleValue(String name, Function<T, Double> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Double.class, get);
   }
 
   public static <T> Getter<T> floatValue(String name, Function<T, Float> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Float.class, get);
+  }
+
+  public static <T> Getter<T> intPrimitive(String name, ToIntFunction<T> get)
+  {
+    return new IntGetter<>(name, get);
   }
 
   public static <T> Getter<T> intValue(String name, Function<T, Integer> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Integer.class, get);
+  }
+
+  public static <T> Getter<T> longPrimitive(String name, ToLongFunction<T> get)
+  {
+    return new LongGetter<>(name, get);
   }
 
   public static <T> Getter<T> longValue(String name, Function<T, Long> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Long.class, get);
   }
 
   public static <T> Getter<T> shortValue(String name, Function<T, Short> get)
   {
-    return new Getter<>(name, get);
+    return new Getter<>(name, Short.class, get);
+  }
+
+  static <T> Getter<T> value(String name, Class<?> type, Function<T, ?> get)
+  {
+    return new Getter<>(name, type, get);
+  }
+
+  static final class DoubleGetter<T> extends Getter<T>
+  {
+    private final ToDoubleFunction<T> get;
+
+    private DoubleGetter(String name, ToDoubleFunction<T> get)
+    {
+      super(name, Double.class, get::applyAsDouble);
+      this.get = get;
+    }
+
+    double getDouble(T t)
+    {
+      return this.get.applyAsDouble(t);
+    }
+  }
+
+  static final class IntGetter<T> extends Getter<T>
+  {
+    private final ToIntFunction<T> get;
+
+    private IntGetter(String name, ToIntFunction<T> get)
+    {
+      super(name, Integer.class, get::applyAsInt);
+      this.get = get;
+    }
+
+    int getInt(T t)
+    {
+      return this.get.applyAsInt(t);
+    }
+  }
+
+  static final class LongGetter<T> extends Getter<T>
+  {
+    private final ToLongFunction<T> get;
+
+    private LongGetter(String name, ToLongFunction<T> get)
+    {
+      super(name, Long.class, get::applyAsLong);
+      this.get = get;
+    }
+
+    long getLong(T t)
+    {
+      return this.get.applyAsLong(t);
+    }
   }
 }
@@ -0,0 +1,116 @@
+package com.tn.query.java;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The getters for a type, shared by the <code>JavaPredicateFactory</code>s and threads querying it, which can be registered, replaced and removed while
+ * queries are being built:
+ * <pre>
+ * GetterRegistry&lt;Person&gt; getters = new GetterRegistry&lt;&gt;(Getters.forRecord(Person.class));
+ * QueryParser&lt;Predicate&lt;Person&gt;&gt; queryParser = new DefaultQueryParser&lt;&gt;(new JavaPredicateFactory&lt;&gt;(getters), mappers);
+ * getters.register(Getter.intPrimitive("nameLength", person -&gt; person.name().length()));
+ * </pre>
+ * The getters are held in an immutable map that's copied and swapped for each change, so looking up a getter is a single volatile read without a lock.
+ * Predicates hold the getters they were built with, so a change only affects the predicates built after it.
+ */
+public class GetterRegistry<T>
+{
+  private final AtomicReference<Version<T>> current;
+
+  public GetterRegistry()
+  {
+    this.current = new AtomicReference<>(new Version<>(Map.of(), 0));
+  }
+
+  public GetterRegistry(Collection<Getter<T>> getters)
+  {
+    Map<String, Getter<T>> gettersByName = new HashMap<>();
+    for (Getter<T> getter : getters)
+    {
+      if (gettersByName.putIfAbsent(getter.name(), getter) != null) throw new IllegalArgumentException("Duplicate getter: " + getter.name());
+    }
+
+    this.current = new AtomicReference<>(new Version<>(Collections.unmodifiableMap(gettersByName), 0));
+  }
+
+  /**
+   * Returns the getter with the name, or <code>null</code> if there isn't one.
+   */
+  public Getter<T> get(String name)
+  {
+    return this.current.get().getters.get(name);
+  }
+
+  /**
+   * Returns the getters registered when called, which later changes don't affect.
+   */
+  public Collection<Getter<T>> getters()
+  {
+    return this.current.get().getters.values();
+  }
+
+  /**
+   * Returns the number of changes made to the getters, so that anything built from them can tell when it's out of date.
+   */
+  public long version()
+  {
+    return this.current.get().version;
+  }
+
+  /**
+   * Adds the getter, replacing any with the same name, and returns the new version.
+   */
+  public long register(Getter<T> getter)
+  {
+    Version<T> version;
+    Version<T> next;
+    do
+    {
+      version = this.current.get();
+
+      Map<String, Getter<T>> getters = new HashMap<>(version.getters);
+      getters.put(getter.name(), getter);
+      next = new Version<>(Collections.unmodifiableMap(getters), version.version + 1);
+    }
+    while (!this.current.compareAndSet(version, next));
+
+    return next.version;
+  }
+
+  /**
+   * Removes the getter with the name, returning the new version, or the current version if there wasn't one.
+   */
+  public long remove(String name)
+  {
+    Version<T> version;
+    Version<T> next;
+    do
+    {
+      version = this.current.get();
+      if (!version.getters.containsKey(name)) return version.version;
+
+      Map<String, Getter<T>> getters = new HashMap<>(version.getters);
+      getters.remove(name);
+      next = new Version<>(Collections.unmodifiableMap(getters), version.version + 1);
+    }
+    while (!this.current.compareAndSet(version, next));
+
+    return next.version;
+  }
+
+  private static class Version<T>
+  {
+    private final Map<String, Getter<T>> getters;
+    private final long version;
+
+    private Version(Map<String, Getter<T>> getters, long version)
+    {
+      this.getters = getters;
+      this.version = version;
+    }
+  }
+}
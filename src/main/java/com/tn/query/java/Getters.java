@@ -0,0 +1,247 @@
+package com.tn.query.java;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.stream.Collectors.toList;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Builds the <code>Getter</code>s for the components of a record or the properties of a bean, binding each accessor with <code>LambdaMetafactory</code> so
+ * that getting a value is a plain interface call rather than reflection.  <code>int</code>, <code>long</code> and <code>double</code> accessors give
+ * primitive getters.
+ * <p>
+ * The getters are built once per class, and <code>forPath</code> builds getters for nested values, e.g. <code>address.city</code>, that give
+ * <code>null</code> when any value along the path is <code>null</code>.  The accessors of a type in another module, e.g. one loaded by another class
+ * loader, can't be bound and are invoked through their method handles instead.
+ */
+public final class Getters
+{
+  private static final ClassValue<Map<String, Property>> PROPERTIES = new ClassValue<>()
+  {
+    @Override
+    protected Map<String, Property> computeValue(Class<?> type)
+    {
+      return properties(type);
+    }
+  };
+  private static final ClassValue<Map<String, Getter<?>>> PATHS = new ClassValue<>()
+  {
+    @Override
+    protected Map<String, Getter<?>> computeValue(Class<?> type)
+    {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  private Getters() {}
+
+  public static <T extends Record> List<Getter<T>> forRecord(Class<T> type)
+  {
+    return getters(type);
+  }
+
+  public static <T> List<Getter<T>> forBean(Class<T> type)
+  {
+    if (type.isRecord()) throw new IllegalArgumentException("Records don't have bean properties, use forRecord: " + type.getName());
+
+    return getters(type);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> Getter<T> forPath(Class<T> type, String path)
+  {
+    return (Getter<T>)PATHS.get(type).computeIfAbsent(path, key -> path(type, key));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<Getter<T>> getters(Class<T> type)
+  {
+    return PROPERTIES.get(type).values().stream().map(property -> (Getter<T>)property.getter).collect(toList());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Getter<?> path(Class<?> type, String path)
+  {
+    List<Getter> getters = new ArrayList<>();
+    Class<?> current = type;
+    for (String name : path.split("\\.", -1))
+    {
+      Property property = PROPERTIES.get(current).get(name);
+      if (property == null) throw new IllegalArgumentException("No property " + name + " in " + current.getName() + " for path: " + path);
+
+      getters.add(property.getter);
+      current = property.type;
+    }
+
+    if (getters.size() == 1) return getters.get(0);
+
+    Getter[] chain = getters.toArray(new Getter[0]);
+    return Getter.value(
+      path,
+      wrap(current),
+      target ->
+      {
+        Object value = target;
+        for (int i = 0; i < chain.length && value != null; i++) value = chain[i].get(value);
+
+        return value;
+      }
+    );
+  }
+
+  private static Map<String, Property> properties(Class<?> type)
+  {
+    MethodHandles.Lookup lookup = lookup(type);
+
+    Map<String, Property> properties = new LinkedHashMap<>();
+    if (type.isRecord())
+    {
+      for (RecordComponent component : type.getRecordComponents())
+      {
+        properties.put(component.getName(), property(lookup, component.getName(), component.getAccessor()));
+      }
+    }
+    else
+    {
+      Arrays.stream(type.getMethods())
+        .filter(Getters::isBeanGetter)
+        .sorted(Comparator.comparing(Method::getName))
+        .forEach(method -> properties.putIfAbsent(propertyName(method), property(lookup, propertyName(method), method)));
+    }
+
+    return properties;
+  }
+
+  private static MethodHandles.Lookup lookup(Class<?> type)
+  {
+    try
+    {
+      return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    }
+    catch (IllegalAccessException e)
+    {
+      //The type's package isn't open to this module, so only public accessors can be bound.
+      return MethodHandles.publicLookup();
+    }
+  }
+
+  private static Property property(MethodHandles.Lookup lookup, String name, Method accessor)
+  {
+    try
+    {
+      MethodHandle handle = lookup.unreflect(accessor);
+      Class<?> type = accessor.getReturnType();
+
+      //LambdaMetafactory needs a lookup with full privilege access as the generated classes are defined alongside the type, which isn't available when
+      //the type is in another module, e.g. loaded by another class loader, so the accessor's handle is invoked instead.
+      Getter<?> getter;
+      if (!lookup.hasFullPrivilegeAccess()) getter = invoking(name, handle.asType(handle.type().changeParameterType(0, Object.class)), type);
+      else if (type == int.class) getter = Getter.intPrimitive(name, bind(lookup, handle, ToIntFunction.class, "applyAsInt", int.class));
+      else if (type == long.class) getter = Getter.longPrimitive(name, bind(lookup, handle, ToLongFunction.class, "applyAsLong", long.class));
+      else if (type == double.class) getter = Getter.doublePrimitive(name, bind(lookup, handle, ToDoubleFunction.class, "applyAsDouble", double.class));
+      else getter = Getter.value(name, wrap(type), bind(lookup, handle, Function.class, "apply", Object.class));
+
+      return new Property(getter, type);
+    }
+    catch (Throwable e)
+    {
+      throw new IllegalArgumentException("Cannot bind accessor: " + accessor, e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <F> F bind(MethodHandles.Lookup lookup, MethodHandle handle, Class<?> functionalInterface, String method, Class<?> returnType)
+    throws Throwable
+  {
+    //Primitive values returned through Function are boxed by the generated class.
+    MethodType instantiated = handle.type().changeReturnType(returnType == Object.class ? handle.type().wrap().returnType() : returnType);
+
+    return (F)LambdaMetafactory.metafactory(
+      lookup,
+      method,
+      methodType(functionalInterface),
+      methodType(returnType, Object.class),
+      handle,
+      instantiated
+    ).getTarget().invoke();
+  }
+
+  private static Getter<?> invoking(String name, MethodHandle handle, Class<?> type)
+  {
+    if (type == int.class) return Getter.intPrimitive(name, target -> (int)invoke(name, handle, target));
+    if (type == long.class) return Getter.longPrimitive(name, target -> (long)invoke(name, handle, target));
+    if (type == double.class) return Getter.doublePrimitive(name, target -> (double)invoke(name, handle, target));
+
+    return Getter.value(name, wrap(type), target -> invoke(name, handle, target));
+  }
+
+  private static Object invoke(String name, MethodHandle handle, Object target)
+  {
+    try
+    {
+      return handle.invoke(target);
+    }
+    catch (RuntimeException | Error e)
+    {
+      throw e;
+    }
+    catch (Throwable e)
+    {
+      throw new IllegalStateException("Cannot get: " + name, e);
+    }
+  }
+
+  private static Class<?> wrap(Class<?> type)
+  {
+    return methodType(type).wrap().returnType();
+  }
+
+  private static boolean isBeanGetter(Method method)
+  {
+    if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getDeclaringClass() == Object.class) return false;
+
+    String name = method.getName();
+    if (name.startsWith("get") && name.length() > 3) return method.getReturnType() != void.class;
+    if (name.startsWith("is") && name.length() > 2) return method.getReturnType() == boolean.class;
+
+    return false;
+  }
+
+  //Follows java.beans.Introspector.decapitalize, which isn't used to avoid depending on the java.desktop module.
+  private static String propertyName(Method method)
+  {
+    String name = method.getName().substring(method.getName().startsWith("is") ? 2 : 3);
+    if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) return name;
+
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static class Property
+  {
+    private final Getter<?> getter;
+    private final Class<?> type;
+
+    private Property(Getter<?> getter, Class<?> type)
+    {
+      this.getter = getter;
+      this.type = type;
+    }
+  }
+}
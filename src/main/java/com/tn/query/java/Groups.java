@@ -0,0 +1,207 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tn.query.java.Getter.IntGetter;
+import com.tn.query.java.Getter.LongGetter;
+
+//The groups of an aggregation found in part of the objects, kept in the order they were first found so that merged parts keep the original order.
+final class Groups<T>
+{
+  private final List<Getter<T>> groupBy;
+  private final List<Accumulate<T>> accumulates;
+  private final List<String> fields;
+  private final List<Group> groups = new ArrayList<>();
+  private final LongGroups longGroups;
+  private final Map<Object, Group> objectGroups;
+
+  Groups(List<Getter<T>> groupBy, List<Accumulate<T>> accumulates, List<String> fields)
+  {
+    this.groupBy = groupBy;
+    this.accumulates = accumulates;
+    this.fields = fields;
+
+    boolean primitiveKey = groupBy.size() == 1 && (groupBy.get(0) instanceof IntGetter || groupBy.get(0) instanceof LongGetter);
+    this.longGroups = primitiveKey ? new LongGroups() : null;
+    this.objectGroups = primitiveKey || groupBy.isEmpty() ? null : new HashMap<>();
+  }
+
+  void add(T target)
+  {
+    Group group = group(target);
+    group.count++;
+    for (int i = 0; i < group.accumulators.length; i++) this.accumulates.get(i).accumulate(target, group.accumulators[i]);
+  }
+
+  void merge(Groups<T> groups)
+  {
+    for (Group group : groups.groups)
+    {
+      Group merged = this.longGroups != null ? longGroup(group.longKey) : objectGroup(group.key);
+      merged.count += group.count;
+      for (int i = 0; i < merged.accumulators.length; i++) merged.accumulators[i].merge(group.accumulators[i]);
+    }
+  }
+
+  List<Aggregate> aggregates()
+  {
+    //Without any group by fields there's always one group, as with SQL.
+    if (this.groupBy.isEmpty() && this.groups.isEmpty()) objectGroup(null);
+
+    List<Aggregate> aggregates = new ArrayList<>(this.groups.size());
+    for (Group group : this.groups)
+    {
+      Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+      for (int i = 0; i < this.fields.size(); i++) accumulators.put(this.fields.get(i), group.accumulators[i]);
+
+      aggregates.add(new Aggregate(key(group), group.count, accumulators));
+    }
+
+    return aggregates;
+  }
+
+  private Group group(T target)
+  {
+    if (this.longGroups != null)
+    {
+      Getter<T> getter = this.groupBy.get(0);
+      return longGroup(getter instanceof IntGetter ? ((IntGetter<T>)getter).getInt(target) : ((LongGetter<T>)getter).getLong(target));
+    }
+    if (this.groupBy.isEmpty()) return objectGroup(null);
+    if (this.groupBy.size() == 1) return objectGroup(this.groupBy.get(0).get(target));
+
+    Object[] key = new Object[this.groupBy.size()];
+    for (int i = 0; i < key.length; i++) key[i] = this.groupBy.get(i).get(target);
+
+    return objectGroup(Arrays.asList(key));
+  }
+
+  private Group longGroup(long key)
+  {
+    int index = this.longGroups.index(key, this.groups.size());
+    if (index < this.groups.size()) return this.groups.get(index);
+
+    Group group = newGroup(null);
+    group.longKey = key;
+
+    return group;
+  }
+
+  private Group objectGroup(Object key)
+  {
+    if (this.objectGroups == null)
+    {
+      //Only one group, without a key.
+      return this.groups.isEmpty() ? newGroup(null) : this.groups.get(0);
+    }
+
+    Group group = this.objectGroups.get(key);
+    if (group == null)
+    {
+      group = newGroup(key);
+      this.objectGroups.put(key, group);
+    }
+
+    return group;
+  }
+
+  private Group newGroup(Object key)
+  {
+    Group group = new Group(key, this.accumulates.size());
+    this.groups.add(group);
+
+    return group;
+  }
+
+  private List<Object> key(Group group)
+  {
+    if (this.groupBy.isEmpty()) return List.of();
+    if (this.longGroups != null)
+    {
+      if (this.groupBy.get(0) instanceof IntGetter) return List.of((int)group.longKey);
+
+      return List.of(group.longKey);
+    }
+    if (this.groupBy.size() == 1) return Collections.singletonList(group.key);
+
+    return Collections.unmodifiableList((List<?>)group.key);
+  }
+
+  interface Accumulate<T>
+  {
+    void accumulate(T target, Accumulator accumulator);
+  }
+
+  private static final class Group
+  {
+    private final Object key;
+    private final Accumulator[] accumulators;
+    private long longKey;
+    private long count;
+
+    private Group(Object key, int accumulators)
+    {
+      this.key = key;
+      this.accumulators = new Accumulator[accumulators];
+      for (int i = 0; i < accumulators; i++) this.accumulators[i] = new Accumulator();
+    }
+  }
+
+  //An open addressing map from primitive keys to the indexes of their groups.
+  private static final class LongGroups
+  {
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private long[] keys = new long[16];
+    private int[] indexes = new int[16];
+    private int size;
+    private int shift = Long.numberOfLeadingZeros(15);
+
+    //Returns the index of the key's group, or adds the key with the next index when it has no group yet.
+    private int index(long key, int next)
+    {
+      int mask = this.keys.length - 1;
+      for (int i = (int)((key * PHI) >>> this.shift); ; i = (i + 1) & mask)
+      {
+        //Indexes are stored plus one so that zero marks a free slot.
+        if (this.indexes[i] == 0)
+        {
+          this.keys[i] = key;
+          this.indexes[i] = next + 1;
+          if (++this.size * 2 > this.keys.length) grow();
+
+          return next;
+        }
+        if (this.keys[i] == key) return this.indexes[i] - 1;
+      }
+    }
+
+    private void grow()
+    {
+      long[] keys = this.keys;
+      int[] indexes = this.indexes;
+
+      this.keys = new long[keys.length * 2];
+      this.indexes = new int[keys.length * 2];
+      this.shift--;
+
+      int mask = this.keys.length - 1;
+      for (int j = 0; j < keys.length; j++)
+      {
+        if (indexes[j] == 0) continue;
+
+        int i = (int)((keys[j] * PHI) >>> this.shift);
+        while (this.indexes[i] != 0) i = (i + 1) & mask;
+
+        this.keys[i] = keys[j];
+        this.indexes[i] = indexes[j];
+      }
+    }
+  }
+}
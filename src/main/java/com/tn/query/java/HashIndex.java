@@ -0,0 +1,61 @@
+package com.tn.query.java;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+final class HashIndex<T> implements Index<T>
+{
+  private final Getter<T> getter;
+  private final Map<Object, Set<T>> elements = new HashMap<>();
+
+  HashIndex(Getter<T> getter)
+  {
+    this.getter = getter;
+  }
+
+  @Override
+  public void add(T element)
+  {
+    this.elements.computeIfAbsent(this.getter.get(element), key -> new HashSet<>()).add(element);
+  }
+
+  @Override
+  public void remove(T element)
+  {
+    Object key = this.getter.get(element);
+
+    Set<T> elements = this.elements.get(key);
+    if (elements != null && elements.remove(element) && elements.isEmpty()) this.elements.remove(key);
+  }
+
+  @Override
+  public void clear()
+  {
+    this.elements.clear();
+  }
+
+  @Override
+  public Set<T> candidates(Term<T> term)
+  {
+    switch (term.operator())
+    {
+      case EQUAL: return this.elements.getOrDefault(term.value(), Set.of());
+      case IN: return in((Collection<?>)term.value());
+      default: return null;
+    }
+  }
+
+  private Set<T> in(Collection<?> values)
+  {
+    Set<T> candidates = new HashSet<>();
+    for (Object value : values)
+    {
+      candidates.addAll(this.elements.getOrDefault(value, Set.of()));
+    }
+
+    return candidates;
+  }
+}
@@ -0,0 +1,85 @@
+package com.tn.query.java;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+final class InSet
+{
+  static final int SMALL_SIZE = 8;
+
+  private InSet() {}
+
+  static Predicate<Object> of(Collection<?> values)
+  {
+    if (values.isEmpty()) return value -> false;
+
+    boolean containsNull = values.stream().anyMatch(Objects::isNull);
+    Class<?> type = commonType(values);
+
+    if (type == Integer.class)
+    {
+      IntPredicate set = intSet(values.stream().filter(Objects::nonNull).mapToInt(value -> (Integer)value).toArray());
+      return value -> value instanceof Integer ? set.test((Integer)value) : containsNull && value == null;
+    }
+    if (type == Long.class)
+    {
+      LongPredicate set = longSet(values.stream().filter(Objects::nonNull).mapToLong(value -> (Long)value).toArray());
+      return value -> value instanceof Long ? set.test((Long)value) : containsNull && value == null;
+    }
+    if (type == Short.class)
+    {
+      IntPredicate set = intSet(values.stream().filter(Objects::nonNull).mapToInt(value -> (Short)value).toArray());
+      return value -> value instanceof Short ? set.test((Short)value) : containsNull && value == null;
+    }
+    if (type == Byte.class)
+    {
+      IntPredicate set = intSet(values.stream().filter(Objects::nonNull).mapToInt(value -> (Byte)value).toArray());
+      return value -> value instanceof Byte ? set.test((Byte)value) : containsNull && value == null;
+    }
+    if (type == Character.class)
+    {
+      IntPredicate set = intSet(values.stream().filter(Objects::nonNull).mapToInt(value -> (Character)value).toArray());
+      return value -> value instanceof Character ? set.test((Character)value) : containsNull && value == null;
+    }
+    if (type != null && Comparable.class.isAssignableFrom(type)) return new HashSet<>(values)::contains;
+
+    return values::contains;
+  }
+
+  static IntPredicate intSet(int[] values)
+  {
+    int[] keys = Arrays.stream(values).sorted().distinct().toArray();
+    if (keys.length <= SMALL_SIZE) return value -> Arrays.binarySearch(keys, value) >= 0;
+
+    return new IntHashSet(keys);
+  }
+
+  static LongPredicate longSet(long[] values)
+  {
+    long[] keys = Arrays.stream(values).sorted().distinct().toArray();
+    if (keys.length <= SMALL_SIZE) return value -> Arrays.binarySearch(keys, value) >= 0;
+
+    return new LongHashSet(keys);
+  }
+
+  private static Class<?> commonType(Collection<?> values)
+  {
+    Class<?> type = null;
+    boolean comparable = true;
+    for (Object value : values)
+    {
+      if (value == null) continue;
+
+      comparable &= value instanceof Comparable;
+      if (type == null) type = value.getClass();
+      else if (type != value.getClass()) type = Object.class;
+    }
+
+    return type == Object.class && comparable ? Comparable.class : type;
+  }
+}
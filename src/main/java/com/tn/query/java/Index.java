@@ -0,0 +1,15 @@
+package com.tn.query.java;
+
+import java.util.Set;
+
+interface Index<T>
+{
+  void add(T element);
+
+  void remove(T element);
+
+  void clear();
+
+  //Returns the elements that may match the term, or null if the term cannot be answered from this index.
+  Set<T> candidates(Term<T> term);
+}
@@ -0,0 +1,341 @@
+package com.tn.query.java;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.tn.query.QueryException;
+
+/**
+ * A set of objects with hash indexes on equality fields, range indexes on range fields and trigram indexes on string fields, built from the same
+ * <code>Getter</code>s as the <code>JavaPredicateFactory</code> used to parse queries.
+ * <p>
+ * <code>filter</code> answers <code>=</code>, <code>∈</code>, <code>&gt;</code>, <code>&gt;=</code>, <code>&lt;</code>, <code>&lt;=</code> and
+ * <code>≈</code> terms from the indexes, falling back to testing every object only when a query can't be narrowed by an index.  Indexed field values
+ * must not change while an object is in the collection: remove it, update it and add it again.  Like the standard collections it is not thread-safe.
+ * <p>
+ * Both the collection and the matches from <code>filter</code> are in the order the objects were added.
+ */
+public class IndexedCollection<T> extends AbstractSet<T>
+{
+  private final Map<String, Getter<T>> getters;
+  //Each element's position in the order they were added, so that matches found through an index can be returned in that order.
+  private final Map<T, Long> elements = new LinkedHashMap<>();
+  private final Map<String, List<Index<T>>> indexes = new HashMap<>();
+  private long added;
+
+  public IndexedCollection(Collection<Getter<T>> getters)
+  {
+    this.getters = getters.stream().collect(toMap(Getter::name, identity()));
+  }
+
+  public IndexedCollection<T> withHashIndex(String field)
+  {
+    return withIndex(field, new HashIndex<>(getter(field)));
+  }
+
+  public IndexedCollection<T> withRangeIndex(String field)
+  {
+    return withIndex(field, new RangeIndex<>(getter(field)));
+  }
+
+  /**
+   * Indexes the field's string values by trigram, so that <code>≈</code> terms only test the objects holding every trigram of the pattern's literals.
+   * Patterns whose literals are too short to have trigrams, e.g. <code>*a*</code>, can't be answered from the index.
+   */
+  public IndexedCollection<T> withTrigramIndex(String field)
+  {
+    return withIndex(field, new TrigramIndex<>(getter(field)));
+  }
+
+  public List<T> filter(Predicate<T> predicate)
+  {
+    Set<T> candidates = candidates(Node.of(predicate));
+
+    List<T> matches = new ArrayList<>();
+    for (T element : candidates != null ? candidates : this.elements.keySet())
+    {
+      if (predicate.test(element)) matches.add(element);
+    }
+
+    if (candidates != null) matches.sort(Comparator.comparingLong(this.elements::get));
+
+    return matches;
+  }
+
+  @Override
+  public boolean add(T element)
+  {
+    if (this.elements.containsKey(element)) return false;
+
+    //Every index takes the element before the collection does, so that an index failing leaves the collection and the other indexes unchanged.
+    List<Index<T>> indexed = new ArrayList<>();
+    try
+    {
+      for (List<Index<T>> indexes : this.indexes.values())
+      {
+        for (Index<T> index : indexes)
+        {
+          index.add(element);
+          indexed.add(index);
+        }
+      }
+    }
+    catch (RuntimeException e)
+    {
+      indexed.forEach(index -> index.remove(element));
+      throw e;
+    }
+
+    this.elements.put(element, this.added++);
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object element)
+  {
+    if (this.elements.remove(element) == null) return false;
+
+    unindex(element(element));
+    return true;
+  }
+
+  @Override
+  public void clear()
+  {
+    this.elements.clear();
+    this.indexes.values().forEach(indexes -> indexes.forEach(Index::clear));
+  }
+
+  @Override
+  public boolean contains(Object element)
+  {
+    return this.elements.containsKey(element);
+  }
+
+  @Override
+  public Iterator<T> iterator()
+  {
+    Iterator<T> iterator = this.elements.keySet().iterator();
+
+    return new Iterator<>()
+    {
+      private T current;
+
+      @Override
+      public boolean hasNext()
+      {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public T next()
+      {
+        this.current = iterator.next();
+        return this.current;
+      }
+
+      @Override
+      public void remove()
+      {
+        iterator.remove();
+        unindex(this.current);
+      }
+    };
+  }
+
+  @Override
+  public int size()
+  {
+    return this.elements.size();
+  }
+
+  private IndexedCollection<T> withIndex(String field, Index<T> index)
+  {
+    this.elements.keySet().forEach(index::add);
+    this.indexes.computeIfAbsent(field, key -> new ArrayList<>()).add(index);
+
+    return this;
+  }
+
+  //The element was found in the collection, so it's a T.
+  @SuppressWarnings("unchecked")
+  private static <T> T element(Object element)
+  {
+    return (T)element;
+  }
+
+  private void unindex(T element)
+  {
+    this.indexes.values().forEach(indexes -> indexes.forEach(index -> index.remove(element)));
+  }
+
+  private Getter<T> getter(String field)
+  {
+    Getter<T> getter = this.getters.get(field);
+    if (getter == null) throw new QueryException("Getter missing for: " + field);
+
+    return getter;
+  }
+
+  //Returns a superset of the elements matching the node, or null if the node can't be answered from the indexes.
+  private Set<T> candidates(Node<T> node)
+  {
+    if (node instanceof Term) return candidates((Term<T>)node);
+    if (node instanceof Constant) return ((Constant<T>)node).value() ? null : Set.of();
+    if (node instanceof Junction) return ((Junction<T>)node).isAnd() ? andCandidates((Junction<T>)node) : orCandidates((Junction<T>)node);
+
+    return null;
+  }
+
+  private Set<T> candidates(Term<T> term)
+  {
+    Set<T> smallest = null;
+    for (Index<T> index : this.indexes.getOrDefault(term.field(), List.of()))
+    {
+      Set<T> candidates = index.candidates(term);
+      if (candidates != null && (smallest == null || candidates.size() < smallest.size())) smallest = candidates;
+    }
+
+    return smallest;
+  }
+
+  private Set<T> andCandidates(Junction<T> and)
+  {
+    //Equality and in terms are cheap to look up and usually selective, so only fall back to the range terms when there are none.
+    List<Term<T>> ranges = new ArrayList<>();
+    Set<T> smallest = null;
+
+    for (Predicate<T> operand : and.operands())
+    {
+      Node<T> node = Node.of(operand);
+      if (node instanceof Term && isRange(((Term<T>)node).operator()))
+      {
+        ranges.add((Term<T>)node);
+        continue;
+      }
+
+      Set<T> candidates = candidates(node);
+      if (candidates != null && (smallest == null || candidates.size() < smallest.size())) smallest = candidates;
+    }
+
+    if (smallest != null || ranges.isEmpty()) return smallest;
+
+    return rangeCandidates(ranges);
+  }
+
+  private Set<T> rangeCandidates(List<Term<T>> ranges)
+  {
+    //Combine the bounds on each field so that e.g. x > 1 && x < 5 is a single range lookup.
+    Map<String, Bounds> bounds = new HashMap<>();
+    for (Term<T> range : ranges)
+    {
+      bounds.computeIfAbsent(range.field(), field -> new Bounds()).add(range);
+    }
+
+    Set<T> smallest = null;
+    for (Map.Entry<String, Bounds> fieldBounds : bounds.entrySet())
+    {
+      for (Index<T> index : this.indexes.getOrDefault(fieldBounds.getKey(), List.of()))
+      {
+        if (!(index instanceof RangeIndex)) continue;
+
+        Bounds range = fieldBounds.getValue();
+        Set<T> candidates = range.valid ? ((RangeIndex<T>)index).range(range.from, range.fromInclusive, range.to, range.toInclusive) : null;
+        if (candidates != null && (smallest == null || candidates.size() < smallest.size())) smallest = candidates;
+      }
+    }
+
+    return smallest;
+  }
+
+  private Set<T> orCandidates(Junction<T> or)
+  {
+    Set<T> union = new HashSet<>();
+    for (Predicate<T> operand : or.operands())
+    {
+      Set<T> candidates = candidates(Node.of(operand));
+      if (candidates == null) return null;
+
+      union.addAll(candidates);
+    }
+
+    return union;
+  }
+
+  private boolean isRange(Operator operator)
+  {
+    switch (operator)
+    {
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
+  private static class Bounds
+  {
+    private Object from;
+    private boolean fromInclusive;
+    private Object to;
+    private boolean toInclusive;
+    private boolean valid = true;
+
+    private void add(Term<?> term)
+    {
+      Object value = term.value();
+      if (!(value instanceof Comparable))
+      {
+        this.valid = false;
+        return;
+      }
+
+      try
+      {
+        switch (term.operator())
+        {
+          case GREATER_THAN:
+          case GREATER_THAN_OR_EQUAL:
+            boolean fromInclusive = term.operator() == Operator.GREATER_THAN_OR_EQUAL;
+            int fromComparison = this.from == null ? 1 : Comparison.compare(value, this.from);
+            if (fromComparison > 0 || (fromComparison == 0 && !fromInclusive))
+            {
+              this.from = value;
+              this.fromInclusive = fromInclusive;
+            }
+            break;
+
+          default:
+            boolean toInclusive = term.operator() == Operator.LESS_THAN_OR_EQUAL;
+            int toComparison = this.to == null ? -1 : Comparison.compare(value, this.to);
+            if (toComparison < 0 || (toComparison == 0 && !toInclusive))
+            {
+              this.to = value;
+              this.toInclusive = toInclusive;
+            }
+        }
+      }
+      catch (ClassCastException | QueryException e)
+      {
+        this.valid = false;
+      }
+    }
+  }
+}
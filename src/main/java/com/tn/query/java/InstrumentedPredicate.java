@@ -0,0 +1,52 @@
+package com.tn.query.java;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+final class InstrumentedPredicate<T> implements Predicate<T>
+{
+  private final QueryMetrics queryMetrics;
+  private final NodeMetrics node;
+  private final Predicate<T> predicate;
+
+  InstrumentedPredicate(QueryMetrics queryMetrics, NodeMetrics node, Predicate<T> predicate)
+  {
+    this.queryMetrics = queryMetrics;
+    this.node = node;
+    this.predicate = predicate;
+  }
+
+  Predicate<T> predicate()
+  {
+    return this.predicate;
+  }
+
+  @Override
+  public boolean test(T t)
+  {
+    boolean sampled = ThreadLocalRandom.current().nextInt(this.queryMetrics.sampleRate()) == 0;
+    long start = sampled ? System.nanoTime() : 0;
+
+    boolean result;
+    try
+    {
+      result = this.predicate.test(t);
+    }
+    catch (RuntimeException e)
+    {
+      this.queryMetrics.failed(this.node, e);
+      throw e;
+    }
+
+    this.node.record(result);
+    if (sampled) this.queryMetrics.sampled(this.node, System.nanoTime() - start);
+
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    return this.predicate.toString();
+  }
+}
@@ -0,0 +1,104 @@
+package com.tn.query.java;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.tn.query.PredicateFactory;
+
+/**
+ * Builds the same predicates as <code>JavaPredicateFactory</code>, with every term and and/or recording its metrics in a <code>QueryMetrics</code>.
+ */
+public class InstrumentingPredicateFactory<T> implements PredicateFactory<Predicate<T>>
+{
+  private static final String AND = "AND";
+  private static final String OR = "OR";
+
+  private final JavaPredicateFactory<T> predicateFactory;
+  private final QueryMetrics queryMetrics;
+
+  public InstrumentingPredicateFactory(Collection<Getter<T>> getters, QueryMetrics queryMetrics)
+  {
+    this.predicateFactory = new JavaPredicateFactory<>(getters);
+    this.queryMetrics = queryMetrics;
+  }
+
+  @Override
+  public Predicate<T> equal(String left, Object right)
+  {
+    return instrument(this.predicateFactory.equal(left, right));
+  }
+
+  @Override
+  public Predicate<T> notEqual(String left, Object right)
+  {
+    return instrument(this.predicateFactory.notEqual(left, right));
+  }
+
+  @Override
+  public Predicate<T> greaterThan(String left, Object right)
+  {
+    return instrument(this.predicateFactory.greaterThan(left, right));
+  }
+
+  @Override
+  public Predicate<T> greaterThanOrEqual(String left, Object right)
+  {
+    return instrument(this.predicateFactory.greaterThanOrEqual(left, right));
+  }
+
+  @Override
+  public Predicate<T> lessThan(String left, Object right)
+  {
+    return instrument(this.predicateFactory.lessThan(left, right));
+  }
+
+  @Override
+  public Predicate<T> lessThanOrEqual(String left, Object right)
+  {
+    return instrument(this.predicateFactory.lessThanOrEqual(left, right));
+  }
+
+  @Override
+  public Predicate<T> like(String left, Object right)
+  {
+    return instrument(this.predicateFactory.like(left, right));
+  }
+
+  @Override
+  public Predicate<T> notLike(String left, Object right)
+  {
+    return instrument(this.predicateFactory.notLike(left, right));
+  }
+
+  @Override
+  public Predicate<T> in(String left, List<?> right)
+  {
+    return instrument(this.predicateFactory.in(left, right));
+  }
+
+  @Override
+  public Predicate<T> and(Predicate<T> left, Predicate<T> right)
+  {
+    return this.queryMetrics.instrument(null, AND, Junction.and(left, right));
+  }
+
+  @Override
+  public Predicate<T> or(Predicate<T> left, Predicate<T> right)
+  {
+    return this.queryMetrics.instrument(null, OR, Junction.or(left, right));
+  }
+
+  @Override
+  public Predicate<T> parenthesis(Predicate<T> node)
+  {
+    //Parenthesis is handled implicitly when parsing queries.
+    return node;
+  }
+
+  private Predicate<T> instrument(Predicate<T> predicate)
+  {
+    Term<T> term = (Term<T>)predicate;
+    return this.queryMetrics.instrument(term.field(), term.operator().name(), term);
+  }
+}
@@ -0,0 +1,75 @@
+package com.tn.query.java;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import com.tn.query.java.Getter.IntGetter;
+
+final class IntColumn<T> extends NumericColumn<T>
+{
+  private final int[] values;
+
+  private IntColumn(Getter<T> getter, int[] values, Selection nulls)
+  {
+    super(getter, nulls);
+    this.values = values;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> IntColumn<T> of(IntGetter<T> getter, Object[] rows)
+  {
+    int[] values = new int[rows.length];
+    for (int row = 0; row < rows.length; row++) values[row] = getter.getInt((T)rows[row]);
+
+    return new IntColumn<>(getter, values, null);
+  }
+
+  static <T> IntColumn<T> of(Getter<T> getter, Object[] boxed)
+  {
+    int[] values = new int[boxed.length];
+    for (int row = 0; row < boxed.length; row++)
+    {
+      if (boxed[row] != null) values[row] = (Integer)boxed[row];
+    }
+
+    return new IntColumn<>(getter, values, nulls(boxed));
+  }
+
+  @Override
+  boolean accepts(Object right)
+  {
+    return right instanceof Integer;
+  }
+
+  @Override
+  void compare(Object right, int mask, long[] words)
+  {
+    int value = (Integer)right;
+    for (int word = 0; word < words.length; word++)
+    {
+      long bits = 0;
+      for (int row = word << 6, end = Math.min(row + 64, this.values.length); row < end; row++)
+      {
+        bits |= (long)(mask >>> (Integer.compare(this.values[row], value) + 1) & 1) << row;
+      }
+
+      words[word] = bits;
+    }
+  }
+
+  @Override
+  void in(List<?> right, long[] words)
+  {
+    IntPredicate values = InSet.intSet(right.stream().filter(Integer.class::isInstance).mapToInt(value -> (Integer)value).toArray());
+    for (int word = 0; word < words.length; word++)
+    {
+      long bits = 0;
+      for (int row = word << 6, end = Math.min(row + 64, this.values.length); row < end; row++)
+      {
+        if (values.test(this.values[row])) bits |= 1L << row;
+      }
+
+      words[word] = bits;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.tn.query.java;
+
+import java.util.function.IntPredicate;
+
+final class IntHashSet implements IntPredicate
+{
+  private static final int FREE = 0;
+  private static final int PHI = 0x9E3779B9;
+
+  private final int[] keys;
+  private final int mask;
+  private final int shift;
+  private final boolean containsFree;
+
+  IntHashSet(int[] values)
+  {
+    int capacity = Integer.highestOneBit(Math.max(values.length, 2) * 2 - 1) << 1;
+
+    this.keys = new int[capacity];
+    this.mask = capacity - 1;
+    this.shift = Integer.numberOfLeadingZeros(this.mask);
+
+    boolean containsFree = false;
+    for (int value : values)
+    {
+      if (value == FREE) containsFree = true;
+      else add(value);
+    }
+
+    this.containsFree = containsFree;
+  }
+
+  @Override
+  public boolean test(int value)
+  {
+    if (value == FREE) return this.containsFree;
+
+    for (int i = index(value); ; i = (i + 1) & this.mask)
+    {
+      int key = this.keys[i];
+      if (key == value) return true;
+      if (key == FREE) return false;
+    }
+  }
+
+  private void add(int value)
+  {
+    int i = index(value);
+    while (this.keys[i] != FREE && this.keys[i] != value) i = (i + 1) & this.mask;
+
+    this.keys[i] = value;
+  }
+
+  private int index(int value)
+  {
+    return (value * PHI) >>> this.shift;
+  }
+}
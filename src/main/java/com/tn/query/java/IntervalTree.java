@@ -0,0 +1,203 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/*
+ * A static centred interval tree over intervals whose bounds, when present, are of the same Comparable type.  Each node holds the intervals
+ * containing its centre sorted by lower and upper bound, so a lookup only visits the intervals containing the value plus one per node on its path.
+ */
+final class IntervalTree
+{
+  private static final int BUCKET_SIZE = 8;
+
+  private final Node root;
+
+  IntervalTree(List<Interval> intervals)
+  {
+    this.root = node(intervals);
+  }
+
+  //Passes the id of every interval containing the value to the consumer.
+  void stab(Object value, IntConsumer consumer)
+  {
+    Node node = this.root;
+    while (node != null)
+    {
+      if (node.bucket != null)
+      {
+        for (Interval interval : node.bucket)
+        {
+          if (interval.contains(value)) consumer.accept(interval.id);
+        }
+        return;
+      }
+
+      int comparison = compare(value, node.centre);
+      if (comparison < 0)
+      {
+        for (Interval interval : node.byFrom)
+        {
+          if (!interval.above(value)) break;
+          consumer.accept(interval.id);
+        }
+        node = node.left;
+      }
+      else if (comparison > 0)
+      {
+        for (Interval interval : node.byTo)
+        {
+          if (!interval.below(value)) break;
+          consumer.accept(interval.id);
+        }
+        node = node.right;
+      }
+      else
+      {
+        for (Interval interval : node.byFrom) consumer.accept(interval.id);
+        return;
+      }
+    }
+  }
+
+  private static Node node(List<Interval> intervals)
+  {
+    if (intervals.isEmpty()) return null;
+    if (intervals.size() <= BUCKET_SIZE) return new Node(intervals.toArray(new Interval[0]));
+
+    List<Object> bounds = new ArrayList<>();
+    for (Interval interval : intervals)
+    {
+      if (interval.from != null) bounds.add(interval.from);
+      if (interval.to != null) bounds.add(interval.to);
+    }
+    if (bounds.isEmpty()) return new Node(intervals.toArray(new Interval[0]));
+
+    bounds.sort(IntervalTree::compare);
+    Object centre = bounds.get(bounds.size() / 2);
+
+    List<Interval> left = new ArrayList<>();
+    List<Interval> right = new ArrayList<>();
+    List<Interval> containing = new ArrayList<>();
+    for (Interval interval : intervals)
+    {
+      if (!interval.below(centre)) left.add(interval);
+      else if (!interval.above(centre)) right.add(interval);
+      else containing.add(interval);
+    }
+
+    //Every interval can fall to one side when they share an exclusive bound at the centre, these are tested one by one.
+    if (left.size() == intervals.size() || right.size() == intervals.size()) return new Node(intervals.toArray(new Interval[0]));
+
+    Interval[] byFrom = containing.toArray(new Interval[0]);
+    Arrays.sort(byFrom, Comparator.comparing((Interval interval) -> interval.from, IntervalTree::compareFrom).thenComparing(interval -> !interval.fromInclusive));
+    Interval[] byTo = containing.toArray(new Interval[0]);
+    Arrays.sort(byTo, Comparator.comparing((Interval interval) -> interval.to, IntervalTree::compareTo).thenComparing(interval -> !interval.toInclusive));
+
+    return new Node(centre, byFrom, byTo, node(left), node(right));
+  }
+
+  //A missing lower bound sorts first.
+  private static int compareFrom(Object from1, Object from2)
+  {
+    if (from1 == null) return from2 == null ? 0 : -1;
+    if (from2 == null) return 1;
+
+    return compare(from1, from2);
+  }
+
+  //A missing upper bound sorts first, the upper bounds are in descending order.
+  private static int compareTo(Object to1, Object to2)
+  {
+    if (to1 == null) return to2 == null ? 0 : -1;
+    if (to2 == null) return 1;
+
+    return compare(to2, to1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object value1, Object value2)
+  {
+    return ((Comparable<Object>)value1).compareTo(value2);
+  }
+
+  static final class Interval
+  {
+    private final int id;
+    private final Object from;
+    private final boolean fromInclusive;
+    private final Object to;
+    private final boolean toInclusive;
+
+    //A null bound is unbounded.
+    Interval(int id, Object from, boolean fromInclusive, Object to, boolean toInclusive)
+    {
+      this.id = id;
+      this.from = from;
+      this.fromInclusive = fromInclusive;
+      this.to = to;
+      this.toInclusive = toInclusive;
+    }
+
+    int id()
+    {
+      return this.id;
+    }
+
+    private boolean contains(Object value)
+    {
+      return above(value) && below(value);
+    }
+
+    //Whether the lower bound admits the value.
+    private boolean above(Object value)
+    {
+      if (this.from == null) return true;
+
+      int comparison = compare(this.from, value);
+      return comparison < 0 || (comparison == 0 && this.fromInclusive);
+    }
+
+    //Whether the upper bound admits the value.
+    private boolean below(Object value)
+    {
+      if (this.to == null) return true;
+
+      int comparison = compare(this.to, value);
+      return comparison > 0 || (comparison == 0 && this.toInclusive);
+    }
+  }
+
+  private static final class Node
+  {
+    private final Object centre;
+    private final Interval[] byFrom;
+    private final Interval[] byTo;
+    private final Node left;
+    private final Node right;
+    private final Interval[] bucket;
+
+    private Node(Object centre, Interval[] byFrom, Interval[] byTo, Node left, Node right)
+    {
+      this.centre = centre;
+      this.byFrom = byFrom;
+      this.byTo = byTo;
+      this.left = left;
+      this.right = right;
+      this.bucket = null;
+    }
+
+    private Node(Interval[] bucket)
+    {
+      this.centre = null;
+      this.byFrom = null;
+      this.byTo = null;
+      this.left = null;
+      this.right = null;
+      this.bucket = bucket;
+    }
+  }
+}
@@ -1,104 +1,109 @@
 package com.tn.query.java;
 
-import static java.util.stream.Collectors.toMap;
-
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 import jakarta.annotation.Nonnull;
 
 import com.tn.query.PredicateFactory;
 import com.tn.query.QueryException;
+import com.tn.query.java.Getter.DoubleGetter;
+import com.tn.query.java.Getter.IntGetter;
+import com.tn.query.java.Getter.LongGetter;
 
 public class JavaPredicateFactory<T> implements PredicateFactory<Predicate<T>>
 {
-  private static final String REGEX_ANY = ".*";
-  private static final String WILDCARD = "*";
-
-  private final Map<String, Function<T, ?>> getters;
+  private final GetterRegistry<T> getters;
 
   public JavaPredicateFactory(Collection<Getter<T>> getters)
   {
-    this.getters = getters.stream().collect(toMap(Getter::name, getter -> getter::get));
+    this(new GetterRegistry<>(getters));
+  }
+
+  /**
+   * Returns a factory looking its getters up in the registry as each predicate is built, so that getters registered later can be queried.
+   */
+  public JavaPredicateFactory(GetterRegistry<T> getters)
+  {
+    this.getters = getters;
   }
 
   @Override
   public Predicate<T> equal(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> Objects.equals(getter.apply(target), right);
+    Getter<T> getter = getter(left);
+    return new Term<>(getter, Operator.EQUAL, right, equal(getter, right));
   }
 
   @Override
   public Predicate<T> notEqual(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> !Objects.equals(getter.apply(target), right);
+    Getter<T> getter = getter(left);
+    return new Term<>(getter, Operator.NOT_EQUAL, right, equal(getter, right).negate());
   }
 
   @Override
   public Predicate<T> greaterThan(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> compare(getter.apply(target), right) > 0;
+    return compare(left, right, Operator.GREATER_THAN);
   }
 
   @Override
   public Predicate<T> greaterThanOrEqual(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> compare(getter.apply(target), right) >= 0;
+    return compare(left, right, Operator.GREATER_THAN_OR_EQUAL);
   }
 
   @Override
   public Predicate<T> lessThan(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> compare(getter.apply(target), right) < 0;
+    return compare(left, right, Operator.LESS_THAN);
   }
 
   @Override
   public Predicate<T> lessThanOrEqual(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> compare(getter.apply(target), right) <= 0;
+    return compare(left, right, Operator.LESS_THAN_OR_EQUAL);
   }
 
   @Override
   public Predicate<T> like(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> like(getter.apply(target), right);
+    Getter<T> getter = getter(left);
+    Predicate<String> pattern = likePattern(right);
+    return new Term<>(getter, Operator.LIKE, right, target -> pattern.test(likeValue(getter.get(target))));
   }
 
   @Override
   public Predicate<T> notLike(String left, Object right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> !like(getter.apply(target), right);
+    Getter<T> getter = getter(left);
+    Predicate<String> pattern = likePattern(right);
+    return new Term<>(getter, Operator.NOT_LIKE, right, target -> !pattern.test(likeValue(getter.get(target))));
   }
 
   @Override
   public Predicate<T> in(String left, List<?> right)
   {
-    Function<T, ?> getter = getter(left);
-    return target -> right.contains(getter.apply(target));
+    Getter<T> getter = getter(left);
+    return new Term<>(getter, Operator.IN, right, in(getter, right));
   }
 
   @Override
   public Predicate<T> and(Predicate<T> left, Predicate<T> right)
   {
-    return value -> left.test(value) && right.test(value);
+    return Junction.and(left, right);
   }
 
   @Override
   public Predicate<T> or(Predicate<T> left, Predicate<T> right)
   {
-    return value -> left.test(value) || right.test(value);
+    return Junction.or(left, right);
   }
 
   @Override
@@ -108,35 +113,176 @@ public class JavaPredicateFactory<T> implements PredicateFactory<Predicate<T>>
     return node;
   }
 
-  private <T1> int compare(T1 obj1, T1 obj2)
+  //The test a term makes on the value read by its getter, the same as the term's predicate, so that a value read once can be shared between terms.
+  static Predicate<Object> valuePredicate(Getter<?> getter, Operator operator, Object right)
+  {
+    switch (operator)
+    {
+      case EQUAL: return left -> Objects.equals(left, right);
+      case NOT_EQUAL: return left -> !Objects.equals(left, right);
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return compare(Comparison.of(getter.name(), getter.type(), right), operator);
+      case LIKE:
+        Predicate<String> pattern = likePattern(right);
+        return left -> pattern.test(likeValue(left));
+      case NOT_LIKE:
+        Predicate<String> notPattern = likePattern(right);
+        return left -> !notPattern.test(likeValue(left));
+      case IN: return InSet.of((List<?>)right);
+      default: throw new IllegalArgumentException("Unknown operator: " + operator);
+    }
+  }
+
+  private Predicate<T> compare(String left, Object right, Operator operator)
+  {
+    Getter<T> getter = getter(left);
+    return new Term<>(getter, operator, right, compare(getter, right, operator));
+  }
+
+  private Predicate<T> equal(Getter<T> getter, Object right)
+  {
+    if (getter instanceof IntGetter) return intEqual((IntGetter<T>)getter, right);
+    if (getter instanceof LongGetter) return longEqual((LongGetter<T>)getter, right);
+    if (getter instanceof DoubleGetter) return doubleEqual((DoubleGetter<T>)getter, right);
+
+    return target -> Objects.equals(getter.get(target), right);
+  }
+
+  private Predicate<T> in(Getter<T> getter, List<?> right)
+  {
+    if (getter instanceof IntGetter)
+    {
+      IntGetter<T> intGetter = (IntGetter<T>)getter;
+      IntPredicate values = InSet.intSet(right.stream().filter(Integer.class::isInstance).mapToInt(value -> (Integer)value).toArray());
+      return target -> values.test(intGetter.getInt(target));
+    }
+    if (getter instanceof LongGetter)
+    {
+      LongGetter<T> longGetter = (LongGetter<T>)getter;
+      LongPredicate values = InSet.longSet(right.stream().filter(Long.class::isInstance).mapToLong(value -> (Long)value).toArray());
+      return target -> values.test(longGetter.getLong(target));
+    }
+
+    Predicate<Object> values = InSet.of(right);
+    return target -> values.test(getter.get(target));
+  }
+
+  private Predicate<T> compare(Getter<T> getter, Object right, Operator operator)
+  {
+    String left = getter.name();
+
+    if (getter instanceof IntGetter) return intCompare((IntGetter<T>)getter, comparable(left, right, Integer.class), operator);
+    if (getter instanceof LongGetter) return longCompare((LongGetter<T>)getter, comparable(left, right, Long.class), operator);
+    if (getter instanceof DoubleGetter) return doubleCompare((DoubleGetter<T>)getter, comparable(left, right, Double.class), operator);
+
+    //The comparison is resolved from the getter's type and the right value now, rather than on every test.
+    Predicate<Object> comparison = compare(Comparison.of(left, getter.type(), right), operator);
+    return target -> comparison.test(getter.get(target));
+  }
+
+  private static Predicate<Object> compare(ToIntFunction<Object> comparison, Operator operator)
+  {
+    switch (operator)
+    {
+      case GREATER_THAN: return value -> comparison.applyAsInt(value) > 0;
+      case GREATER_THAN_OR_EQUAL: return value -> comparison.applyAsInt(value) >= 0;
+      case LESS_THAN: return value -> comparison.applyAsInt(value) < 0;
+      case LESS_THAN_OR_EQUAL: return value -> comparison.applyAsInt(value) <= 0;
+      default: throw new IllegalArgumentException("Not a comparison: " + operator);
+    }
+  }
+
+  private <C> C comparable(String left, Object right, Class<C> type)
+  {
+    if (!(right instanceof Comparable)) throw new QueryException("Cannot compare: " + right);
+    if (!type.isInstance(right)) throw new QueryException("Type mismatch: " + left + " and " + right);
+
+    return type.cast(right);
+  }
+
+  private Predicate<T> intCompare(IntGetter<T> getter, int right, Operator operator)
   {
-    try
+    switch (operator)
     {
-      if (!(obj1 instanceof Comparable)) throw new QueryException("Cannot compare: " + obj1);
-      if (!(obj2 instanceof Comparable)) throw new QueryException("Cannot compare: " + obj2);
+      case GREATER_THAN: return target -> getter.getInt(target) > right;
+      case GREATER_THAN_OR_EQUAL: return target -> getter.getInt(target) >= right;
+      case LESS_THAN: return target -> getter.getInt(target) < right;
+      case LESS_THAN_OR_EQUAL: return target -> getter.getInt(target) <= right;
+      default: throw new IllegalArgumentException("Not a comparison: " + operator);
+    }
+  }
 
-      //noinspection unchecked
-      return ((Comparable<T1>)obj1).compareTo(obj2);
+  private Predicate<T> longCompare(LongGetter<T> getter, long right, Operator operator)
+  {
+    switch (operator)
+    {
+      case GREATER_THAN: return target -> getter.getLong(target) > right;
+      case GREATER_THAN_OR_EQUAL: return target -> getter.getLong(target) >= right;
+      case LESS_THAN: return target -> getter.getLong(target) < right;
+      case LESS_THAN_OR_EQUAL: return target -> getter.getLong(target) <= right;
+      default: throw new IllegalArgumentException("Not a comparison: " + operator);
     }
-    catch (ClassCastException e)
+  }
+
+  private Predicate<T> doubleCompare(DoubleGetter<T> getter, double right, Operator operator)
+  {
+    //Double.compare keeps the ordering of Double.compareTo for NaN and -0.0.
+    switch (operator)
     {
-      throw new QueryException("Type mismatch: " + obj1 + " and " + obj2);
+      case GREATER_THAN: return target -> Double.compare(getter.getDouble(target), right) > 0;
+      case GREATER_THAN_OR_EQUAL: return target -> Double.compare(getter.getDouble(target), right) >= 0;
+      case LESS_THAN: return target -> Double.compare(getter.getDouble(target), right) < 0;
+      case LESS_THAN_OR_EQUAL: return target -> Double.compare(getter.getDouble(target), right) <= 0;
+      default: throw new IllegalArgumentException("Not a comparison: " + operator);
     }
   }
 
-  private @Nonnull Function<T, ?> getter(String left)
+  private Predicate<T> intEqual(IntGetter<T> getter, Object right)
+  {
+    if (!(right instanceof Integer)) return target -> false;
+
+    int value = (Integer)right;
+    return target -> getter.getInt(target) == value;
+  }
+
+  private Predicate<T> longEqual(LongGetter<T> getter, Object right)
+  {
+    if (!(right instanceof Long)) return target -> false;
+
+    long value = (Long)right;
+    return target -> getter.getLong(target) == value;
+  }
+
+  private Predicate<T> doubleEqual(DoubleGetter<T> getter, Object right)
+  {
+    if (!(right instanceof Double)) return target -> false;
+
+    double value = (Double)right;
+    return target -> Double.compare(getter.getDouble(target), value) == 0;
+  }
+
+  private @Nonnull Getter<T> getter(String left)
   {
-    Function<T, ?> getter = this.getters.get(left);
+    Getter<T> getter = this.getters.get(left);
     if (getter == null) throw new QueryException("Getter missing for: " + left);
 
     return getter;
   }
 
-  private boolean like(Object left, Object right)
+  private static Predicate<String> likePattern(Object right)
   {
-    if (!(left instanceof String)) throw new QueryException("Like comparisons only work for string values, received: " + left);
     if (!(right instanceof String)) throw new QueryException("Like comparisons only work for string values, received: " + right);
 
-    return ((String)left).matches(((String)right).replace(WILDCARD, REGEX_ANY));
+    return LikePattern.compile((String)right);
+  }
+
+  private static String likeValue(Object left)
+  {
+    if (!(left instanceof String)) throw new QueryException("Like comparisons only work for string values, received: " + left);
+
+    return (String)left;
   }
 }
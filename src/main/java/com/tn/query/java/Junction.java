@@ -0,0 +1,72 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+class Junction<T> extends Node<T>
+{
+  private final boolean and;
+  private final Predicate<T>[] operands;
+
+  Junction(boolean and, Predicate<T>[] operands)
+  {
+    this.and = and;
+    this.operands = operands;
+  }
+
+  static <T> Junction<T> and(Predicate<T> left, Predicate<T> right)
+  {
+    return new Junction<>(true, flatten(true, left, right));
+  }
+
+  static <T> Junction<T> or(Predicate<T> left, Predicate<T> right)
+  {
+    return new Junction<>(false, flatten(false, left, right));
+  }
+
+  boolean isAnd()
+  {
+    return this.and;
+  }
+
+  List<Predicate<T>> operands()
+  {
+    return List.of(this.operands);
+  }
+
+  @Override
+  public boolean test(T t)
+  {
+    //An and fails on the first false operand, an or passes on the first true operand.
+    for (Predicate<T> operand : this.operands)
+    {
+      if (operand.test(t) != this.and) return !this.and;
+    }
+
+    return this.and;
+  }
+
+  @Override
+  public String toString()
+  {
+    return Arrays.stream(this.operands).map(Object::toString).collect(joining(this.and ? " && " : " || ", "(", ")"));
+  }
+
+  @SafeVarargs
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static <T> Predicate<T>[] flatten(boolean and, Predicate<T>... predicates)
+  {
+    List<Predicate<T>> operands = new ArrayList<>();
+    for (Predicate<T> predicate : predicates)
+    {
+      if (predicate instanceof Junction && ((Junction<T>)predicate).and == and) operands.addAll(((Junction<T>)predicate).operands());
+      else operands.add(predicate);
+    }
+
+    return operands.toArray(new Predicate[0]);
+  }
+}
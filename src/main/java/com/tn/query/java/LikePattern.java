@@ -0,0 +1,49 @@
+package com.tn.query.java;
+
+import static java.util.regex.Pattern.DOTALL;
+import static java.util.regex.Pattern.quote;
+import static java.util.stream.Collectors.joining;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+final class LikePattern
+{
+  static final String WILDCARD = "*";
+
+  private static final String REGEX_ANY = ".*";
+
+  private LikePattern() {}
+
+  static Predicate<String> compile(String pattern)
+  {
+    if (!pattern.contains(WILDCARD)) return pattern::equals;
+
+    String[] literals = literals(pattern);
+    boolean leadingWildcard = pattern.startsWith(WILDCARD);
+    boolean trailingWildcard = pattern.endsWith(WILDCARD);
+
+    if (literals.length == 0) return value -> true;
+    if (literals.length == 1)
+    {
+      String literal = literals[0];
+
+      if (leadingWildcard && trailingWildcard) return value -> value.contains(literal);
+      if (trailingWildcard) return value -> value.startsWith(literal);
+      if (leadingWildcard) return value -> value.endsWith(literal);
+    }
+
+    Pattern regex = Pattern.compile(
+      Arrays.stream(pattern.split(quote(WILDCARD), -1)).map(literal -> literal.isEmpty() ? "" : quote(literal)).collect(joining(REGEX_ANY)),
+      DOTALL
+    );
+
+    return value -> regex.matcher(value).matches();
+  }
+
+  static String[] literals(String pattern)
+  {
+    return Arrays.stream(pattern.split(quote(WILDCARD))).filter(literal -> !literal.isEmpty()).toArray(String[]::new);
+  }
+}
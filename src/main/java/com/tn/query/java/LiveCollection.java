@@ -0,0 +1,201 @@
+package com.tn.query.java;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * A set of objects that keeps the results of its <code>LiveQueryView</code>s current: each change only tests the changed object against each view, so
+ * the cost of a change depends on the number of views rather than the number of objects.
+ * <p>
+ * An object changed in place must be passed to <code>update</code>, and its <code>equals</code> and <code>hashCode</code> must not depend on the values
+ * that change.  Changes are synchronized on the collection, which must also be held while iterating it; the views can be read without it.
+ */
+public class LiveCollection<T> extends AbstractSet<T>
+{
+  private final Set<T> elements = new LinkedHashSet<>();
+  private final List<LiveQueryView<T>> views = new CopyOnWriteArrayList<>();
+
+  public synchronized LiveQueryView<T> view(Predicate<T> predicate)
+  {
+    LiveQueryView<T> view = new LiveQueryView<>(this, predicate);
+    for (T element : this.elements)
+    {
+      if (view.test(element)) view.add(element);
+    }
+
+    this.views.add(view);
+    return view;
+  }
+
+  @Override
+  public synchronized boolean add(T element)
+  {
+    if (this.elements.contains(element)) return false;
+
+    List<LiveQueryView<T>> views = List.copyOf(this.views);
+    boolean[] matches = matches(views, element);
+
+    List<Runnable> notifications = new ArrayList<>();
+    this.elements.add(element);
+    for (int i = 0; i < matches.length; i++)
+    {
+      if (matches[i]) addTo(views.get(i), element, notifications);
+    }
+
+    notifyListeners(notifications);
+    return true;
+  }
+
+  public synchronized boolean update(T element)
+  {
+    if (!this.elements.contains(element)) return false;
+
+    List<LiveQueryView<T>> views = List.copyOf(this.views);
+    boolean[] matches = matches(views, element);
+
+    List<Runnable> notifications = new ArrayList<>();
+    for (int i = 0; i < matches.length; i++)
+    {
+      if (matches[i]) addTo(views.get(i), element, notifications);
+      else removeFrom(views.get(i), element, notifications);
+    }
+
+    notifyListeners(notifications);
+    return true;
+  }
+
+  @Override
+  public synchronized boolean remove(Object element)
+  {
+    if (!this.elements.remove(element)) return false;
+
+    List<Runnable> notifications = new ArrayList<>();
+    unview(element(element), notifications);
+
+    notifyListeners(notifications);
+    return true;
+  }
+
+  @Override
+  public synchronized void clear()
+  {
+    List<Runnable> notifications = new ArrayList<>();
+    this.elements.forEach(element -> unview(element, notifications));
+    this.elements.clear();
+
+    notifyListeners(notifications);
+  }
+
+  @Override
+  public synchronized boolean contains(Object element)
+  {
+    return this.elements.contains(element);
+  }
+
+  @Override
+  public Iterator<T> iterator()
+  {
+    Iterator<T> iterator = this.elements.iterator();
+
+    return new Iterator<>()
+    {
+      private T current;
+
+      @Override
+      public boolean hasNext()
+      {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public T next()
+      {
+        this.current = iterator.next();
+        return this.current;
+      }
+
+      @Override
+      public void remove()
+      {
+        synchronized (LiveCollection.this)
+        {
+          iterator.remove();
+
+          List<Runnable> notifications = new ArrayList<>();
+          unview(this.current, notifications);
+
+          notifyListeners(notifications);
+        }
+      }
+    };
+  }
+
+  @Override
+  public synchronized int size()
+  {
+    return this.elements.size();
+  }
+
+  synchronized void close(LiveQueryView<T> view)
+  {
+    this.views.remove(view);
+  }
+
+  //Tests every view before changing any, so that a predicate throwing leaves the collection and views unchanged.
+  private boolean[] matches(List<LiveQueryView<T>> views, T element)
+  {
+    boolean[] matches = new boolean[views.size()];
+    for (int i = 0; i < matches.length; i++) matches[i] = views.get(i).test(element);
+
+    return matches;
+  }
+
+  private void unview(T element, List<Runnable> notifications)
+  {
+    for (LiveQueryView<T> view : this.views) removeFrom(view, element, notifications);
+  }
+
+  //Every view's results are changed before any listener is notified, so that a listener throwing can't leave a view out of date.
+  private static <T> void addTo(LiveQueryView<T> view, T element, List<Runnable> notifications)
+  {
+    if (view.add(element)) view.listeners().forEach(listener -> notifications.add(() -> listener.added(element)));
+  }
+
+  private static <T> void removeFrom(LiveQueryView<T> view, T element, List<Runnable> notifications)
+  {
+    if (view.remove(element)) view.listeners().forEach(listener -> notifications.add(() -> listener.removed(element)));
+  }
+
+  //The element was found in the collection, so it's a T.
+  @SuppressWarnings("unchecked")
+  private static <T> T element(Object element)
+  {
+    return (T)element;
+  }
+
+  //Notifies every listener even when one throws, then throws the first failure.
+  private static void notifyListeners(List<Runnable> notifications)
+  {
+    RuntimeException failure = null;
+    for (Runnable notification : notifications)
+    {
+      try
+      {
+        notification.run();
+      }
+      catch (RuntimeException e)
+      {
+        if (failure == null) failure = e;
+        else failure.addSuppressed(e);
+      }
+    }
+
+    if (failure != null) throw failure;
+  }
+}
@@ -0,0 +1,12 @@
+package com.tn.query.java;
+
+/**
+ * Receives the objects entering and leaving a <code>LiveQueryView</code>, on the thread that changed the <code>LiveCollection</code>.  Listeners are
+ * notified once every view is up to date, and a listener that throws doesn't stop the others being notified; the change then throws the first failure.
+ */
+public interface LiveQueryListener<T>
+{
+  default void added(T element) {}
+
+  default void removed(T element) {}
+}
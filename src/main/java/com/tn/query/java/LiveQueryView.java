@@ -0,0 +1,78 @@
+package com.tn.query.java;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * The objects of a <code>LiveCollection</code> matching a predicate, kept current as objects are added, removed and updated.  The results can be read
+ * from any thread while the collection changes.
+ */
+public class LiveQueryView<T>
+{
+  private final LiveCollection<T> collection;
+  private final Predicate<T> predicate;
+  private final Set<T> results = ConcurrentHashMap.newKeySet();
+  private final List<LiveQueryListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+  LiveQueryView(LiveCollection<T> collection, Predicate<T> predicate)
+  {
+    this.collection = collection;
+    this.predicate = predicate;
+  }
+
+  public Set<T> results()
+  {
+    return Collections.unmodifiableSet(this.results);
+  }
+
+  public int size()
+  {
+    return this.results.size();
+  }
+
+  public boolean contains(Object element)
+  {
+    return this.results.contains(element);
+  }
+
+  public void addListener(LiveQueryListener<T> listener)
+  {
+    this.listeners.add(listener);
+  }
+
+  public void removeListener(LiveQueryListener<T> listener)
+  {
+    this.listeners.remove(listener);
+  }
+
+  //Stops the view being updated by the collection.
+  public void close()
+  {
+    this.collection.close(this);
+  }
+
+  boolean test(T element)
+  {
+    return this.predicate.test(element);
+  }
+
+  List<LiveQueryListener<T>> listeners()
+  {
+    return this.listeners;
+  }
+
+  //The results are changed without notifying the listeners, which the collection does once every view has changed.
+  boolean add(T element)
+  {
+    return this.results.add(element);
+  }
+
+  boolean remove(T element)
+  {
+    return this.results.remove(element);
+  }
+}
@@ -0,0 +1,75 @@
+package com.tn.query.java;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import com.tn.query.java.Getter.LongGetter;
+
+final class LongColumn<T> extends NumericColumn<T>
+{
+  private final long[] values;
+
+  private LongColumn(Getter<T> getter, long[] values, Selection nulls)
+  {
+    super(getter, nulls);
+    this.values = values;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> LongColumn<T> of(LongGetter<T> getter, Object[] rows)
+  {
+    long[] values = new long[rows.length];
+    for (int row = 0; row < rows.length; row++) values[row] = getter.getLong((T)rows[row]);
+
+    return new LongColumn<>(getter, values, null);
+  }
+
+  static <T> LongColumn<T> of(Getter<T> getter, Object[] boxed)
+  {
+    long[] values = new long[boxed.length];
+    for (int row = 0; row < boxed.length; row++)
+    {
+      if (boxed[row] != null) values[row] = (Long)boxed[row];
+    }
+
+    return new LongColumn<>(getter, values, nulls(boxed));
+  }
+
+  @Override
+  boolean accepts(Object right)
+  {
+    return right instanceof Long;
+  }
+
+  @Override
+  void compare(Object right, int mask, long[] words)
+  {
+    long value = (Long)right;
+    for (int word = 0; word < words.length; word++)
+    {
+      long bits = 0;
+      for (int row = word << 6, end = Math.min(row + 64, this.values.length); row < end; row++)
+      {
+        bits |= (long)(mask >>> (Long.compare(this.values[row], value) + 1) & 1) << row;
+      }
+
+      words[word] = bits;
+    }
+  }
+
+  @Override
+  void in(List<?> right, long[] words)
+  {
+    LongPredicate values = InSet.longSet(right.stream().filter(Long.class::isInstance).mapToLong(value -> (Long)value).toArray());
+    for (int word = 0; word < words.length; word++)
+    {
+      long bits = 0;
+      for (int row = word << 6, end = Math.min(row + 64, this.values.length); row < end; row++)
+      {
+        if (values.test(this.values[row])) bits |= 1L << row;
+      }
+
+      words[word] = bits;
+    }
+  }
+}
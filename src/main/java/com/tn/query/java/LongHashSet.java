@@ -0,0 +1,58 @@
+package com.tn.query.java;
+
+import java.util.function.LongPredicate;
+
+final class LongHashSet implements LongPredicate
+{
+  private static final long FREE = 0L;
+  private static final long PHI = 0x9E3779B97F4A7C15L;
+
+  private final long[] keys;
+  private final int mask;
+  private final int shift;
+  private final boolean containsFree;
+
+  LongHashSet(long[] values)
+  {
+    int capacity = Integer.highestOneBit(Math.max(values.length, 2) * 2 - 1) << 1;
+
+    this.keys = new long[capacity];
+    this.mask = capacity - 1;
+    this.shift = Long.numberOfLeadingZeros(this.mask);
+
+    boolean containsFree = false;
+    for (long value : values)
+    {
+      if (value == FREE) containsFree = true;
+      else add(value);
+    }
+
+    this.containsFree = containsFree;
+  }
+
+  @Override
+  public boolean test(long value)
+  {
+    if (value == FREE) return this.containsFree;
+
+    for (int i = index(value); ; i = (i + 1) & this.mask)
+    {
+      long key = this.keys[i];
+      if (key == value) return true;
+      if (key == FREE) return false;
+    }
+  }
+
+  private void add(long value)
+  {
+    int i = index(value);
+    while (this.keys[i] != FREE && this.keys[i] != value) i = (i + 1) & this.mask;
+
+    this.keys[i] = value;
+  }
+
+  private int index(long value)
+  {
+    return (int)((value * PHI) >>> this.shift);
+  }
+}
@@ -0,0 +1,19 @@
+package com.tn.query.java;
+
+import java.util.function.Predicate;
+
+/*
+ * The predicates built by JavaPredicateFactory are nodes that can be inspected, so that other ways of evaluating a query, e.g. using indexes, can see
+ * its terms.
+ */
+abstract class Node<T> implements Predicate<T>
+{
+  static <T> Node<T> of(Predicate<T> predicate)
+  {
+    if (predicate instanceof Node) return (Node<T>)predicate;
+    if (predicate instanceof CompiledPredicate) return ((CompiledPredicate<T>)predicate).node();
+    if (predicate instanceof InstrumentedPredicate) return of(((InstrumentedPredicate<T>)predicate).predicate());
+
+    return null;
+  }
+}
@@ -0,0 +1,113 @@
+package com.tn.query.java;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counts and sampled latency of every node of the instrumented queries with the same field and operator, e.g. all the <code>age GREATER_THAN</code>
+ * terms.  And/or nodes have no field and the operator <code>AND</code> or <code>OR</code>.
+ */
+public class NodeMetrics
+{
+  private final String field;
+  private final String operator;
+  private final LongAdder invocations = new LongAdder();
+  private final LongAdder passes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder samples = new LongAdder();
+  private final LongAdder sampledNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  NodeMetrics(String field, String operator)
+  {
+    this.field = field;
+    this.operator = operator;
+  }
+
+  public String field()
+  {
+    return this.field;
+  }
+
+  public String operator()
+  {
+    return this.operator;
+  }
+
+  public long invocations()
+  {
+    return this.invocations.sum();
+  }
+
+  public long passes()
+  {
+    return this.passes.sum();
+  }
+
+  public long failures()
+  {
+    return this.failures.sum();
+  }
+
+  public double passRate()
+  {
+    long invocations = invocations();
+    return invocations == 0 ? 0 : (double)passes() / invocations;
+  }
+
+  public long samples()
+  {
+    return this.samples.sum();
+  }
+
+  public double meanNanos()
+  {
+    long samples = samples();
+    return samples == 0 ? 0 : (double)this.sampledNanos.sum() / samples;
+  }
+
+  public long maxNanos()
+  {
+    return this.maxNanos.get();
+  }
+
+  @Override
+  public String toString()
+  {
+    return name() + " invocations=" + invocations() + " passRate=" + passRate() + " failures=" + failures() + " meanNanos=" + meanNanos();
+  }
+
+  String name()
+  {
+    return this.field != null ? this.field + " " + this.operator : this.operator;
+  }
+
+  void record(boolean result)
+  {
+    this.invocations.increment();
+    if (result) this.passes.increment();
+  }
+
+  void fail()
+  {
+    this.invocations.increment();
+    this.failures.increment();
+  }
+
+  void sample(long nanos)
+  {
+    this.samples.increment();
+    this.sampledNanos.add(nanos);
+    this.maxNanos.accumulate(nanos);
+  }
+
+  void reset()
+  {
+    this.invocations.reset();
+    this.passes.reset();
+    this.failures.reset();
+    this.samples.reset();
+    this.sampledNanos.reset();
+    this.maxNanos.reset();
+  }
+}
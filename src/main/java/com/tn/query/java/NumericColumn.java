@@ -0,0 +1,121 @@
+package com.tn.query.java;
+
+import java.util.List;
+import java.util.Objects;
+
+/*
+ * A column of int, long or double values, with the rows holding null values of a boxed getter kept in a separate selection.  Terms are evaluated in
+ * loops over the primitive values that set a word of the selection at a time.
+ */
+abstract class NumericColumn<T> extends Column<T>
+{
+  //The bits of a mask select which outcomes of a three-way comparison, i.e. -1, 0 or 1, match.
+  static final int LESS = 1;
+  static final int EQUAL = 2;
+  static final int GREATER = 4;
+
+  private final Selection nulls;
+
+  NumericColumn(Getter<T> getter, Selection nulls)
+  {
+    super(getter);
+    this.nulls = nulls;
+  }
+
+  @Override
+  boolean evaluate(Term<T> term, Selection matches, Selection undecided)
+  {
+    Object right = term.value();
+
+    switch (term.operator())
+    {
+      case EQUAL:
+        equal(right, matches);
+        return true;
+
+      case NOT_EQUAL:
+        equal(right, matches);
+        matches.not();
+        return true;
+
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        //Only boxed getters get this far with a mismatched type, primitive getters check it when the predicate is built.
+        if (!accepts(right))
+        {
+          undecided.not();
+          return true;
+        }
+
+        compare(right, mask(term.operator()), matches.words());
+        if (this.nulls != null)
+        {
+          matches.andNot(this.nulls);
+          undecided.or(this.nulls);
+        }
+        return true;
+
+      case IN:
+        in((List<?>)right, matches.words());
+        if (this.nulls != null)
+        {
+          matches.andNot(this.nulls);
+          if (((List<?>)right).stream().anyMatch(Objects::isNull)) matches.or(this.nulls);
+        }
+        return true;
+
+      case LIKE:
+      case NOT_LIKE:
+        //Numbers are never strings, so every like fails.
+        undecided.not();
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
+  abstract boolean accepts(Object right);
+
+  abstract void compare(Object right, int mask, long[] words);
+
+  abstract void in(List<?> right, long[] words);
+
+  private void equal(Object right, Selection matches)
+  {
+    if (right == null)
+    {
+      if (this.nulls != null) matches.or(this.nulls);
+    }
+    else if (accepts(right))
+    {
+      compare(right, EQUAL, matches.words());
+      if (this.nulls != null) matches.andNot(this.nulls);
+    }
+  }
+
+  static Selection nulls(Object[] values)
+  {
+    Selection nulls = new Selection(values.length);
+    for (int row = 0; row < values.length; row++)
+    {
+      if (values[row] == null) nulls.set(row);
+    }
+
+    return nulls.isEmpty() ? null : nulls;
+  }
+
+  private static int mask(Operator operator)
+  {
+    switch (operator)
+    {
+      case GREATER_THAN: return GREATER;
+      case GREATER_THAN_OR_EQUAL: return GREATER | EQUAL;
+      case LESS_THAN: return LESS;
+      case LESS_THAN_OR_EQUAL: return LESS | EQUAL;
+      default: throw new IllegalArgumentException("Not a comparison: " + operator);
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.tn.query.java;
+
+enum Operator
+{
+  EQUAL,
+  NOT_EQUAL,
+  GREATER_THAN,
+  GREATER_THAN_OR_EQUAL,
+  LESS_THAN,
+  LESS_THAN_OR_EQUAL,
+  LIKE,
+  NOT_LIKE,
+  IN
+}
@@ -0,0 +1,90 @@
+package com.tn.query.java;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.tn.query.PredicateFactory;
+
+public class OptimisingPredicateFactory<T> implements PredicateFactory<Predicate<T>>
+{
+  private final JavaPredicateFactory<T> predicateFactory;
+
+  public OptimisingPredicateFactory(Collection<Getter<T>> getters)
+  {
+    this.predicateFactory = new JavaPredicateFactory<>(getters);
+  }
+
+  @Override
+  public Predicate<T> equal(String left, Object right)
+  {
+    return this.predicateFactory.equal(left, right);
+  }
+
+  @Override
+  public Predicate<T> notEqual(String left, Object right)
+  {
+    return this.predicateFactory.notEqual(left, right);
+  }
+
+  @Override
+  public Predicate<T> greaterThan(String left, Object right)
+  {
+    return this.predicateFactory.greaterThan(left, right);
+  }
+
+  @Override
+  public Predicate<T> greaterThanOrEqual(String left, Object right)
+  {
+    return this.predicateFactory.greaterThanOrEqual(left, right);
+  }
+
+  @Override
+  public Predicate<T> lessThan(String left, Object right)
+  {
+    return this.predicateFactory.lessThan(left, right);
+  }
+
+  @Override
+  public Predicate<T> lessThanOrEqual(String left, Object right)
+  {
+    return this.predicateFactory.lessThanOrEqual(left, right);
+  }
+
+  @Override
+  public Predicate<T> like(String left, Object right)
+  {
+    return this.predicateFactory.like(left, right);
+  }
+
+  @Override
+  public Predicate<T> notLike(String left, Object right)
+  {
+    return this.predicateFactory.notLike(left, right);
+  }
+
+  @Override
+  public Predicate<T> in(String left, List<?> right)
+  {
+    return this.predicateFactory.in(left, right);
+  }
+
+  @Override
+  public Predicate<T> and(Predicate<T> left, Predicate<T> right)
+  {
+    return AdaptiveJunction.and(left, right);
+  }
+
+  @Override
+  public Predicate<T> or(Predicate<T> left, Predicate<T> right)
+  {
+    return AdaptiveJunction.or(left, right);
+  }
+
+  @Override
+  public Predicate<T> parenthesis(Predicate<T> node)
+  {
+    //Parenthesis is handled implicitly when parsing queries.
+    return node;
+  }
+}
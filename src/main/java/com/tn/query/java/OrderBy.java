@@ -0,0 +1,96 @@
+package com.tn.query.java;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.tn.query.QueryException;
+import com.tn.query.java.Getter.DoubleGetter;
+import com.tn.query.java.Getter.IntGetter;
+import com.tn.query.java.Getter.LongGetter;
+
+/**
+ * Orders objects by the values read by their getters, in the same way as an SQL <code>ORDER BY</code>.  Each field is the name of a getter,
+ * optionally followed by <code>ASC</code> or <code>DESC</code>, e.g. <code>new OrderBy<>(getters, List.of("lastName", "age DESC"))</code>.
+ * <p>
+ * <code>null</code> values are ordered after all others in ascending order and before them in descending order.  Primitive getters are compared
+ * without boxing.
+ */
+public class OrderBy<T> implements Comparator<T>
+{
+  private static final String ASCENDING = "ASC";
+  private static final String DESCENDING = "DESC";
+
+  private final Comparator<T> comparator;
+
+  public OrderBy(Collection<Getter<T>> getters, List<String> fields)
+  {
+    if (fields.isEmpty()) throw new QueryException("Order by needs at least one field");
+
+    Map<String, Getter<T>> gettersByName = getters.stream().collect(toMap(Getter::name, identity()));
+
+    Comparator<T> comparator = null;
+    for (String field : fields)
+    {
+      Comparator<T> fieldComparator = comparator(gettersByName, field);
+      comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+    }
+
+    this.comparator = comparator;
+  }
+
+  @Override
+  public int compare(T t1, T t2)
+  {
+    return this.comparator.compare(t1, t2);
+  }
+
+  private Comparator<T> comparator(Map<String, Getter<T>> getters, String field)
+  {
+    String[] parts = field.trim().split("\\s+");
+    if (parts.length > 2 || parts[0].isEmpty()) throw new QueryException("Invalid order by field: " + field);
+
+    Getter<T> getter = getters.get(parts[0]);
+    if (getter == null) throw new QueryException("Getter missing for: " + parts[0]);
+
+    String direction = parts.length == 2 ? parts[1].toUpperCase(Locale.ROOT) : ASCENDING;
+    if (!direction.equals(ASCENDING) && !direction.equals(DESCENDING)) throw new QueryException("Invalid order by direction: " + field);
+
+    Comparator<T> comparator = comparator(getter);
+    return direction.equals(DESCENDING) ? comparator.reversed() : comparator;
+  }
+
+  private Comparator<T> comparator(Getter<T> getter)
+  {
+    if (getter instanceof IntGetter)
+    {
+      IntGetter<T> intGetter = (IntGetter<T>)getter;
+      return (t1, t2) -> Integer.compare(intGetter.getInt(t1), intGetter.getInt(t2));
+    }
+    if (getter instanceof LongGetter)
+    {
+      LongGetter<T> longGetter = (LongGetter<T>)getter;
+      return (t1, t2) -> Long.compare(longGetter.getLong(t1), longGetter.getLong(t2));
+    }
+    if (getter instanceof DoubleGetter)
+    {
+      DoubleGetter<T> doubleGetter = (DoubleGetter<T>)getter;
+      return (t1, t2) -> Double.compare(doubleGetter.getDouble(t1), doubleGetter.getDouble(t2));
+    }
+
+    return (t1, t2) -> compareValues(getter.get(t1), getter.get(t2));
+  }
+
+  private static int compareValues(Object value1, Object value2)
+  {
+    if (value1 == null) return value2 == null ? 0 : 1;
+    if (value2 == null) return -1;
+
+    return Comparison.compare(value1, value2);
+  }
+}
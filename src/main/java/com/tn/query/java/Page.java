@@ -0,0 +1,71 @@
+package com.tn.query.java;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A page of the matches from <code>QueryExecutor.page</code>, with the continuation to pass back for the next page.  The continuation is an opaque,
+ * URL safe string recording where the scan stopped, so that the next page starts from there rather than scanning the earlier objects again.
+ */
+public class Page<T>
+{
+  private static final byte VERSION = 1;
+  private static final int TOKEN_SIZE = 1 + Integer.BYTES;
+
+  private final List<T> matches;
+  private final int position;
+  private final boolean last;
+
+  Page(List<T> matches, int position, boolean last)
+  {
+    this.matches = matches;
+    this.position = position;
+    this.last = last;
+  }
+
+  public List<T> matches()
+  {
+    return this.matches;
+  }
+
+  /**
+   * Returns the continuation for the next page.  Once every object has been scanned it still records the end, so that objects added later can be paged.
+   */
+  public String continuation()
+  {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(ByteBuffer.allocate(TOKEN_SIZE).put(VERSION).putInt(this.position).array());
+  }
+
+  /**
+   * Returns whether any objects were left unscanned.  A full page doesn't know whether any of them match, so the last page may be followed by an empty
+   * one.
+   */
+  public boolean hasMore()
+  {
+    return !this.last;
+  }
+
+  //Returns the position to scan from for the continuation, where null is the start of the objects.
+  static int position(String continuation, int size)
+  {
+    if (continuation == null) return 0;
+
+    ByteBuffer token;
+    try
+    {
+      token = ByteBuffer.wrap(Base64.getUrlDecoder().decode(continuation));
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new IllegalArgumentException("Invalid continuation: " + continuation, e);
+    }
+
+    if (token.remaining() != TOKEN_SIZE || token.get() != VERSION) throw new IllegalArgumentException("Invalid continuation: " + continuation);
+
+    int position = token.getInt();
+    if (position < 0 || position > size) throw new IllegalArgumentException("Continuation past the end: " + position + ", size: " + size);
+
+    return position;
+  }
+}
@@ -0,0 +1,223 @@
+package com.tn.query.java;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.function.Predicate;
+
+import com.tn.query.QueryException;
+
+/*
+ * Defines a hidden class, one per query, equivalent to:
+ *
+ *   final class CompiledQuery implements Predicate
+ *   {
+ *     private static final MethodHandle HANDLE = MethodHandles.classData(MethodHandles.lookup(), "_", MethodHandle.class);
+ *
+ *     public boolean test(Object target)
+ *     {
+ *       return (boolean)HANDLE.invokeExact(target);
+ *     }
+ *   }
+ *
+ * Because HANDLE is a static final constant of its own class the JIT inlines the whole method handle tree, getters included, into test.
+ */
+final class QueryClass
+{
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final byte[] BYTES = bytes();
+
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final int VERSION = 52;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELD_REF = 9;
+  private static final int CONSTANT_METHOD_REF = 10;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_STATIC = 0x0008;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+
+  private static final int ALOAD_0 = 0x2A;
+  private static final int ALOAD_1 = 0x2B;
+  private static final int LDC = 0x12;
+  private static final int IRETURN = 0xAC;
+  private static final int RETURN = 0xB1;
+  private static final int GETSTATIC = 0xB2;
+  private static final int PUTSTATIC = 0xB3;
+  private static final int INVOKEVIRTUAL = 0xB6;
+  private static final int INVOKESPECIAL = 0xB7;
+  private static final int INVOKESTATIC = 0xB8;
+  private static final int CHECKCAST = 0xC0;
+
+  // Constant pool indexes.
+  private static final int THIS_CLASS = 2;
+  private static final int OBJECT_CLASS = 4;
+  private static final int PREDICATE_CLASS = 6;
+  private static final int HANDLE_NAME = 7;
+  private static final int HANDLE_DESCRIPTOR = 8;
+  private static final int INIT_NAME = 9;
+  private static final int INIT_DESCRIPTOR = 10;
+  private static final int CODE = 11;
+  private static final int TEST_NAME = 12;
+  private static final int TEST_DESCRIPTOR = 13;
+  private static final int CLINIT_NAME = 14;
+  private static final int OBJECT_INIT = 16;
+  private static final int HANDLE_FIELD = 18;
+  private static final int METHOD_HANDLE_CLASS = 20;
+  private static final int INVOKE_EXACT = 23;
+  private static final int LOOKUP_METHOD = 29;
+  private static final int CLASS_DATA_METHOD = 33;
+  private static final int CLASS_DATA_NAME = 35;
+  private static final int CONSTANT_POOL_COUNT = 36;
+
+  private QueryClass() {}
+
+  static <T> Predicate<T> define(MethodHandle handle)
+  {
+    try
+    {
+      MethodHandles.Lookup lookup = LOOKUP.defineHiddenClassWithClassData(BYTES, handle, true);
+
+      //noinspection unchecked
+      return (Predicate<T>)lookup.findConstructor(lookup.lookupClass(), methodType(void.class)).invoke();
+    }
+    catch (Throwable e)
+    {
+      throw new QueryException("Failed to compile query", e);
+    }
+  }
+
+  private static byte[] bytes()
+  {
+    try
+    {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+
+      out.writeInt(MAGIC);
+      out.writeShort(0);
+      out.writeShort(VERSION);
+
+      out.writeShort(CONSTANT_POOL_COUNT);
+      utf8(out, QueryClass.class.getPackageName().replace('.', '/') + "/CompiledQuery"); // 1
+      reference(out, CONSTANT_CLASS, 1);                                                  // 2
+      utf8(out, "java/lang/Object");                                                      // 3
+      reference(out, CONSTANT_CLASS, 3);                                                  // 4
+      utf8(out, "java/util/function/Predicate");                                          // 5
+      reference(out, CONSTANT_CLASS, 5);                                                  // 6
+      utf8(out, "HANDLE");                                                                // 7
+      utf8(out, "Ljava/lang/invoke/MethodHandle;");                                       // 8
+      utf8(out, "<init>");                                                                // 9
+      utf8(out, "()V");                                                                   // 10
+      utf8(out, "Code");                                                                  // 11
+      utf8(out, "test");                                                                  // 12
+      utf8(out, "(Ljava/lang/Object;)Z");                                                 // 13
+      utf8(out, "<clinit>");                                                              // 14
+      reference(out, CONSTANT_NAME_AND_TYPE, INIT_NAME, INIT_DESCRIPTOR);                 // 15
+      reference(out, CONSTANT_METHOD_REF, OBJECT_CLASS, 15);                              // 16
+      reference(out, CONSTANT_NAME_AND_TYPE, HANDLE_NAME, HANDLE_DESCRIPTOR);             // 17
+      reference(out, CONSTANT_FIELD_REF, THIS_CLASS, 17);                                 // 18
+      utf8(out, "java/lang/invoke/MethodHandle");                                         // 19
+      reference(out, CONSTANT_CLASS, 19);                                                 // 20
+      utf8(out, "invokeExact");                                                           // 21
+      reference(out, CONSTANT_NAME_AND_TYPE, 21, TEST_DESCRIPTOR);                        // 22
+      reference(out, CONSTANT_METHOD_REF, METHOD_HANDLE_CLASS, 22);                       // 23
+      utf8(out, "java/lang/invoke/MethodHandles");                                        // 24
+      reference(out, CONSTANT_CLASS, 24);                                                 // 25
+      utf8(out, "lookup");                                                                // 26
+      utf8(out, "()Ljava/lang/invoke/MethodHandles$Lookup;");                             // 27
+      reference(out, CONSTANT_NAME_AND_TYPE, 26, 27);                                     // 28
+      reference(out, CONSTANT_METHOD_REF, 25, 28);                                        // 29
+      utf8(out, "classData");                                                             // 30
+      utf8(out, "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;"); // 31
+      reference(out, CONSTANT_NAME_AND_TYPE, 30, 31);                                     // 32
+      reference(out, CONSTANT_METHOD_REF, 25, 32);                                        // 33
+      utf8(out, "_");                                                                     // 34
+      reference(out, CONSTANT_STRING, 34);                                                // 35
+
+      out.writeShort(ACC_FINAL | ACC_SUPER);
+      out.writeShort(THIS_CLASS);
+      out.writeShort(OBJECT_CLASS);
+      out.writeShort(1);
+      out.writeShort(PREDICATE_CLASS);
+
+      out.writeShort(1);
+      out.writeShort(ACC_PRIVATE | ACC_STATIC | ACC_FINAL);
+      out.writeShort(HANDLE_NAME);
+      out.writeShort(HANDLE_DESCRIPTOR);
+      out.writeShort(0);
+
+      out.writeShort(3);
+      method(out, ACC_PUBLIC, INIT_NAME, INIT_DESCRIPTOR, 1, 1, new byte[] {
+        ALOAD_0,
+        (byte)INVOKESPECIAL, 0, OBJECT_INIT,
+        (byte)RETURN
+      });
+      method(out, ACC_PUBLIC, TEST_NAME, TEST_DESCRIPTOR, 2, 2, new byte[] {
+        (byte)GETSTATIC, 0, HANDLE_FIELD,
+        ALOAD_1,
+        (byte)INVOKEVIRTUAL, 0, INVOKE_EXACT,
+        (byte)IRETURN
+      });
+      method(out, ACC_STATIC, CLINIT_NAME, INIT_DESCRIPTOR, 3, 0, new byte[] {
+        (byte)INVOKESTATIC, 0, LOOKUP_METHOD,
+        LDC, CLASS_DATA_NAME,
+        LDC, METHOD_HANDLE_CLASS,
+        (byte)INVOKESTATIC, 0, CLASS_DATA_METHOD,
+        (byte)CHECKCAST, 0, METHOD_HANDLE_CLASS,
+        (byte)PUTSTATIC, 0, HANDLE_FIELD,
+        (byte)RETURN
+      });
+
+      out.writeShort(0);
+
+      return bytes.toByteArray();
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void utf8(DataOutputStream out, String value) throws IOException
+  {
+    out.writeByte(CONSTANT_UTF8);
+    out.writeUTF(value);
+  }
+
+  private static void reference(DataOutputStream out, int tag, int... indexes) throws IOException
+  {
+    out.writeByte(tag);
+    for (int index : indexes)
+    {
+      out.writeShort(index);
+    }
+  }
+
+  private static void method(DataOutputStream out, int access, int name, int descriptor, int maxStack, int maxLocals, byte[] code) throws IOException
+  {
+    out.writeShort(access);
+    out.writeShort(name);
+    out.writeShort(descriptor);
+    out.writeShort(1);
+    out.writeShort(CODE);
+    out.writeInt(12 + code.length);
+    out.writeShort(maxStack);
+    out.writeShort(maxLocals);
+    out.writeInt(code.length);
+    out.write(code);
+    out.writeShort(0);
+    out.writeShort(0);
+  }
+}
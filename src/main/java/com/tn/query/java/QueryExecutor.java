@@ -0,0 +1,570 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Tests a predicate against the objects in a list or array in parallel, splitting the objects into chunks sized by the parallelism of the
+ * <code>ForkJoinPool</code> and the number of objects.  Matches are returned in their original order, or in a given order by <code>top</code>, and
+ * <code>first</code>, <code>page</code> and <code>exists</code> stop as soon as their result is known.
+ * <p>
+ * The predicate is tested from many threads at once, so must be thread-safe, as those built by <code>JavaPredicateFactory</code> are.  A query that
+ * <code>SimplifyingPredicateFactory</code> has found can never match isn't tested at all.
+ */
+public class QueryExecutor<T>
+{
+  private static final int MIN_CHUNK_SIZE = 1024;
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final int CHECK_INTERVAL = 256;
+
+  private final Predicate<T> predicate;
+  private final ForkJoinPool pool;
+  private final boolean none;
+
+  public QueryExecutor(Predicate<T> predicate)
+  {
+    this(predicate, ForkJoinPool.commonPool());
+  }
+
+  public QueryExecutor(Predicate<T> predicate, ForkJoinPool pool)
+  {
+    this.predicate = predicate;
+    this.pool = pool;
+    this.none = Constant.isFalse(predicate);
+  }
+
+  public List<T> filter(T[] targets)
+  {
+    return filter(Arrays.asList(targets));
+  }
+
+  public List<T> filter(List<T> targets)
+  {
+    if (this.none) return new ArrayList<>();
+
+    Chunks chunks = new Chunks(targets);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    List<T>[] matches = new List[chunks.count];
+
+    forEachChunk(chunks, chunk -> matches[chunk] = matches(chunks, chunk, Integer.MAX_VALUE, () -> false));
+
+    return concatenate(matches, chunks.count, Integer.MAX_VALUE);
+  }
+
+  public long count(T[] targets)
+  {
+    return count(Arrays.asList(targets));
+  }
+
+  public long count(List<T> targets)
+  {
+    if (this.none) return 0;
+
+    Chunks chunks = new Chunks(targets);
+    long[] counts = new long[chunks.count];
+
+    forEachChunk(
+      chunks,
+      chunk ->
+      {
+        long count = 0;
+        for (int i = chunks.start(chunk), end = chunks.end(chunk); i < end; i++)
+        {
+          if (this.predicate.test(chunks.get(i))) count++;
+        }
+
+        counts[chunk] = count;
+      }
+    );
+
+    return Arrays.stream(counts).sum();
+  }
+
+  public List<T> first(T[] targets, int limit)
+  {
+    return first(Arrays.asList(targets), limit);
+  }
+
+  public List<T> first(List<T> targets, int limit)
+  {
+    if (limit < 0) throw new IllegalArgumentException("Limit must not be negative, received: " + limit);
+    if (limit == 0 || this.none) return new ArrayList<>();
+
+    Chunks chunks = new Chunks(targets);
+    Cutoff cutoff = new Cutoff(chunks.count, limit);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    List<T>[] matches = new List[chunks.count];
+
+    forEachChunk(
+      chunks,
+      chunk ->
+      {
+        if (cutoff.excludes(chunk)) return;
+
+        List<T> chunkMatches = matches(chunks, chunk, limit, () -> cutoff.excludes(chunk));
+        if (cutoff.excludes(chunk)) return;
+
+        matches[chunk] = chunkMatches;
+        cutoff.complete(chunk, chunkMatches.size());
+      }
+    );
+
+    return concatenate(matches, chunks.count, limit);
+  }
+
+  public Page<T> page(T[] targets, String continuation, int pageSize)
+  {
+    return page(Arrays.asList(targets), continuation, pageSize);
+  }
+
+  /**
+   * Returns the next <code>pageSize</code> matches after the position recorded by the continuation from the previous page, or the first when the
+   * continuation is <code>null</code>.  Only the objects after that position are tested, so each page costs about the same however deep it is.  The
+   * objects must keep their order from page to page, though objects may be added to the end.
+   */
+  public Page<T> page(List<T> targets, String continuation, int pageSize)
+  {
+    if (pageSize <= 0) throw new IllegalArgumentException("Page size must be greater than zero, received: " + pageSize);
+
+    int position = Page.position(continuation, targets.size());
+    if (this.none) return new Page<>(new ArrayList<>(), targets.size(), true);
+
+    Chunks chunks = new Chunks(targets.subList(position, targets.size()));
+    Cutoff cutoff = new Cutoff(chunks.count, pageSize);
+    int[][] indexes = new int[chunks.count][];
+
+    forEachChunk(
+      chunks,
+      chunk ->
+      {
+        if (cutoff.excludes(chunk)) return;
+
+        int[] chunkIndexes = matchIndexes(chunks, chunk, pageSize, () -> cutoff.excludes(chunk));
+        if (cutoff.excludes(chunk)) return;
+
+        indexes[chunk] = chunkIndexes;
+        cutoff.complete(chunk, chunkIndexes.length);
+      }
+    );
+
+    List<T> matches = new ArrayList<>(pageSize);
+    int last = -1;
+    for (int chunk = 0; chunk < chunks.count && matches.size() < pageSize; chunk++)
+    {
+      if (indexes[chunk] == null) continue;
+
+      for (int i = 0; i < indexes[chunk].length && matches.size() < pageSize; i++)
+      {
+        last = indexes[chunk][i];
+        matches.add(chunks.get(last));
+      }
+    }
+
+    //A full page continues after its last match, anything else has scanned every object.
+    int end = matches.size() == pageSize ? position + last + 1 : targets.size();
+    return new Page<>(matches, end, end == targets.size());
+  }
+
+  public List<T> top(T[] targets, Comparator<? super T> order, int limit)
+  {
+    return top(Arrays.asList(targets), order, limit);
+  }
+
+  /**
+   * Returns the first <code>limit</code> matches in the given order, matches that are equal in the order staying in their original order as they
+   * would after a stable sort.  Each chunk keeps only its best <code>limit</code> matches in a bounded heap, which are merged once all the chunks are
+   * complete.
+   */
+  public List<T> top(List<T> targets, Comparator<? super T> order, int limit)
+  {
+    if (limit < 0) throw new IllegalArgumentException("Limit must not be negative, received: " + limit);
+    if (limit == 0 || this.none) return new ArrayList<>();
+
+    Chunks chunks = new Chunks(targets);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Heap<T>[] heaps = new Heap[chunks.count];
+
+    forEachChunk(
+      chunks,
+      chunk ->
+      {
+        Heap<T> heap = new Heap<>(order, limit, chunks.end(chunk) - chunks.start(chunk));
+        for (int i = chunks.start(chunk), end = chunks.end(chunk); i < end; i++)
+        {
+          T target = chunks.get(i);
+          if (this.predicate.test(target)) heap.offer(target, i);
+        }
+
+        heaps[chunk] = heap;
+      }
+    );
+
+    Heap<T> top = heaps[0];
+    for (int chunk = 1; chunk < chunks.count; chunk++) top.offerAll(heaps[chunk]);
+
+    return top.sorted();
+  }
+
+  public List<Aggregate> aggregate(T[] targets, Aggregation<T> aggregation)
+  {
+    return aggregate(Arrays.asList(targets), aggregation);
+  }
+
+  /**
+   * Returns the aggregates of the matches' groups, in the order each group is first matched.  Each chunk aggregates its matches separately, and the
+   * chunks' aggregates are merged once all the chunks are complete.
+   */
+  public List<Aggregate> aggregate(List<T> targets, Aggregation<T> aggregation)
+  {
+    if (this.none) return aggregation.groups().aggregates();
+
+    Chunks chunks = new Chunks(targets);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Groups<T>[] groups = new Groups[chunks.count];
+
+    forEachChunk(
+      chunks,
+      chunk ->
+      {
+        Groups<T> chunkGroups = aggregation.groups();
+        for (int i = chunks.start(chunk), end = chunks.end(chunk); i < end; i++)
+        {
+          T target = chunks.get(i);
+          if (this.predicate.test(target)) chunkGroups.add(target);
+        }
+
+        groups[chunk] = chunkGroups;
+      }
+    );
+
+    for (int chunk = 1; chunk < chunks.count; chunk++) groups[0].merge(groups[chunk]);
+
+    return groups[0].aggregates();
+  }
+
+  public boolean exists(T[] targets)
+  {
+    return exists(Arrays.asList(targets));
+  }
+
+  public boolean exists(List<T> targets)
+  {
+    if (this.none) return false;
+
+    Chunks chunks = new Chunks(targets);
+    AtomicBoolean found = new AtomicBoolean();
+
+    forEachChunk(
+      chunks,
+      chunk ->
+      {
+        if (found.get()) return;
+        if (!matches(chunks, chunk, 1, found::get).isEmpty()) found.set(true);
+      }
+    );
+
+    return found.get();
+  }
+
+  private void forEachChunk(Chunks chunks, IntConsumer action)
+  {
+    if (chunks.count == 1) action.accept(0);
+    else this.pool.invoke(new ChunkAction(0, chunks.count, action));
+  }
+
+  private List<T> matches(Chunks chunks, int chunk, int limit, Stop stop)
+  {
+    List<T> matches = new ArrayList<>();
+    for (int i = chunks.start(chunk), end = chunks.end(chunk); i < end; i++)
+    {
+      if ((i & (CHECK_INTERVAL - 1)) == 0 && stop.stop()) break;
+
+      T target = chunks.get(i);
+      if (this.predicate.test(target))
+      {
+        matches.add(target);
+        if (matches.size() == limit) break;
+      }
+    }
+
+    return matches;
+  }
+
+  private int[] matchIndexes(Chunks chunks, int chunk, int limit, Stop stop)
+  {
+    int[] indexes = new int[16];
+    int count = 0;
+    for (int i = chunks.start(chunk), end = chunks.end(chunk); i < end; i++)
+    {
+      if ((i & (CHECK_INTERVAL - 1)) == 0 && stop.stop()) break;
+
+      if (this.predicate.test(chunks.get(i)))
+      {
+        if (count == indexes.length) indexes = Arrays.copyOf(indexes, count * 2);
+
+        indexes[count++] = i;
+        if (count == limit) break;
+      }
+    }
+
+    return Arrays.copyOf(indexes, count);
+  }
+
+  private List<T> concatenate(List<T>[] matches, int count, int limit)
+  {
+    int size = 0;
+    for (int i = 0; i < count; i++)
+    {
+      if (matches[i] != null) size += matches[i].size();
+    }
+
+    List<T> concatenated = new ArrayList<>(Math.min(size, limit));
+    for (int i = 0; i < count && concatenated.size() < limit; i++)
+    {
+      if (matches[i] == null) continue;
+
+      List<T> chunkMatches = matches[i];
+      concatenated.addAll(chunkMatches.size() <= limit - concatenated.size() ? chunkMatches : chunkMatches.subList(0, limit - concatenated.size()));
+    }
+
+    return concatenated;
+  }
+
+  private interface Stop
+  {
+    boolean stop();
+  }
+
+  private class Chunks
+  {
+    private final List<T> targets;
+    private final int size;
+    private final int chunkSize;
+    private final int count;
+
+    private Chunks(List<T> targets)
+    {
+      //Indexed access to a linked list is linear, so copy it first.
+      this.targets = targets instanceof RandomAccess ? targets : new ArrayList<>(targets);
+      this.size = targets.size();
+
+      int parallelism = QueryExecutor.this.pool.getParallelism();
+      this.chunkSize = Math.max(MIN_CHUNK_SIZE, (this.size + parallelism * CHUNKS_PER_THREAD - 1) / (parallelism * CHUNKS_PER_THREAD));
+      this.count = Math.max(1, (this.size + this.chunkSize - 1) / this.chunkSize);
+    }
+
+    private int start(int chunk)
+    {
+      return chunk * this.chunkSize;
+    }
+
+    private int end(int chunk)
+    {
+      return Math.min(this.size, (chunk + 1) * this.chunkSize);
+    }
+
+    private T get(int index)
+    {
+      return this.targets.get(index);
+    }
+  }
+
+  //RecursiveAction is Serializable, but the actions only ever run on the pool.
+  @SuppressWarnings("serial")
+  private static class ChunkAction extends RecursiveAction
+  {
+    private final int from;
+    private final int to;
+    private final IntConsumer action;
+
+    private ChunkAction(int from, int to, IntConsumer action)
+    {
+      this.from = from;
+      this.to = to;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (this.to - this.from == 1)
+      {
+        this.action.accept(this.from);
+        return;
+      }
+
+      int middle = (this.from + this.to) >>> 1;
+      invokeAll(new ChunkAction(this.from, middle, this.action), new ChunkAction(middle, this.to, this.action));
+    }
+  }
+
+  //A max-heap of the best matches so far, the worst at the root so that it's the one replaced, with ties broken by the matches' original positions.
+  private static class Heap<T>
+  {
+    private final Comparator<? super T> order;
+    private final int limit;
+    private Object[] values;
+    private int[] positions;
+    private int size;
+
+    private Heap(Comparator<? super T> order, int limit, int capacity)
+    {
+      this.order = order;
+      this.limit = limit;
+      this.values = new Object[Math.min(limit, Math.max(capacity, 1))];
+      this.positions = new int[this.values.length];
+    }
+
+    private void offer(T value, int position)
+    {
+      if (this.size < this.limit)
+      {
+        if (this.size == this.values.length) grow();
+
+        this.values[this.size] = value;
+        this.positions[this.size] = position;
+        siftUp(this.size++);
+      }
+      else if (compare(value, position, 0) < 0)
+      {
+        this.values[0] = value;
+        this.positions[0] = position;
+        siftDown(0, this.size);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void offerAll(Heap<T> heap)
+    {
+      for (int i = 0; i < heap.size; i++) offer((T)heap.values[i], heap.positions[i]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> sorted()
+    {
+      //Heap sort, moving the worst remaining value to the end each time.
+      for (int end = this.size - 1; end > 0; end--)
+      {
+        swap(0, end);
+        siftDown(0, end);
+      }
+
+      List<T> sorted = new ArrayList<>(this.size);
+      for (int i = 0; i < this.size; i++) sorted.add((T)this.values[i]);
+
+      return sorted;
+    }
+
+    private void grow()
+    {
+      int capacity = (int)Math.min(this.limit, this.values.length * 2L);
+      this.values = Arrays.copyOf(this.values, capacity);
+      this.positions = Arrays.copyOf(this.positions, capacity);
+    }
+
+    private void siftUp(int index)
+    {
+      while (index > 0)
+      {
+        int parent = (index - 1) >>> 1;
+        if (compare(parent, index) >= 0) return;
+
+        swap(parent, index);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index, int size)
+    {
+      while (true)
+      {
+        int child = 2 * index + 1;
+        if (child >= size) return;
+        if (child + 1 < size && compare(child + 1, child) > 0) child++;
+        if (compare(index, child) >= 0) return;
+
+        swap(index, child);
+        index = child;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(int index1, int index2)
+    {
+      return compare((T)this.values[index1], this.positions[index1], index2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(T value, int position, int index)
+    {
+      int comparison = this.order.compare(value, (T)this.values[index]);
+      return comparison != 0 ? comparison : Integer.compare(position, this.positions[index]);
+    }
+
+    private void swap(int index1, int index2)
+    {
+      Object value = this.values[index1];
+      this.values[index1] = this.values[index2];
+      this.values[index2] = value;
+
+      int position = this.positions[index1];
+      this.positions[index1] = this.positions[index2];
+      this.positions[index2] = position;
+    }
+  }
+
+  //Tracks the matches found by the leading chunks, once they have found enough there's no need to test the chunks after them.
+  private static class Cutoff
+  {
+    private final int[] counts;
+    private final boolean[] complete;
+    private final int limit;
+    private int next;
+    private int total;
+    private volatile int chunk = Integer.MAX_VALUE;
+
+    private Cutoff(int chunks, int limit)
+    {
+      this.counts = new int[chunks];
+      this.complete = new boolean[chunks];
+      this.limit = limit;
+    }
+
+    private boolean excludes(int chunk)
+    {
+      return chunk > this.chunk;
+    }
+
+    private synchronized void complete(int chunk, int count)
+    {
+      if (this.chunk != Integer.MAX_VALUE) return;
+
+      this.counts[chunk] = count;
+      this.complete[chunk] = true;
+
+      while (this.next < this.counts.length && this.complete[this.next])
+      {
+        this.total += this.counts[this.next];
+        if (this.total >= this.limit)
+        {
+          this.chunk = this.next;
+          return;
+        }
+
+        this.next++;
+      }
+    }
+  }
+}
@@ -0,0 +1,412 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+import com.tn.query.java.IntervalTree.Interval;
+
+/**
+ * Matches objects against many stored queries, only testing the queries that could match.
+ * <p>
+ * Each query is indexed by terms one of which must pass for the query to pass: an and by its most selective <code>=</code>, <code>∈</code> or range
+ * operand, an or by all of its operands.  <code>=</code> and <code>∈</code> terms are looked up by value, and range terms, with those on the same field
+ * of an and combined, in an interval tree per field.  Queries that can't be indexed, e.g. a single like, are tested against every object.
+ * <p>
+ * The predicates must come from a <code>JavaPredicateFactory</code> or <code>CompilingPredicateFactory</code> to be indexed.  A query that throws for an
+ * object, e.g. with a <code>QueryException</code>, doesn't match it.  Adding and removing queries rebuilds the indexes on the next <code>match</code>,
+ * which can be called from many threads at once.
+ */
+public class QueryMatcher<T>
+{
+  private final Map<String, Predicate<T>> queries = new LinkedHashMap<>();
+  private volatile Indexes<T> indexes;
+
+  public synchronized void add(String id, Predicate<T> query)
+  {
+    this.queries.put(id, query);
+    this.indexes = null;
+  }
+
+  public synchronized boolean remove(String id)
+  {
+    if (this.queries.remove(id) == null) return false;
+
+    this.indexes = null;
+    return true;
+  }
+
+  public synchronized int size()
+  {
+    return this.queries.size();
+  }
+
+  //Returns the ids of the queries matching the target, in the order they were added.
+  public List<String> match(T target)
+  {
+    Indexes<T> indexes = indexes();
+
+    List<String> matches = new ArrayList<>();
+    for (int query : indexes.candidates(target))
+    {
+      try
+      {
+        if (indexes.predicates[query].test(target)) matches.add(indexes.ids[query]);
+      }
+      catch (RuntimeException e)
+      {
+        //A query that can't be tested against the target doesn't match it.
+      }
+    }
+
+    return matches;
+  }
+
+  private Indexes<T> indexes()
+  {
+    Indexes<T> indexes = this.indexes;
+    if (indexes != null) return indexes;
+
+    synchronized (this)
+    {
+      if (this.indexes == null) this.indexes = new Indexes<>(this.queries);
+      return this.indexes;
+    }
+  }
+
+  //Returns conditions one of which must hold for the node to pass, or null if there are none that can be indexed.
+  private static <T> List<Condition<T>> conditions(Node<T> node)
+  {
+    if (node instanceof Term) return conditions((Term<T>)node);
+    if (node instanceof Junction) return ((Junction<T>)node).isAnd() ? andConditions((Junction<T>)node) : orConditions((Junction<T>)node);
+
+    return null;
+  }
+
+  private static <T> List<Condition<T>> conditions(Term<T> term)
+  {
+    switch (term.operator())
+    {
+      case EQUAL:
+        return List.of(new Condition<>(term.getter(), Collections.singletonList(term.value())));
+
+      case IN:
+        return List.of(new Condition<>(term.getter(), (List<?>)term.value()));
+
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        Bounds bounds = new Bounds();
+        return bounds.add(term) ? List.of(new Condition<>(term.getter(), bounds)) : null;
+
+      default:
+        return null;
+    }
+  }
+
+  private static <T> List<Condition<T>> andConditions(Junction<T> and)
+  {
+    //Only one operand needs indexing, so pick the one likely to give the fewest candidates, with the range terms on each field combined.
+    List<Condition<T>> best = null;
+    Map<Getter<T>, Bounds> ranges = new IdentityHashMap<>();
+
+    for (Predicate<T> operand : and.operands())
+    {
+      Node<T> node = Node.of(operand);
+      if (node instanceof Term && isRange(((Term<T>)node).operator()))
+      {
+        Term<T> term = (Term<T>)node;
+        if (ranges.computeIfAbsent(term.getter(), getter -> new Bounds()).add(term)) continue;
+      }
+
+      best = better(best, conditions(node));
+    }
+
+    for (Map.Entry<Getter<T>, Bounds> range : ranges.entrySet())
+    {
+      if (!range.getValue().isEmpty()) best = better(best, List.of(new Condition<>(range.getKey(), range.getValue())));
+    }
+
+    return best;
+  }
+
+  private static <T> List<Condition<T>> orConditions(Junction<T> or)
+  {
+    List<Condition<T>> conditions = new ArrayList<>();
+    for (Predicate<T> operand : or.operands())
+    {
+      List<Condition<T>> operandConditions = conditions(Node.of(operand));
+      if (operandConditions == null) return null;
+
+      conditions.addAll(operandConditions);
+    }
+
+    return conditions;
+  }
+
+  private static <T> List<Condition<T>> better(List<Condition<T>> conditions1, List<Condition<T>> conditions2)
+  {
+    if (conditions1 == null) return conditions2;
+    if (conditions2 == null) return conditions1;
+
+    return cost(conditions2) < cost(conditions1) ? conditions2 : conditions1;
+  }
+
+  //A rough estimate of the candidates given by the conditions: each value looked up is assumed to be selective, ranges less so.
+  private static int cost(List<? extends Condition<?>> conditions)
+  {
+    int cost = 0;
+    for (Condition<?> condition : conditions)
+    {
+      if (condition.values != null) cost += condition.values.size();
+      else cost += condition.bounds.from != null && condition.bounds.to != null ? 4 : 8;
+    }
+
+    return cost;
+  }
+
+  private static boolean isRange(Operator operator)
+  {
+    switch (operator)
+    {
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
+  private static class Condition<T>
+  {
+    private final Getter<T> getter;
+    private final List<?> values;
+    private final Bounds bounds;
+
+    private Condition(Getter<T> getter, List<?> values)
+    {
+      this.getter = getter;
+      this.values = values;
+      this.bounds = null;
+    }
+
+    private Condition(Getter<T> getter, Bounds bounds)
+    {
+      this.getter = getter;
+      this.values = null;
+      this.bounds = bounds;
+    }
+  }
+
+  //The tightest bounds of the range terms on a field, all of the same type.
+  private static class Bounds
+  {
+    private Object from;
+    private boolean fromInclusive;
+    private Object to;
+    private boolean toInclusive;
+
+    private boolean isEmpty()
+    {
+      return this.from == null && this.to == null;
+    }
+
+    //Returns false, leaving the bounds unchanged, if the term's value can't be combined with them.
+    @SuppressWarnings("unchecked")
+    private boolean add(Term<?> term)
+    {
+      Object value = term.value();
+      if (!(value instanceof Comparable)) return false;
+
+      Object bound = this.from != null ? this.from : this.to;
+      if (bound != null && bound.getClass() != value.getClass()) return false;
+
+      Comparable<Object> comparable = (Comparable<Object>)value;
+      switch (term.operator())
+      {
+        case GREATER_THAN:
+        case GREATER_THAN_OR_EQUAL:
+          boolean fromInclusive = term.operator() == Operator.GREATER_THAN_OR_EQUAL;
+          int fromComparison = this.from == null ? 1 : comparable.compareTo(this.from);
+          if (fromComparison > 0 || (fromComparison == 0 && !fromInclusive))
+          {
+            this.from = value;
+            this.fromInclusive = fromInclusive;
+          }
+          return true;
+
+        default:
+          boolean toInclusive = term.operator() == Operator.LESS_THAN_OR_EQUAL;
+          int toComparison = this.to == null ? -1 : comparable.compareTo(this.to);
+          if (toComparison < 0 || (toComparison == 0 && !toInclusive))
+          {
+            this.to = value;
+            this.toInclusive = toInclusive;
+          }
+          return true;
+      }
+    }
+
+    private Class<?> type()
+    {
+      return (this.from != null ? this.from : this.to).getClass();
+    }
+  }
+
+  private static class Indexes<T>
+  {
+    private final String[] ids;
+    private final Predicate<T>[] predicates;
+    private final Getter<T>[] getters;
+    private final FieldIndex[] fieldIndexes;
+    private final int[] unindexed;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Indexes(Map<String, Predicate<T>> queries)
+    {
+      this.ids = queries.keySet().toArray(new String[0]);
+      this.predicates = queries.values().toArray(new Predicate[0]);
+
+      Map<Getter<T>, FieldIndex> fieldIndexes = new IdentityHashMap<>();
+      List<Integer> unindexed = new ArrayList<>();
+      for (int query = 0; query < this.predicates.length; query++)
+      {
+        List<Condition<T>> conditions = conditions(Node.of(this.predicates[query]));
+        if (conditions == null)
+        {
+          unindexed.add(query);
+          continue;
+        }
+
+        for (Condition<T> condition : conditions) fieldIndexes.computeIfAbsent(condition.getter, getter -> new FieldIndex()).add(query, condition);
+      }
+
+      this.getters = fieldIndexes.keySet().toArray(new Getter[0]);
+      this.fieldIndexes = new FieldIndex[this.getters.length];
+      for (int i = 0; i < this.getters.length; i++) this.fieldIndexes[i] = fieldIndexes.get(this.getters[i]).build();
+      this.unindexed = unindexed.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    //Returns the queries that may match the target, in the order they were added.
+    private int[] candidates(T target)
+    {
+      Candidates candidates = new Candidates(this.unindexed);
+      for (int i = 0; i < this.getters.length; i++)
+      {
+        Object value;
+        try
+        {
+          value = this.getters[i].get(target);
+        }
+        catch (RuntimeException e)
+        {
+          //Any query depending on the field would throw, so can't match.
+          continue;
+        }
+
+        this.fieldIndexes[i].candidates(value, candidates);
+      }
+
+      return candidates.toArray();
+    }
+  }
+
+  private static class FieldIndex
+  {
+    private final Map<Object, List<Integer>> values = new HashMap<>();
+    private final Map<Class<?>, List<Interval>> ranges = new HashMap<>();
+    private Map<Object, int[]> valueIndex;
+    private Map<Class<?>, IntervalTree> rangeIndex;
+    private Map<Class<?>, int[]> rangeQueries;
+
+    private void add(int query, Condition<?> condition)
+    {
+      if (condition.values != null)
+      {
+        for (Object value : condition.values) this.values.computeIfAbsent(value, key -> new ArrayList<>()).add(query);
+        return;
+      }
+
+      Bounds bounds = condition.bounds;
+      this.ranges.computeIfAbsent(bounds.type(), type -> new ArrayList<>())
+        .add(new Interval(query, bounds.from, bounds.fromInclusive, bounds.to, bounds.toInclusive));
+    }
+
+    private FieldIndex build()
+    {
+      this.valueIndex = new HashMap<>();
+      this.values.forEach((value, queries) -> this.valueIndex.put(value, queries.stream().mapToInt(Integer::intValue).toArray()));
+
+      this.rangeIndex = new HashMap<>();
+      this.rangeQueries = new HashMap<>();
+      this.ranges.forEach(
+        (type, intervals) ->
+        {
+          this.rangeIndex.put(type, new IntervalTree(intervals));
+          this.rangeQueries.put(type, intervals.stream().mapToInt(Interval::id).toArray());
+        }
+      );
+
+      return this;
+    }
+
+    private void candidates(Object value, IntConsumer candidates)
+    {
+      int[] queries = this.valueIndex.get(value);
+      if (queries != null) Arrays.stream(queries).forEach(candidates);
+
+      //Comparing with null always throws.
+      if (value == null) return;
+
+      for (Map.Entry<Class<?>, IntervalTree> range : this.rangeIndex.entrySet())
+      {
+        //Bounds of another type can't be compared in the tree, so their queries are all candidates.
+        if (range.getKey() == value.getClass()) range.getValue().stab(value, candidates);
+        else Arrays.stream(this.rangeQueries.get(range.getKey())).forEach(candidates);
+      }
+    }
+  }
+
+  private static class Candidates implements IntConsumer
+  {
+    private int[] queries;
+    private int size;
+
+    private Candidates(int[] queries)
+    {
+      this.queries = Arrays.copyOf(queries, Math.max(16, queries.length * 2));
+      this.size = queries.length;
+    }
+
+    @Override
+    public void accept(int query)
+    {
+      if (this.size == this.queries.length) this.queries = Arrays.copyOf(this.queries, this.size * 2);
+      this.queries[this.size++] = query;
+    }
+
+    private int[] toArray()
+    {
+      Arrays.sort(this.queries, 0, this.size);
+
+      int distinct = 0;
+      for (int i = 0; i < this.size; i++)
+      {
+        if (distinct == 0 || this.queries[i] != this.queries[distinct - 1]) this.queries[distinct++] = this.queries[i];
+      }
+
+      return Arrays.copyOf(this.queries, distinct);
+    }
+  }
+}
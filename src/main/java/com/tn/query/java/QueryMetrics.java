@@ -0,0 +1,121 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Collects the metrics of the predicates built by an <code>InstrumentingPredicateFactory</code>, one <code>NodeMetrics</code> per field and operator.
+ * Every test is counted and 1 in <code>sampleRate</code> is timed.
+ * <p>
+ * The metrics are available from <code>nodes()</code>, pushed to <code>QueryMetricsListener</code>s and can be published over JMX:
+ * <pre>
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(queryMetrics, new ObjectName("com.tn.query:type=QueryMetrics,name=people"));
+ * </pre>
+ */
+public class QueryMetrics implements QueryMetricsMXBean
+{
+  private static final int DEFAULT_SAMPLE_RATE = 64;
+
+  private final int sampleRate;
+  private final Map<String, NodeMetrics> nodes = new ConcurrentHashMap<>();
+  private final List<QueryMetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+  public QueryMetrics()
+  {
+    this(DEFAULT_SAMPLE_RATE);
+  }
+
+  public QueryMetrics(int sampleRate)
+  {
+    if (sampleRate <= 0) throw new IllegalArgumentException("Sample rate must be greater than zero, received: " + sampleRate);
+
+    this.sampleRate = sampleRate;
+  }
+
+  public void addListener(QueryMetricsListener listener)
+  {
+    this.listeners.add(listener);
+  }
+
+  public void removeListener(QueryMetricsListener listener)
+  {
+    this.listeners.remove(listener);
+  }
+
+  public List<NodeMetrics> nodes()
+  {
+    return new ArrayList<>(this.nodes.values());
+  }
+
+  @Override
+  public Map<String, Long> getInvocations()
+  {
+    return attribute(NodeMetrics::invocations);
+  }
+
+  @Override
+  public Map<String, Long> getFailures()
+  {
+    return attribute(NodeMetrics::failures);
+  }
+
+  @Override
+  public Map<String, Double> getPassRates()
+  {
+    return attribute(NodeMetrics::passRate);
+  }
+
+  @Override
+  public Map<String, Double> getMeanNanos()
+  {
+    return attribute(NodeMetrics::meanNanos);
+  }
+
+  @Override
+  public Map<String, Long> getMaxNanos()
+  {
+    return attribute(NodeMetrics::maxNanos);
+  }
+
+  @Override
+  public void reset()
+  {
+    this.nodes.values().forEach(NodeMetrics::reset);
+  }
+
+  <T> Predicate<T> instrument(String field, String operator, Predicate<T> predicate)
+  {
+    NodeMetrics node = this.nodes.computeIfAbsent(field != null ? field + " " + operator : operator, name -> new NodeMetrics(field, operator));
+    return new InstrumentedPredicate<>(this, node, predicate);
+  }
+
+  int sampleRate()
+  {
+    return this.sampleRate;
+  }
+
+  void sampled(NodeMetrics node, long nanos)
+  {
+    node.sample(nanos);
+    for (QueryMetricsListener listener : this.listeners) listener.sampled(node, nanos);
+  }
+
+  void failed(NodeMetrics node, RuntimeException exception)
+  {
+    node.fail();
+    for (QueryMetricsListener listener : this.listeners) listener.failed(node, exception);
+  }
+
+  private <V> Map<String, V> attribute(Function<NodeMetrics, V> value)
+  {
+    return this.nodes.values().stream().collect(toMap(NodeMetrics::name, value, (value1, value2) -> value1, TreeMap::new));
+  }
+}
@@ -0,0 +1,13 @@
+package com.tn.query.java;
+
+/**
+ * Receives the sampled latencies and failures of the nodes of instrumented queries as they happen.  Listeners are called on the thread testing the
+ * predicate, so should return quickly.
+ */
+public interface QueryMetricsListener
+{
+  default void sampled(NodeMetrics node, long nanos) {}
+
+  //Called for each node the exception passes through, starting with the term that threw it.
+  default void failed(NodeMetrics node, RuntimeException exception) {}
+}
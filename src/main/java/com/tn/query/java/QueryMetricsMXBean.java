@@ -0,0 +1,21 @@
+package com.tn.query.java;
+
+import java.util.Map;
+
+/**
+ * The JMX view of <code>QueryMetrics</code>, each attribute keyed by node name, e.g. <code>age GREATER_THAN</code> or <code>AND</code>.
+ */
+public interface QueryMetricsMXBean
+{
+  Map<String, Long> getInvocations();
+
+  Map<String, Long> getFailures();
+
+  Map<String, Double> getPassRates();
+
+  Map<String, Double> getMeanNanos();
+
+  Map<String, Long> getMaxNanos();
+
+  void reset();
+}
@@ -0,0 +1,254 @@
+package com.tn.query.java;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * A <code>Flow.Processor</code> passing on the items that match a predicate, up to an optional limit, to a single subscriber.
+ * <p>
+ * Items are only requested from the publisher as the subscriber requests them, and items that don't match are replaced by requesting more, in batches
+ * rather than one at a time.  Once the limit is reached the publisher's subscription is cancelled and the subscriber completed, and a predicate that
+ * throws cancels the subscription and fails the subscriber.
+ */
+public class QueryProcessor<T> implements Flow.Processor<T, T>
+{
+  static final int BATCH_SIZE = 256;
+
+  private final Predicate<T> predicate;
+  private final long limit;
+  private final AtomicLong outstanding = new AtomicLong();
+  private volatile Flow.Subscription upstream;
+  private volatile Flow.Subscriber<? super T> downstream;
+  private volatile boolean done;
+  private boolean subscribed;
+  private long pending;
+  private Throwable failure;
+  private boolean complete;
+  private long emitted;
+  private long dropped;
+
+  public QueryProcessor(Predicate<T> predicate)
+  {
+    this(predicate, Long.MAX_VALUE);
+  }
+
+  public QueryProcessor(Predicate<T> predicate, long limit)
+  {
+    if (limit < 0) throw new IllegalArgumentException("Limit must not be negative, received: " + limit);
+
+    this.predicate = predicate;
+    this.limit = limit;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber)
+  {
+    boolean subscribed;
+    synchronized (this)
+    {
+      subscribed = this.downstream != null;
+      if (!subscribed) this.downstream = subscriber;
+    }
+
+    if (subscribed)
+    {
+      subscriber.onSubscribe(new Subscription(false));
+      subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+      return;
+    }
+
+    subscriber.onSubscribe(new Subscription(true));
+
+    Throwable failure;
+    boolean complete;
+    synchronized (this)
+    {
+      //The publisher may have finished before there was a subscriber to tell, or while it was being subscribed.
+      this.subscribed = true;
+      failure = this.failure;
+      complete = this.complete || this.limit == 0;
+    }
+
+    if (failure != null) fail(failure);
+    else if (complete) complete();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription)
+  {
+    long pending;
+    synchronized (this)
+    {
+      if (this.upstream != null || this.done)
+      {
+        subscription.cancel();
+        return;
+      }
+
+      this.upstream = subscription;
+      pending = this.pending;
+      this.pending = 0;
+    }
+
+    if (pending > 0) requestUpstream(pending);
+  }
+
+  @Override
+  public void onNext(T item)
+  {
+    if (this.done) return;
+
+    this.outstanding.decrementAndGet();
+
+    boolean matches;
+    try
+    {
+      matches = this.predicate.test(item);
+    }
+    catch (RuntimeException e)
+    {
+      fail(e);
+      return;
+    }
+
+    if (matches)
+    {
+      this.downstream.onNext(item);
+      if (++this.emitted == this.limit)
+      {
+        complete();
+        return;
+      }
+    }
+    else
+    {
+      this.dropped++;
+    }
+
+    //The dropped items are replaced so that the subscriber's demand is still met, once enough have been dropped or nothing else is on its way.
+    if (this.dropped > 0 && (this.dropped >= BATCH_SIZE || this.outstanding.get() == 0))
+    {
+      long dropped = this.dropped;
+      this.dropped = 0;
+      requestUpstream(dropped);
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable)
+  {
+    synchronized (this)
+    {
+      if (!this.subscribed)
+      {
+        this.failure = throwable;
+        return;
+      }
+    }
+
+    fail(throwable);
+  }
+
+  @Override
+  public void onComplete()
+  {
+    synchronized (this)
+    {
+      if (!this.subscribed)
+      {
+        this.complete = true;
+        return;
+      }
+    }
+
+    complete();
+  }
+
+  private void request(long n)
+  {
+    if (this.done) return;
+    if (n <= 0)
+    {
+      fail(new IllegalArgumentException("Requests must be positive, received: " + n));
+      return;
+    }
+
+    synchronized (this)
+    {
+      if (this.upstream == null)
+      {
+        this.pending = add(this.pending, n);
+        return;
+      }
+    }
+
+    requestUpstream(n);
+  }
+
+  private void requestUpstream(long n)
+  {
+    this.outstanding.accumulateAndGet(n, QueryProcessor::add);
+    this.upstream.request(n);
+  }
+
+  private void complete()
+  {
+    if (!finish()) return;
+
+    cancelUpstream();
+    this.downstream.onComplete();
+  }
+
+  private void fail(Throwable throwable)
+  {
+    if (!finish()) return;
+
+    cancelUpstream();
+    this.downstream.onError(throwable);
+  }
+
+  //Only the first of completing, failing or cancelling takes effect.
+  private synchronized boolean finish()
+  {
+    if (this.done) return false;
+
+    this.done = true;
+    return true;
+  }
+
+  private void cancelUpstream()
+  {
+    Flow.Subscription upstream = this.upstream;
+    if (upstream != null) upstream.cancel();
+  }
+
+  //Demand is capped rather than overflowing, Long.MAX_VALUE meaning there's no limit.
+  private static long add(long demand, long n)
+  {
+    long sum = demand + n;
+    return sum < 0 ? Long.MAX_VALUE : sum;
+  }
+
+  private class Subscription implements Flow.Subscription
+  {
+    private final boolean active;
+
+    private Subscription(boolean active)
+    {
+      this.active = active;
+    }
+
+    @Override
+    public void request(long n)
+    {
+      if (this.active) QueryProcessor.this.request(n);
+    }
+
+    @Override
+    public void cancel()
+    {
+      if (this.active && finish()) cancelUpstream();
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Applies predicates to objects as they're read from an <code>Iterator</code>, <code>Spliterator</code> or <code>Flow.Publisher</code>, so that only the
+ * matches, rather than all the objects, are ever held in memory.  <code>first</code> and <code>exists</code> stop reading as soon as their result is
+ * known.
+ */
+public final class QueryStreams
+{
+  private QueryStreams() {}
+
+  /**
+   * Returns an iterator over the objects from <code>iterator</code> that match the predicate, reading no further ahead than the next match.
+   */
+  public static <T> Iterator<T> filter(Iterator<T> iterator, Predicate<T> predicate)
+  {
+    return new Iterator<>()
+    {
+      private T next;
+      private boolean hasNext;
+
+      @Override
+      public boolean hasNext()
+      {
+        while (!this.hasNext && iterator.hasNext())
+        {
+          T target = iterator.next();
+          if (predicate.test(target))
+          {
+            this.next = target;
+            this.hasNext = true;
+          }
+        }
+
+        return this.hasNext;
+      }
+
+      @Override
+      public T next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        T next = this.next;
+        this.next = null;
+        this.hasNext = false;
+
+        return next;
+      }
+    };
+  }
+
+  public static <T> Iterator<T> filter(Iterator<T> iterator, Predicate<T> predicate, int limit)
+  {
+    if (limit < 0) throw new IllegalArgumentException("Limit must not be negative, received: " + limit);
+
+    Iterator<T> matches = filter(iterator, predicate);
+    return new Iterator<>()
+    {
+      private int count;
+
+      @Override
+      public boolean hasNext()
+      {
+        return this.count < limit && matches.hasNext();
+      }
+
+      @Override
+      public T next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        this.count++;
+        return matches.next();
+      }
+    };
+  }
+
+  /**
+   * Returns a spliterator over the objects from <code>spliterator</code> that match the predicate, which splits as <code>spliterator</code> does so can
+   * be used for parallel streams.
+   */
+  public static <T> Spliterator<T> filter(Spliterator<T> spliterator, Predicate<T> predicate)
+  {
+    return new FilteringSpliterator<>(spliterator, predicate);
+  }
+
+  public static <T> List<T> first(Iterator<T> iterator, Predicate<T> predicate, int limit)
+  {
+    List<T> first = new ArrayList<>();
+    filter(iterator, predicate, limit).forEachRemaining(first::add);
+
+    return first;
+  }
+
+  public static <T> boolean exists(Iterator<T> iterator, Predicate<T> predicate)
+  {
+    return filter(iterator, predicate).hasNext();
+  }
+
+  public static <T> long count(Iterator<T> iterator, Predicate<T> predicate)
+  {
+    long count = 0;
+    while (iterator.hasNext())
+    {
+      if (predicate.test(iterator.next())) count++;
+    }
+
+    return count;
+  }
+
+  /**
+   * Returns a publisher of the items from <code>publisher</code> that match the predicate, see <code>QueryProcessor</code>.
+   */
+  public static <T> Flow.Publisher<T> filter(Flow.Publisher<T> publisher, Predicate<T> predicate)
+  {
+    return filter(publisher, predicate, Long.MAX_VALUE);
+  }
+
+  public static <T> Flow.Publisher<T> filter(Flow.Publisher<T> publisher, Predicate<T> predicate, long limit)
+  {
+    QueryProcessor<T> processor = new QueryProcessor<>(predicate, limit);
+    publisher.subscribe(processor);
+
+    return processor;
+  }
+
+  /**
+   * Completes with the first matches from <code>publisher</code>, cancelling its subscription once <code>limit</code> have been found.  Items are
+   * requested in batches, so that no more than a batch is ever outstanding.
+   */
+  public static <T> CompletableFuture<List<T>> first(Flow.Publisher<T> publisher, Predicate<T> predicate, int limit)
+  {
+    List<T> first = new ArrayList<>();
+    CompletableFuture<List<T>> result = new CompletableFuture<>();
+    filter(publisher, predicate, limit).subscribe(new BatchSubscriber<>(first::add, () -> result.complete(first), result::completeExceptionally));
+
+    return result;
+  }
+
+  public static <T> CompletableFuture<Boolean> exists(Flow.Publisher<T> publisher, Predicate<T> predicate)
+  {
+    return first(publisher, predicate, 1).thenApply(first -> !first.isEmpty());
+  }
+
+  public static <T> CompletableFuture<Long> count(Flow.Publisher<T> publisher, Predicate<T> predicate)
+  {
+    long[] count = new long[1];
+    CompletableFuture<Long> result = new CompletableFuture<>();
+    filter(publisher, predicate).subscribe(new BatchSubscriber<>(target -> count[0]++, () -> result.complete(count[0]), result::completeExceptionally));
+
+    return result;
+  }
+
+  private static class FilteringSpliterator<T> implements Spliterator<T>
+  {
+    private final Spliterator<T> spliterator;
+    private final Predicate<T> predicate;
+    private final Consumer<T> match = this::match;
+    private T next;
+    private boolean matched;
+
+    private FilteringSpliterator(Spliterator<T> spliterator, Predicate<T> predicate)
+    {
+      this.spliterator = spliterator;
+      this.predicate = predicate;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action)
+    {
+      while (!this.matched)
+      {
+        if (!this.spliterator.tryAdvance(this.match)) return false;
+      }
+
+      T next = this.next;
+      this.next = null;
+      this.matched = false;
+      action.accept(next);
+
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action)
+    {
+      this.spliterator.forEachRemaining(target -> { if (this.predicate.test(target)) action.accept(target); });
+    }
+
+    @Override
+    public Spliterator<T> trySplit()
+    {
+      Spliterator<T> split = this.spliterator.trySplit();
+      return split != null ? new FilteringSpliterator<>(split, this.predicate) : null;
+    }
+
+    @Override
+    public long estimateSize()
+    {
+      return this.spliterator.estimateSize();
+    }
+
+    @Override
+    public int characteristics()
+    {
+      return this.spliterator.characteristics() & ~(SIZED | SUBSIZED);
+    }
+
+    private void match(T target)
+    {
+      if (!this.predicate.test(target)) return;
+
+      this.next = target;
+      this.matched = true;
+    }
+  }
+
+  private static class BatchSubscriber<T> implements Flow.Subscriber<T>
+  {
+    private final Consumer<T> onNext;
+    private final Runnable onComplete;
+    private final Consumer<Throwable> onError;
+    private Flow.Subscription subscription;
+    private int remaining;
+
+    private BatchSubscriber(Consumer<T> onNext, Runnable onComplete, Consumer<Throwable> onError)
+    {
+      this.onNext = onNext;
+      this.onComplete = onComplete;
+      this.onError = onError;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription)
+    {
+      this.subscription = subscription;
+      this.remaining = QueryProcessor.BATCH_SIZE;
+      subscription.request(QueryProcessor.BATCH_SIZE);
+    }
+
+    @Override
+    public void onNext(T item)
+    {
+      this.onNext.accept(item);
+      if (--this.remaining == 0)
+      {
+        this.remaining = QueryProcessor.BATCH_SIZE;
+        this.subscription.request(QueryProcessor.BATCH_SIZE);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable)
+    {
+      this.onError.accept(throwable);
+    }
+
+    @Override
+    public void onComplete()
+    {
+      this.onComplete.run();
+    }
+  }
+}
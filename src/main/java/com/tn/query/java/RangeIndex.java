@@ -0,0 +1,135 @@
+package com.tn.query.java;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.tn.query.QueryException;
+
+final class RangeIndex<T> implements Index<T>
+{
+  private final Getter<T> getter;
+  private final NavigableMap<Object, Set<T>> elements = new TreeMap<>();
+  private final Set<T> nulls = new HashSet<>();
+
+  RangeIndex(Getter<T> getter)
+  {
+    this.getter = getter;
+  }
+
+  @Override
+  public void add(T element)
+  {
+    Object key = this.getter.get(element);
+    if (key == null) this.nulls.add(element);
+    else if (!(key instanceof Comparable)) throw new QueryException("Cannot index: " + key);
+    else
+    {
+      try
+      {
+        this.elements.computeIfAbsent(key, k -> new HashSet<>()).add(element);
+      }
+      catch (ClassCastException e)
+      {
+        throw new QueryException("Type mismatch indexing " + this.getter.name() + ": " + key);
+      }
+    }
+  }
+
+  @Override
+  public void remove(T element)
+  {
+    Object key = this.getter.get(element);
+    if (key == null)
+    {
+      this.nulls.remove(element);
+      return;
+    }
+
+    Set<T> elements = this.elements.get(key);
+    if (elements != null && elements.remove(element) && elements.isEmpty()) this.elements.remove(key);
+  }
+
+  @Override
+  public void clear()
+  {
+    this.elements.clear();
+    this.nulls.clear();
+  }
+
+  @Override
+  public Set<T> candidates(Term<T> term)
+  {
+    Object value = term.value();
+
+    try
+    {
+      switch (term.operator())
+      {
+        case EQUAL: return value == null ? this.nulls : this.elements.getOrDefault(value, Set.of());
+        case IN: return in((Collection<?>)value);
+        case GREATER_THAN: return range(value, false, null, false);
+        case GREATER_THAN_OR_EQUAL: return range(value, true, null, false);
+        case LESS_THAN: return range(null, false, value, false);
+        case LESS_THAN_OR_EQUAL: return range(null, false, value, true);
+        default: return null;
+      }
+    }
+    catch (ClassCastException | NullPointerException e)
+    {
+      //The value can't be compared to the indexed values, leave it to the predicate to report.
+      return null;
+    }
+  }
+
+  Set<T> range(Object from, boolean fromInclusive, Object to, boolean toInclusive)
+  {
+    //Comparing a null throws a QueryException, so leave any range that would include nulls to the predicate.
+    if (!this.nulls.isEmpty()) return null;
+
+    try
+    {
+      NavigableMap<Object, Set<T>> range = this.elements;
+      if (from != null && to != null) range = range.subMap(from, fromInclusive, to, toInclusive);
+      else if (from != null) range = range.tailMap(from, fromInclusive);
+      else if (to != null) range = range.headMap(to, toInclusive);
+
+      return union(range);
+    }
+    catch (IllegalArgumentException e)
+    {
+      //From is greater than to.
+      return Set.of();
+    }
+    catch (ClassCastException | NullPointerException e)
+    {
+      //The bounds can't be compared to the indexed values, leave it to the predicate to report.
+      return null;
+    }
+  }
+
+  private Set<T> in(Collection<?> values)
+  {
+    Set<T> candidates = new HashSet<>();
+    for (Object value : values)
+    {
+      candidates.addAll(value == null ? this.nulls : this.elements.getOrDefault(value, Set.of()));
+    }
+
+    return candidates;
+  }
+
+  private Set<T> union(Map<Object, Set<T>> range)
+  {
+    Set<T> candidates = new HashSet<>();
+    for (Set<T> elements : range.values())
+    {
+      candidates.addAll(elements);
+    }
+
+    return candidates;
+  }
+}
@@ -0,0 +1,83 @@
+package com.tn.query.java;
+
+import java.nio.ByteBuffer;
+
+import com.tn.query.java.RecordLayout.Field;
+import com.tn.query.java.RecordLayout.Type;
+
+/**
+ * A position in a <code>RecordStore</code>, reading and writing the fields of the record there directly in the store's memory.  The getters from
+ * <code>RecordStore.getters</code> read from cursors, which the store moves from record to record rather than creating one for each.
+ */
+public class RecordCursor
+{
+  private final RecordStore store;
+  private ByteBuffer page;
+  private int offset;
+  private long index;
+
+  RecordCursor(RecordStore store)
+  {
+    this.store = store;
+  }
+
+  public long index()
+  {
+    return this.index;
+  }
+
+  public int getInt(String field)
+  {
+    return this.page.getInt(this.offset + this.store.field(field, Type.INT).offset());
+  }
+
+  public long getLong(String field)
+  {
+    return this.page.getLong(this.offset + this.store.field(field, Type.LONG).offset());
+  }
+
+  public double getDouble(String field)
+  {
+    return this.page.getDouble(this.offset + this.store.field(field, Type.DOUBLE).offset());
+  }
+
+  public RecordCursor putInt(String field, int value)
+  {
+    this.page.putInt(this.offset + this.store.field(field, Type.INT).offset(), value);
+    return this;
+  }
+
+  public RecordCursor putLong(String field, long value)
+  {
+    this.page.putLong(this.offset + this.store.field(field, Type.LONG).offset(), value);
+    return this;
+  }
+
+  public RecordCursor putDouble(String field, double value)
+  {
+    this.page.putDouble(this.offset + this.store.field(field, Type.DOUBLE).offset(), value);
+    return this;
+  }
+
+  int getInt(Field field)
+  {
+    return this.page.getInt(this.offset + field.offset());
+  }
+
+  long getLong(Field field)
+  {
+    return this.page.getLong(this.offset + field.offset());
+  }
+
+  double getDouble(Field field)
+  {
+    return this.page.getDouble(this.offset + field.offset());
+  }
+
+  void moveTo(ByteBuffer page, int offset, long index)
+  {
+    this.page = page;
+    this.offset = offset;
+    this.index = index;
+  }
+}
@@ -0,0 +1,110 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields of the fixed-size records in a <code>RecordStore</code>, each <code>int</code>, <code>long</code> or <code>double</code> field at an offset
+ * aligned to its size:
+ * <pre>
+ * RecordLayout layout = new RecordLayout().withInt("id").withLong("timestamp").withDouble("price");
+ * </pre>
+ * A layout must not change once a store has been created with it.
+ */
+public class RecordLayout
+{
+  private final Map<String, Field> fields = new LinkedHashMap<>();
+  private int size;
+
+  public RecordLayout withInt(String name)
+  {
+    return with(name, Type.INT);
+  }
+
+  public RecordLayout withLong(String name)
+  {
+    return with(name, Type.LONG);
+  }
+
+  public RecordLayout withDouble(String name)
+  {
+    return with(name, Type.DOUBLE);
+  }
+
+  /**
+   * Returns the size of each record in bytes, padded so that every record in a store is aligned.
+   */
+  public int size()
+  {
+    return (this.size + Long.BYTES - 1) & -Long.BYTES;
+  }
+
+  List<Field> fields()
+  {
+    return new ArrayList<>(this.fields.values());
+  }
+
+  //Identifies the layout in a store's file, so that a file can't be read with a different layout.
+  String descriptor()
+  {
+    return this.fields.values().stream().map(field -> field.name + ":" + field.type + "@" + field.offset).collect(joining(","));
+  }
+
+  private RecordLayout with(String name, Type type)
+  {
+    if (this.fields.containsKey(name)) throw new IllegalArgumentException("Duplicate field: " + name);
+
+    int offset = (this.size + type.size - 1) & -type.size;
+    this.fields.put(name, new Field(name, type, offset));
+    this.size = offset + type.size;
+
+    return this;
+  }
+
+  enum Type
+  {
+    INT(Integer.BYTES),
+    LONG(Long.BYTES),
+    DOUBLE(Double.BYTES);
+
+    private final int size;
+
+    Type(int size)
+    {
+      this.size = size;
+    }
+  }
+
+  static final class Field
+  {
+    private final String name;
+    private final Type type;
+    private final int offset;
+
+    private Field(String name, Type type, int offset)
+    {
+      this.name = name;
+      this.type = type;
+      this.offset = offset;
+    }
+
+    String name()
+    {
+      return this.name;
+    }
+
+    Type type()
+    {
+      return this.type;
+    }
+
+    int offset()
+    {
+      return this.offset;
+    }
+  }
+}
@@ -0,0 +1,299 @@
+package com.tn.query.java;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import com.tn.query.java.RecordLayout.Field;
+import com.tn.query.java.RecordLayout.Type;
+
+/**
+ * Fixed-size records kept off the heap, in direct buffers or in a memory-mapped file, and queried in place.  The getters from <code>getters</code> read
+ * primitives straight from the store's memory, so predicates from a <code>JavaPredicateFactory</code> built with them test the records without copying
+ * or boxing:
+ * <pre>
+ * RecordStore store = RecordStore.open(path, layout);
+ * QueryParser&lt;Predicate&lt;RecordCursor&gt;&gt; queryParser = new DefaultQueryParser&lt;&gt;(new JavaPredicateFactory&lt;&gt;(store.getters()), mappers);
+ * long[] matches = store.filter(queryParser.parse("price &gt; 100.0"));
+ * </pre>
+ * Records are held in pages of up to 16MB, so a store isn't limited to the 2GB of a single buffer.  A mapped store keeps the number of records in a
+ * header at the start of the file, so reopening it maps the records rather than reading them.  Memory is released when the store is garbage collected.
+ * Like the standard collections it is not thread-safe.
+ */
+public class RecordStore implements Closeable
+{
+  static final int PAGE_SIZE = 1 << 24;
+
+  private static final int HEADER_SIZE = 64;
+  private static final int MAGIC = 0x54515253;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int RECORD_SIZE_OFFSET = 4;
+  private static final int LAYOUT_OFFSET = 8;
+  private static final int SIZE_OFFSET = 16;
+
+  private final Map<String, Field> fields;
+  private final int recordSize;
+  private final int recordsPerPage;
+  private final FileChannel channel;
+  private final ByteBuffer header;
+  private final List<ByteBuffer> pages = new ArrayList<>();
+  private long size;
+
+  private RecordStore(RecordLayout layout, FileChannel channel, ByteBuffer header, int pageSize)
+  {
+    this.fields = layout.fields().stream().collect(toMap(Field::name, identity(), (field1, field2) -> field1, LinkedHashMap::new));
+    this.recordSize = layout.size();
+    this.recordsPerPage = pageSize / layout.size();
+    this.channel = channel;
+    this.header = header;
+    this.size = header != null ? header.getLong(SIZE_OFFSET) : 0;
+
+    for (long page = 0; page * this.recordsPerPage < this.size; page++) this.pages.add(page((int)page));
+  }
+
+  /**
+   * Returns a store holding its records in direct buffers.
+   */
+  public static RecordStore create(RecordLayout layout)
+  {
+    return create(layout, PAGE_SIZE);
+  }
+
+  /**
+   * Returns a store holding its records in the file at <code>path</code>, which is created if it doesn't exist.
+   */
+  public static RecordStore open(Path path, RecordLayout layout) throws IOException
+  {
+    return open(path, layout, PAGE_SIZE);
+  }
+
+  static RecordStore create(RecordLayout layout, int pageSize)
+  {
+    checkLayout(layout, pageSize);
+
+    return new RecordStore(layout, null, null, pageSize);
+  }
+
+  static RecordStore open(Path path, RecordLayout layout, int pageSize) throws IOException
+  {
+    checkLayout(layout, pageSize);
+
+    FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+    try
+    {
+      return new RecordStore(layout, channel, header(channel, layout), pageSize);
+    }
+    catch (IOException | RuntimeException e)
+    {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns getters reading each field of the layout from a <code>RecordCursor</code>, as primitive getters.
+   */
+  public List<Getter<RecordCursor>> getters()
+  {
+    List<Getter<RecordCursor>> getters = new ArrayList<>();
+    for (Field field : this.fields.values())
+    {
+      switch (field.type())
+      {
+        case INT: getters.add(Getter.intPrimitive(field.name(), cursor -> cursor.getInt(field))); break;
+        case LONG: getters.add(Getter.longPrimitive(field.name(), cursor -> cursor.getLong(field))); break;
+        default: getters.add(Getter.doublePrimitive(field.name(), cursor -> cursor.getDouble(field)));
+      }
+    }
+
+    return getters;
+  }
+
+  /**
+   * Adds a record with every field zero, returning a cursor at the new record to set its fields.
+   */
+  public RecordCursor add()
+  {
+    if (this.size % this.recordsPerPage == 0) this.pages.add(page(this.pages.size()));
+
+    this.size++;
+    if (this.header != null) this.header.putLong(SIZE_OFFSET, this.size);
+
+    return cursor(this.size - 1);
+  }
+
+  public RecordCursor cursor(long index)
+  {
+    if (index < 0 || index >= this.size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + this.size);
+
+    RecordCursor cursor = new RecordCursor(this);
+    cursor.moveTo(this.pages.get((int)(index / this.recordsPerPage)), (int)(index % this.recordsPerPage) * this.recordSize, index);
+
+    return cursor;
+  }
+
+  /**
+   * Returns the indexes of the records matching the predicate, in order.
+   */
+  public long[] filter(Predicate<RecordCursor> predicate)
+  {
+    return first(predicate, Integer.MAX_VALUE);
+  }
+
+  public long[] first(Predicate<RecordCursor> predicate, int limit)
+  {
+    if (limit < 0) throw new IllegalArgumentException("Limit must not be negative, received: " + limit);
+
+    Matches matches = new Matches(limit);
+    if (limit > 0) scan(predicate, matches);
+
+    return matches.indexes();
+  }
+
+  public long count(Predicate<RecordCursor> predicate)
+  {
+    return scan(predicate, index -> true);
+  }
+
+  public long size()
+  {
+    return this.size;
+  }
+
+  /**
+   * Writes a mapped store's records to its file and closes the file.  The store must not be used afterwards.
+   */
+  @Override
+  public void close() throws IOException
+  {
+    if (this.channel == null) return;
+
+    for (ByteBuffer page : this.pages) ((MappedByteBuffer)page).force();
+    ((MappedByteBuffer)this.header).force();
+    this.channel.close();
+  }
+
+  Field field(String name, Type type)
+  {
+    Field field = this.fields.get(name);
+    if (field == null || field.type() != type) throw new IllegalArgumentException("No " + type.name().toLowerCase(Locale.ROOT) + " field: " + name);
+
+    return field;
+  }
+
+  //Tests each record in turn with the one cursor, passing the matches on until they're no longer wanted, and returns the number of matches.
+  private long scan(Predicate<RecordCursor> predicate, LongPredicate match)
+  {
+    RecordCursor cursor = new RecordCursor(this);
+    long matches = 0;
+    long index = 0;
+    for (ByteBuffer page : this.pages)
+    {
+      int records = (int)Math.min(this.recordsPerPage, this.size - index);
+      for (int record = 0, offset = 0; record < records; record++, offset += this.recordSize, index++)
+      {
+        cursor.moveTo(page, offset, index);
+        if (!predicate.test(cursor)) continue;
+
+        matches++;
+        if (!match.test(index)) return matches;
+      }
+    }
+
+    return matches;
+  }
+
+  private ByteBuffer page(int page)
+  {
+    int pageSize = this.recordsPerPage * this.recordSize;
+    try
+    {
+      ByteBuffer buffer = this.channel != null
+        ? this.channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + (long)page * pageSize, pageSize)
+        : ByteBuffer.allocateDirect(pageSize);
+
+      //The records in a file are the same wherever it's read.
+      return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void checkLayout(RecordLayout layout, int pageSize)
+  {
+    if (layout.size() == 0) throw new IllegalArgumentException("Layout has no fields");
+    if (layout.size() > pageSize) throw new IllegalArgumentException("Records are larger than a page: " + layout.size());
+  }
+
+  private static ByteBuffer header(FileChannel channel, RecordLayout layout) throws IOException
+  {
+    boolean created = channel.size() == 0;
+    ByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    int layoutHash = layout.descriptor().hashCode();
+
+    if (created)
+    {
+      header.putInt(MAGIC_OFFSET, MAGIC);
+      header.putInt(RECORD_SIZE_OFFSET, layout.size());
+      header.putInt(LAYOUT_OFFSET, layoutHash);
+      header.putLong(SIZE_OFFSET, 0);
+    }
+    else
+    {
+      if (header.getInt(MAGIC_OFFSET) != MAGIC) throw new IOException("Not a record store file");
+      if (header.getInt(RECORD_SIZE_OFFSET) != layout.size() || header.getInt(LAYOUT_OFFSET) != layoutHash)
+      {
+        throw new IllegalArgumentException("The file's records don't have the layout: " + layout.descriptor());
+      }
+    }
+
+    return header;
+  }
+
+  private static class Matches implements LongPredicate
+  {
+    private final int limit;
+    private long[] indexes = new long[16];
+    private int count;
+
+    private Matches(int limit)
+    {
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean test(long index)
+    {
+      if (this.count == this.indexes.length) this.indexes = Arrays.copyOf(this.indexes, this.count * 2);
+
+      this.indexes[this.count++] = index;
+      return this.count < this.limit;
+    }
+
+    private long[] indexes()
+    {
+      return Arrays.copyOf(this.indexes, this.count);
+    }
+  }
+}
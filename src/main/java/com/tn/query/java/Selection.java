@@ -0,0 +1,112 @@
+package com.tn.query.java;
+
+/*
+ * A fixed size bitmap of row numbers, combined in place a word at a time.
+ */
+final class Selection
+{
+  private final long[] words;
+  private final int size;
+
+  Selection(int size)
+  {
+    this.words = new long[(size + 63) >>> 6];
+    this.size = size;
+  }
+
+  int size()
+  {
+    return this.size;
+  }
+
+  long[] words()
+  {
+    return this.words;
+  }
+
+  boolean get(int row)
+  {
+    return (this.words[row >>> 6] & 1L << row) != 0;
+  }
+
+  void set(int row)
+  {
+    this.words[row >>> 6] |= 1L << row;
+  }
+
+  Selection and(Selection selection)
+  {
+    for (int i = 0; i < this.words.length; i++) this.words[i] &= selection.words[i];
+    return this;
+  }
+
+  Selection andNot(Selection selection)
+  {
+    for (int i = 0; i < this.words.length; i++) this.words[i] &= ~selection.words[i];
+    return this;
+  }
+
+  Selection or(Selection selection)
+  {
+    for (int i = 0; i < this.words.length; i++) this.words[i] |= selection.words[i];
+    return this;
+  }
+
+  Selection not()
+  {
+    for (int i = 0; i < this.words.length; i++) this.words[i] = ~this.words[i];
+    clearTail();
+    return this;
+  }
+
+  Selection copy()
+  {
+    Selection copy = new Selection(this.size);
+    System.arraycopy(this.words, 0, copy.words, 0, this.words.length);
+    return copy;
+  }
+
+  boolean isEmpty()
+  {
+    for (long word : this.words)
+    {
+      if (word != 0) return false;
+    }
+
+    return true;
+  }
+
+  boolean isFull()
+  {
+    return cardinality() == this.size;
+  }
+
+  int cardinality()
+  {
+    int cardinality = 0;
+    for (long word : this.words) cardinality += Long.bitCount(word);
+
+    return cardinality;
+  }
+
+  //Returns the first selected row at or after from, or -1 if there is none.
+  int next(int from)
+  {
+    if (from >= this.size) return -1;
+
+    int index = from >>> 6;
+    long word = this.words[index] & -1L << from;
+    while (word == 0)
+    {
+      if (++index == this.words.length) return -1;
+      word = this.words[index];
+    }
+
+    return (index << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  private void clearTail()
+  {
+    if ((this.size & 63) != 0) this.words[this.words.length - 1] &= -1L >>> (64 - (this.size & 63));
+  }
+}
@@ -0,0 +1,286 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/*
+ * An and/or that reads each field used by more than one of its terms, at any depth, at most once per test and shares the value between those terms.
+ * Consecutive range terms on the same field of an and are combined into a single check against the tightest bounds.
+ *
+ * Values are read when first needed, so the getters called, the result and any exception are the same as testing the terms one by one.
+ */
+final class SharedJunction<T> extends Junction<T>
+{
+  private static final Object UNREAD = new Object();
+
+  private final Step<T> root;
+  private final int slots;
+
+  private SharedJunction(boolean and, Predicate<T>[] operands)
+  {
+    super(and, operands);
+
+    List<Read<T>> reads = new ArrayList<>();
+    this.root = step(this, reads);
+    this.slots = assignSlots(reads);
+  }
+
+  static <T> SharedJunction<T> and(Predicate<T> left, Predicate<T> right)
+  {
+    return new SharedJunction<>(true, flatten(true, left, right));
+  }
+
+  static <T> SharedJunction<T> or(Predicate<T> left, Predicate<T> right)
+  {
+    return new SharedJunction<>(false, flatten(false, left, right));
+  }
+
+  @Override
+  public boolean test(T t)
+  {
+    Object[] values = null;
+    if (this.slots > 0)
+    {
+      values = new Object[this.slots];
+      Arrays.fill(values, UNREAD);
+    }
+
+    return this.root.test(t, values);
+  }
+
+  private static <T> Step<T> step(Predicate<T> predicate, List<Read<T>> reads)
+  {
+    Node<T> node = Node.of(predicate);
+
+    if (node instanceof Term)
+    {
+      Term<T> term = (Term<T>)node;
+      return read(new TermRead<>(term), reads);
+    }
+
+    if (node instanceof Junction)
+    {
+      Junction<T> junction = (Junction<T>)node;
+      List<Predicate<T>> operands = junction.operands();
+
+      List<Step<T>> steps = new ArrayList<>();
+      for (int i = 0; i < operands.size(); i++)
+      {
+        int end = junction.isAnd() ? rangeEnd(operands, i) : i + 1;
+        if (end - i > 1)
+        {
+          steps.add(read(new RangeRead<>(operands.subList(i, end)), reads));
+          i = end - 1;
+        }
+        else
+        {
+          steps.add(step(operands.get(i), reads));
+        }
+      }
+
+      return new Operands<>(junction.isAnd(), steps);
+    }
+
+    return new Other<>(predicate);
+  }
+
+  private static <T> Step<T> read(Read<T> read, List<Read<T>> reads)
+  {
+    reads.add(read);
+    return read;
+  }
+
+  //Returns the end of the run of range terms on the same getter with values of the same type starting at index.
+  private static <T> int rangeEnd(List<Predicate<T>> operands, int index)
+  {
+    Term<T> first = rangeTerm(operands.get(index));
+    if (first == null) return index + 1;
+
+    int end = index + 1;
+    while (end < operands.size())
+    {
+      Term<T> term = rangeTerm(operands.get(end));
+      if (term == null || term.getter() != first.getter() || term.value().getClass() != first.value().getClass()) break;
+      end++;
+    }
+
+    return end;
+  }
+
+  private static <T> Term<T> rangeTerm(Predicate<T> predicate)
+  {
+    Node<T> node = Node.of(predicate);
+    if (!(node instanceof Term)) return null;
+
+    Term<T> term = (Term<T>)node;
+    if (!(term.value() instanceof Comparable)) return null;
+
+    switch (term.operator())
+    {
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return term;
+
+      default:
+        return null;
+    }
+  }
+
+  //Gives a slot to each getter read by more than one step, the others read their value directly.
+  private static <T> int assignSlots(List<Read<T>> reads)
+  {
+    Map<Getter<T>, Integer> counts = new IdentityHashMap<>();
+    for (Read<T> read : reads) counts.merge(read.getter, 1, Integer::sum);
+
+    Map<Getter<T>, Integer> slots = new IdentityHashMap<>();
+    for (Read<T> read : reads)
+    {
+      if (counts.get(read.getter) > 1) read.slot = slots.computeIfAbsent(read.getter, getter -> slots.size());
+    }
+
+    return slots.size();
+  }
+
+  private abstract static class Step<T>
+  {
+    abstract boolean test(T t, Object[] values);
+  }
+
+  private abstract static class Read<T> extends Step<T>
+  {
+    private final Getter<T> getter;
+    private int slot = -1;
+
+    private Read(Getter<T> getter)
+    {
+      this.getter = getter;
+    }
+
+    boolean isShared()
+    {
+      return this.slot >= 0;
+    }
+
+    Object value(T t, Object[] values)
+    {
+      if (this.slot < 0) return this.getter.get(t);
+
+      Object value = values[this.slot];
+      if (value == UNREAD)
+      {
+        value = this.getter.get(t);
+        values[this.slot] = value;
+      }
+
+      return value;
+    }
+  }
+
+  private static final class TermRead<T> extends Read<T>
+  {
+    private final Term<T> term;
+    private final Predicate<Object> predicate;
+
+    private TermRead(Term<T> term)
+    {
+      super(term.getter());
+      this.term = term;
+      this.predicate = JavaPredicateFactory.valuePredicate(term.getter(), term.operator(), term.value());
+    }
+
+    @Override
+    boolean test(T t, Object[] values)
+    {
+      //A term with its own value keeps the term's predicate, which avoids boxing for primitive getters.
+      return isShared() ? this.predicate.test(value(t, values)) : this.term.test(t);
+    }
+  }
+
+  private static final class RangeRead<T> extends Read<T>
+  {
+    private final Predicate<Object> from;
+    private final Predicate<Object> to;
+
+    @SuppressWarnings("unchecked")
+    private RangeRead(List<Predicate<T>> ranges)
+    {
+      super(rangeTerm(ranges.get(0)).getter());
+
+      Term<T> from = null;
+      Term<T> to = null;
+      for (Predicate<T> range : ranges)
+      {
+        Term<T> term = rangeTerm(range);
+        Comparable<Object> value = (Comparable<Object>)term.value();
+        switch (term.operator())
+        {
+          case GREATER_THAN:
+          case GREATER_THAN_OR_EQUAL:
+            int fromComparison = from == null ? 1 : value.compareTo(from.value());
+            if (fromComparison > 0 || (fromComparison == 0 && term.operator() == Operator.GREATER_THAN)) from = term;
+            break;
+
+          default:
+            int toComparison = to == null ? -1 : value.compareTo(to.value());
+            if (toComparison < 0 || (toComparison == 0 && term.operator() == Operator.LESS_THAN)) to = term;
+        }
+      }
+
+      this.from = from != null ? JavaPredicateFactory.valuePredicate(from.getter(), from.operator(), from.value()) : null;
+      this.to = to != null ? JavaPredicateFactory.valuePredicate(to.getter(), to.operator(), to.value()) : null;
+    }
+
+    @Override
+    boolean test(T t, Object[] values)
+    {
+      Object value = value(t, values);
+      return (this.from == null || this.from.test(value)) && (this.to == null || this.to.test(value));
+    }
+  }
+
+  private static final class Operands<T> extends Step<T>
+  {
+    private final boolean and;
+    private final Step<T>[] steps;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Operands(boolean and, List<Step<T>> steps)
+    {
+      this.and = and;
+      this.steps = steps.toArray(new Step[0]);
+    }
+
+    @Override
+    boolean test(T t, Object[] values)
+    {
+      for (Step<T> step : this.steps)
+      {
+        if (step.test(t, values) != this.and) return !this.and;
+      }
+
+      return this.and;
+    }
+  }
+
+  private static final class Other<T> extends Step<T>
+  {
+    private final Predicate<T> predicate;
+
+    private Other(Predicate<T> predicate)
+    {
+      this.predicate = predicate;
+    }
+
+    @Override
+    boolean test(T t, Object[] values)
+    {
+      return this.predicate.test(t);
+    }
+  }
+}
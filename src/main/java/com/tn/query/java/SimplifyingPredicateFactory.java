@@ -0,0 +1,394 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.tn.query.PredicateFactory;
+import com.tn.query.java.Getter.DoubleGetter;
+import com.tn.query.java.Getter.IntGetter;
+import com.tn.query.java.Getter.LongGetter;
+
+/**
+ * Builds the same predicates as <code>JavaPredicateFactory</code>, simplified as they're built.  Nested ands and ors are flattened and repeated terms
+ * dropped, range terms on the same field are merged, e.g. <code>x &gt; 5 &amp;&amp; x &gt; 3</code> to <code>x &gt; 5</code>, the equalities on the
+ * same field of an or are merged into a single <code>∈</code> and a single value <code>∈</code> is tested as an <code>=</code>.  A query that can never
+ * match, e.g. <code>a = 1 &amp;&amp; a = 2</code>, becomes a constant false that <code>QueryExecutor</code>, <code>IndexedCollection</code> and
+ * <code>ColumnarSnapshot</code> answer without testing any objects, and one that always matches a constant true.
+ * <p>
+ * A simplified query matches the same objects as the query as written, except that a query that would throw a <code>QueryException</code> for an object,
+ * e.g. by comparing a <code>null</code> value, may instead be decided without testing it.
+ */
+public class SimplifyingPredicateFactory<T> implements PredicateFactory<Predicate<T>>
+{
+  private final JavaPredicateFactory<T> predicateFactory;
+
+  public SimplifyingPredicateFactory(Collection<Getter<T>> getters)
+  {
+    this.predicateFactory = new JavaPredicateFactory<>(getters);
+  }
+
+  @Override
+  public Predicate<T> equal(String left, Object right)
+  {
+    Term<T> equal = (Term<T>)this.predicateFactory.equal(left, right);
+    return matchesType(equal.getter(), right) ? equal : Constant.of(false);
+  }
+
+  @Override
+  public Predicate<T> notEqual(String left, Object right)
+  {
+    Term<T> notEqual = (Term<T>)this.predicateFactory.notEqual(left, right);
+    return matchesType(notEqual.getter(), right) ? notEqual : Constant.of(true);
+  }
+
+  @Override
+  public Predicate<T> greaterThan(String left, Object right)
+  {
+    return this.predicateFactory.greaterThan(left, right);
+  }
+
+  @Override
+  public Predicate<T> greaterThanOrEqual(String left, Object right)
+  {
+    return this.predicateFactory.greaterThanOrEqual(left, right);
+  }
+
+  @Override
+  public Predicate<T> lessThan(String left, Object right)
+  {
+    return this.predicateFactory.lessThan(left, right);
+  }
+
+  @Override
+  public Predicate<T> lessThanOrEqual(String left, Object right)
+  {
+    return this.predicateFactory.lessThanOrEqual(left, right);
+  }
+
+  @Override
+  public Predicate<T> like(String left, Object right)
+  {
+    return this.predicateFactory.like(left, right);
+  }
+
+  @Override
+  public Predicate<T> notLike(String left, Object right)
+  {
+    return this.predicateFactory.notLike(left, right);
+  }
+
+  @Override
+  public Predicate<T> in(String left, List<?> right)
+  {
+    if (right.size() == 1) return equal(left, right.get(0));
+
+    Term<T> in = (Term<T>)this.predicateFactory.in(left, right);
+    return right.stream().anyMatch(value -> matchesType(in.getter(), value)) ? in : Constant.of(false);
+  }
+
+  @Override
+  public Predicate<T> and(Predicate<T> left, Predicate<T> right)
+  {
+    return simplify(true, left, right);
+  }
+
+  @Override
+  public Predicate<T> or(Predicate<T> left, Predicate<T> right)
+  {
+    return simplify(false, left, right);
+  }
+
+  @Override
+  public Predicate<T> parenthesis(Predicate<T> node)
+  {
+    //Parenthesis is handled implicitly when parsing queries.
+    return node;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Predicate<T> simplify(boolean and, Predicate<T> left, Predicate<T> right)
+  {
+    List<Predicate<T>> operands = new ArrayList<>();
+    Map<Getter<T>, List<Term<T>>> terms = new IdentityHashMap<>();
+
+    for (Predicate<T> operand : Junction.flatten(and, left, right))
+    {
+      if (operand instanceof Constant)
+      {
+        //True makes no difference to an and, nor false to an or, but false decides an and and true an or.
+        if (((Constant<T>)operand).value() != and) return operand;
+        continue;
+      }
+
+      if (operands.stream().anyMatch(existing -> same(existing, operand))) continue;
+
+      operands.add(operand);
+      if (operand instanceof Term) terms.computeIfAbsent(((Term<T>)operand).getter(), getter -> new ArrayList<>()).add((Term<T>)operand);
+    }
+
+    Map<Predicate<T>, Predicate<T>> replacements = new IdentityHashMap<>();
+    for (List<Term<T>> fieldTerms : terms.values())
+    {
+      if (fieldTerms.size() > 1 && !(and ? mergeAnd(fieldTerms, replacements) : mergeOr(fieldTerms, replacements))) return Constant.of(!and);
+    }
+
+    //A term replacing others takes the place of the first of them, so that it's tested no later than any of them would have been.
+    List<Predicate<T>> simplified = new ArrayList<>();
+    Set<Predicate<T>> added = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Predicate<T> operand : operands)
+    {
+      Predicate<T> simplifiedOperand = replacements.getOrDefault(operand, operand);
+      if (added.add(simplifiedOperand)) simplified.add(simplifiedOperand);
+    }
+
+    if (simplified.isEmpty()) return Constant.of(and);
+    if (simplified.size() == 1) return simplified.get(0);
+
+    return new Junction<>(and, simplified.toArray(new Predicate[0]));
+  }
+
+  //Replaces each term implied by another with that term, returning false if the terms can never all match.
+  private boolean mergeAnd(List<Term<T>> terms, Map<Predicate<T>, Predicate<T>> replacements)
+  {
+    Term<T> equal = null;
+    for (Term<T> term : terms)
+    {
+      if (term.operator() != Operator.EQUAL) continue;
+      if (equal != null) return false;
+
+      equal = term;
+    }
+
+    Bounds<T> bounds = new Bounds<>(true);
+    for (Term<T> term : terms)
+    {
+      switch (term.operator())
+      {
+        case NOT_EQUAL:
+          if (equal == null) break;
+          if (Objects.equals(equal.value(), term.value())) return false;
+
+          replacements.put(term, equal);
+          break;
+
+        case IN:
+          if (equal == null) break;
+          if (!contains(term, equal.value())) return false;
+
+          replacements.put(term, equal);
+          break;
+
+        case GREATER_THAN:
+        case GREATER_THAN_OR_EQUAL:
+        case LESS_THAN:
+        case LESS_THAN_OR_EQUAL:
+          bounds.add(term);
+          break;
+
+        default:
+          break;
+      }
+    }
+
+    if (bounds.disjoint()) return false;
+
+    bounds.replace(replacements);
+    return true;
+  }
+
+  //Replaces each term implying another with that term and the equalities with a single in, returning false if the terms always match.
+  private boolean mergeOr(List<Term<T>> terms, Map<Predicate<T>, Predicate<T>> replacements)
+  {
+    Term<T> notEqual = null;
+    for (Term<T> term : terms)
+    {
+      if (term.operator() != Operator.NOT_EQUAL) continue;
+      if (notEqual != null) return false;
+
+      notEqual = term;
+    }
+
+    List<Term<T>> equalities = new ArrayList<>();
+    Bounds<T> bounds = new Bounds<>(false);
+    for (Term<T> term : terms)
+    {
+      switch (term.operator())
+      {
+        case EQUAL:
+        case IN:
+          if (notEqual == null)
+          {
+            equalities.add(term);
+            break;
+          }
+          if (term.operator() == Operator.EQUAL ? Objects.equals(term.value(), notEqual.value()) : contains(term, notEqual.value())) return false;
+
+          replacements.put(term, notEqual);
+          break;
+
+        case GREATER_THAN:
+        case GREATER_THAN_OR_EQUAL:
+        case LESS_THAN:
+        case LESS_THAN_OR_EQUAL:
+          bounds.add(term);
+          break;
+
+        default:
+          break;
+      }
+    }
+
+    if (bounds.overlapping()) return false;
+
+    bounds.replace(replacements);
+    if (equalities.size() > 1)
+    {
+      Predicate<T> in = in(equalities.get(0).field(), values(equalities));
+      equalities.forEach(equality -> replacements.put(equality, in));
+    }
+
+    return true;
+  }
+
+  private static <T> boolean same(Predicate<T> predicate1, Predicate<T> predicate2)
+  {
+    if (predicate1 == predicate2) return true;
+    if (!(predicate1 instanceof Term) || !(predicate2 instanceof Term)) return false;
+
+    Term<T> term1 = (Term<T>)predicate1;
+    Term<T> term2 = (Term<T>)predicate2;
+
+    return term1.getter() == term2.getter() && term1.operator() == term2.operator() && Objects.equals(term1.value(), term2.value());
+  }
+
+  private static boolean contains(Term<?> in, Object value)
+  {
+    return InSet.of((List<?>)in.value()).test(value);
+  }
+
+  private static List<Object> values(List<? extends Term<?>> equalities)
+  {
+    Set<Object> values = new LinkedHashSet<>();
+    for (Term<?> equality : equalities)
+    {
+      if (equality.operator() == Operator.EQUAL) values.add(equality.value());
+      else values.addAll((List<?>)equality.value());
+    }
+
+    return new ArrayList<>(values);
+  }
+
+  //A primitive getter's terms only match values of its own type, see JavaPredicateFactory.
+  private static boolean matchesType(Getter<?> getter, Object value)
+  {
+    if (getter instanceof IntGetter) return value instanceof Integer;
+    if (getter instanceof LongGetter) return value instanceof Long;
+    if (getter instanceof DoubleGetter) return value instanceof Double;
+
+    return true;
+  }
+
+  /*
+   * The tightest bounds of an and or loosest of an or, for each class of value compared, as values of different classes can't be compared to each other.
+   */
+  private static class Bounds<T>
+  {
+    private final boolean and;
+    private final List<Term<T>> terms = new ArrayList<>();
+    private final List<Term<T>> lower = new ArrayList<>();
+    private final List<Term<T>> upper = new ArrayList<>();
+
+    private Bounds(boolean and)
+    {
+      this.and = and;
+    }
+
+    private void add(Term<T> term)
+    {
+      this.terms.add(term);
+
+      boolean lower = isLower(term);
+      List<Term<T>> bounds = lower ? this.lower : this.upper;
+
+      for (int i = 0; i < bounds.size(); i++)
+      {
+        Term<T> bound = bounds.get(i);
+        if (bound.value().getClass() != term.value().getClass()) continue;
+
+        //A lower bound is tighter when it's greater, an upper when it's less, and either when it excludes the value both are bounded by.
+        int comparison = Comparison.compare(term.value(), bound.value()) * (lower ? 1 : -1);
+        boolean tighter = comparison > 0 || comparison == 0 && !inclusive(term) && inclusive(bound);
+        boolean looser = comparison < 0 || comparison == 0 && inclusive(term) && !inclusive(bound);
+        if (this.and ? tighter : looser) bounds.set(i, term);
+
+        return;
+      }
+
+      bounds.add(term);
+    }
+
+    //Whether no value is within both a lower and an upper bound, so an and of them never matches.
+    private boolean disjoint()
+    {
+      for (Term<T> lower : this.lower)
+      {
+        for (Term<T> upper : this.upper)
+        {
+          if (lower.value().getClass() != upper.value().getClass()) continue;
+
+          int comparison = Comparison.compare(lower.value(), upper.value());
+          if (comparison > 0 || comparison == 0 && !(inclusive(lower) && inclusive(upper))) return true;
+        }
+      }
+
+      return false;
+    }
+
+    //Whether every value is within a lower or an upper bound, so an or of them always matches.
+    private boolean overlapping()
+    {
+      for (Term<T> lower : this.lower)
+      {
+        for (Term<T> upper : this.upper)
+        {
+          if (lower.value().getClass() != upper.value().getClass()) continue;
+
+          int comparison = Comparison.compare(lower.value(), upper.value());
+          if (comparison < 0 || comparison == 0 && (inclusive(lower) || inclusive(upper))) return true;
+        }
+      }
+
+      return false;
+    }
+
+    //Replaces each bound with the bound kept for its class of value.
+    private void replace(Map<Predicate<T>, Predicate<T>> replacements)
+    {
+      for (Term<T> term : this.terms)
+      {
+        for (Term<T> bound : isLower(term) ? this.lower : this.upper)
+        {
+          if (bound != term && bound.value().getClass() == term.value().getClass()) replacements.put(term, bound);
+        }
+      }
+    }
+
+    private static boolean isLower(Term<?> term)
+    {
+      return term.operator() == Operator.GREATER_THAN || term.operator() == Operator.GREATER_THAN_OR_EQUAL;
+    }
+
+    private static boolean inclusive(Term<?> term)
+    {
+      return term.operator() == Operator.GREATER_THAN_OR_EQUAL || term.operator() == Operator.LESS_THAN_OR_EQUAL;
+    }
+  }
+}
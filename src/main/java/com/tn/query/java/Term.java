@@ -0,0 +1,51 @@
+package com.tn.query.java;
+
+import java.util.function.Predicate;
+
+final class Term<T> extends Node<T>
+{
+  private final Getter<T> getter;
+  private final Operator operator;
+  private final Object value;
+  private final Predicate<T> predicate;
+
+  Term(Getter<T> getter, Operator operator, Object value, Predicate<T> predicate)
+  {
+    this.getter = getter;
+    this.operator = operator;
+    this.value = value;
+    this.predicate = predicate;
+  }
+
+  Getter<T> getter()
+  {
+    return this.getter;
+  }
+
+  String field()
+  {
+    return this.getter.name();
+  }
+
+  Operator operator()
+  {
+    return this.operator;
+  }
+
+  Object value()
+  {
+    return this.value;
+  }
+
+  @Override
+  public boolean test(T t)
+  {
+    return this.predicate.test(t);
+  }
+
+  @Override
+  public String toString()
+  {
+    return field() + " " + this.operator + " " + this.value;
+  }
+}
@@ -0,0 +1,136 @@
+package com.tn.query.java;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Indexes string values by their trigrams, i.e. every three consecutive characters, so that like terms only need to test the elements holding every
+ * trigram of the pattern's literals.  Values are padded with two boundary characters at each end, so that a literal at the start or end of a pattern,
+ * even a single character as in S* or *h, has trigrams that only match at the start or end of a value.
+ */
+final class TrigramIndex<T> implements Index<T>
+{
+  private static final String BOUNDARY = "\u0000\u0000";
+
+  private final Getter<T> getter;
+  private final Map<Long, Set<T>> elements = new HashMap<>();
+  private final Set<T> others = new HashSet<>();
+
+  TrigramIndex(Getter<T> getter)
+  {
+    this.getter = getter;
+  }
+
+  @Override
+  public void add(T element)
+  {
+    Object value = this.getter.get(element);
+    if (!(value instanceof String))
+    {
+      this.others.add(element);
+      return;
+    }
+
+    for (long trigram : trigrams(BOUNDARY + value + BOUNDARY)) this.elements.computeIfAbsent(trigram, key -> new HashSet<>()).add(element);
+  }
+
+  @Override
+  public void remove(T element)
+  {
+    Object value = this.getter.get(element);
+    if (!(value instanceof String))
+    {
+      this.others.remove(element);
+      return;
+    }
+
+    for (long trigram : trigrams(BOUNDARY + value + BOUNDARY))
+    {
+      Set<T> elements = this.elements.get(trigram);
+      if (elements != null && elements.remove(element) && elements.isEmpty()) this.elements.remove(trigram);
+    }
+  }
+
+  @Override
+  public void clear()
+  {
+    this.elements.clear();
+    this.others.clear();
+  }
+
+  @Override
+  public Set<T> candidates(Term<T> term)
+  {
+    if (term.operator() != Operator.LIKE || !(term.value() instanceof String)) return null;
+
+    Set<Long> trigrams = patternTrigrams((String)term.value());
+    if (trigrams.isEmpty()) return null;
+
+    List<Set<T>> postings = new ArrayList<>(trigrams.size());
+    for (long trigram : trigrams)
+    {
+      Set<T> elements = this.elements.get(trigram);
+      if (elements == null) return this.others;
+
+      postings.add(elements);
+    }
+
+    postings.sort((postings1, postings2) -> Integer.compare(postings1.size(), postings2.size()));
+
+    //Elements that aren't strings fail the like test, so they're left in for the predicate to report.
+    Set<T> candidates = new HashSet<>(this.others);
+    for (T element : postings.get(0))
+    {
+      if (containedInAll(element, postings)) candidates.add(element);
+    }
+
+    return candidates;
+  }
+
+  //The trigrams any match must contain: those of each literal, with the first and last literals padded unless a wildcard separates them from the end.
+  private static Set<Long> patternTrigrams(String pattern)
+  {
+    String[] literals = LikePattern.literals(pattern);
+    boolean anchoredStart = !pattern.startsWith(LikePattern.WILDCARD);
+    boolean anchoredEnd = !pattern.endsWith(LikePattern.WILDCARD);
+
+    Set<Long> trigrams = new HashSet<>();
+    for (int i = 0; i < literals.length; i++)
+    {
+      String literal = literals[i];
+      if (i == 0 && anchoredStart) literal = BOUNDARY + literal;
+      if (i == literals.length - 1 && anchoredEnd) literal = literal + BOUNDARY;
+
+      for (long trigram : trigrams(literal)) trigrams.add(trigram);
+    }
+
+    return trigrams;
+  }
+
+  private static long[] trigrams(String value)
+  {
+    if (value.length() < 3) return new long[0];
+
+    long[] trigrams = new long[value.length() - 2];
+    for (int i = 0; i < trigrams.length; i++)
+    {
+      trigrams[i] = (long)value.charAt(i) << 32 | (long)value.charAt(i + 1) << 16 | value.charAt(i + 2);
+    }
+
+    return trigrams;
+  }
+
+  private static <T> boolean containedInAll(T element, List<Set<T>> postings)
+  {
+    for (int i = 1; i < postings.size(); i++)
+    {
+      if (!postings.get(i).contains(element)) return false;
+    }
+
+    return true;
+  }
+}
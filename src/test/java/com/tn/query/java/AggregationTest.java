@@ -0,0 +1,155 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class AggregationTest
+{
+  private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> target.id),
+    Getter.intValue("age", target -> target.age),
+    Getter.doublePrimitive("score", target -> target.score),
+    Getter.comparableValue("name", target -> target.name),
+    Getter.comparableValue("amount", target -> target.amount),
+    Getter.booleanValue("active", target -> target.active)
+  );
+
+  private final List<Target> targets = List.of(
+    new Target(1, 30, 1.5, "Ann", 10),
+    new Target(2, null, 2.5, "Bob", 2.5),
+    new Target(3, 20, 3.0, "Ann", 5),
+    new Target(4, 40, 0.5, "Cat", null)
+  );
+
+  @Test
+  void shouldAggregateWithoutGroups()
+  {
+    Aggregate aggregate = single(
+      new QueryExecutor<Target>(target -> true).aggregate(this.targets, aggregation().withAggregate("age").withAggregate("score"))
+    );
+
+    assertEquals(List.of(), aggregate.key());
+    assertEquals(4, aggregate.count());
+    assertEquals(3, aggregate.count("age"));
+    assertEquals(90L, aggregate.sum("age"));
+    assertEquals(20L, aggregate.min("age"));
+    assertEquals(40L, aggregate.max("age"));
+    assertEquals((Double)30.0, aggregate.average("age"));
+    assertEquals(7.5, aggregate.sum("score"));
+    assertEquals(0.5, aggregate.min("score"));
+    assertEquals(3.0, aggregate.max("score"));
+  }
+
+  @Test
+  void shouldAggregateNoMatches()
+  {
+    Aggregate aggregate = single(new QueryExecutor<Target>(target -> false).aggregate(this.targets, aggregation().withAggregate("age")));
+
+    assertEquals(0, aggregate.count());
+    assertNull(aggregate.sum("age"));
+    assertNull(aggregate.average("age"));
+    assertEquals(List.of(), new QueryExecutor<Target>(target -> false).aggregate(this.targets, aggregation().withGroupBy("name")));
+  }
+
+  @Test
+  void shouldGroupInOrderFirstMatched()
+  {
+    List<Aggregate> aggregates = new QueryExecutor<Target>(target -> target.id > 1).aggregate(
+      this.targets,
+      aggregation().withGroupBy("name").withAggregate("amount")
+    );
+
+    assertEquals(List.of(List.of("Bob"), List.of("Ann"), List.of("Cat")), aggregates.stream().map(Aggregate::key).toList());
+    assertEquals(2.5, aggregates.get(0).sum("amount"));
+    assertEquals(5L, aggregates.get(1).sum("amount"));
+    assertNull(aggregates.get(2).sum("amount"));
+  }
+
+  @Test
+  void shouldGroupByManyFields()
+  {
+    List<Aggregate> aggregates = new QueryExecutor<Target>(target -> true).aggregate(
+      this.targets,
+      aggregation().withGroupBy("name").withGroupBy("age").withAggregate("amount")
+    );
+
+    assertEquals(4, aggregates.size());
+    assertEquals(Arrays.asList("Bob", null), aggregates.get(1).key());
+    assertEquals(17.5, new QueryExecutor<Target>(target -> true).aggregate(this.targets, aggregation().withAggregate("amount")).get(0).sum("amount"));
+  }
+
+  @Test
+  void shouldGroupInParallel()
+  {
+    List<Target> targets = IntStream.range(0, 100_000).mapToObj(id -> new Target(id, id % 50, id / 10.0, "N" + id % 7, id)).toList();
+    QueryExecutor<Target> queryExecutor = new QueryExecutor<>(target -> target.id % 3 == 0, POOL);
+
+    Map<Object, Long> expected = targets.stream()
+      .filter(target -> target.id % 3 == 0)
+      .collect(groupingBy(target -> target.age, LinkedHashMap::new, summingLong(target -> target.id)));
+
+    List<Aggregate> byAge = queryExecutor.aggregate(targets, aggregation().withGroupBy("age").withAggregate("id"));
+    assertEquals(expected.keySet().stream().map(List::of).toList(), byAge.stream().map(Aggregate::key).toList());
+    assertEquals(List.copyOf(expected.values()), byAge.stream().map(aggregate -> aggregate.sum("id")).toList());
+
+    List<Aggregate> byId = queryExecutor.aggregate(targets, aggregation().withGroupBy("id").withAggregate("age"));
+    assertEquals(33_334, byId.size());
+    assertEquals(List.of(99_999), byId.get(byId.size() - 1).key());
+  }
+
+  @Test
+  void shouldFailForInvalidFields()
+  {
+    assertThrows(QueryException.class, () -> aggregation().withGroupBy("missing"));
+    assertThrows(QueryException.class, () -> aggregation().withAggregate("active"));
+    assertThrows(QueryException.class, () -> new QueryExecutor<Target>(target -> true).aggregate(this.targets, aggregation().withAggregate("name")));
+    assertThrows(IllegalArgumentException.class, () -> single(new QueryExecutor<Target>(target -> true).aggregate(this.targets, aggregation())).sum("age"));
+  }
+
+  private Aggregation<Target> aggregation()
+  {
+    return new Aggregation<>(this.getters);
+  }
+
+  private Aggregate single(List<Aggregate> aggregates)
+  {
+    assertEquals(1, aggregates.size());
+    return aggregates.get(0);
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final Integer age;
+    private final double score;
+    private final String name;
+    private final Comparable<?> amount;
+    private final boolean active;
+
+    private Target(int id, Integer age, double score, String name, Comparable<?> amount)
+    {
+      this.id = id;
+      this.age = age;
+      this.score = score;
+      this.name = name;
+      this.amount = amount;
+      this.active = id % 2 == 0;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+import com.tn.query.QueryParser;
+
+class CachingQueryParserTest
+{
+  @Test
+  void shouldCachePredicate()
+  {
+    QueryParser<Predicate<Object>> queryParser = mockQueryParser();
+    CachingQueryParser<Object> cachingQueryParser = new CachingQueryParser<>(queryParser, 10);
+
+    Predicate<Object> predicate = cachingQueryParser.parse("value = 1");
+
+    assertSame(predicate, cachingQueryParser.parse("value = 1"));
+    assertSame(predicate, cachingQueryParser.parse("  value = 1\t"));
+    assertNotSame(predicate, cachingQueryParser.parse("value = 2"));
+
+    verify(queryParser, times(1)).parse("value = 1");
+    verify(queryParser, times(1)).parse("value = 2");
+    assertEquals(2, cachingQueryParser.hitCount());
+    assertEquals(2, cachingQueryParser.missCount());
+    assertEquals(0, cachingQueryParser.evictionCount());
+    assertEquals(2, cachingQueryParser.size());
+  }
+
+  @Test
+  void shouldParseQueryAsWritten()
+  {
+    QueryParser<Predicate<Object>> queryParser = mockQueryParser();
+    CachingQueryParser<Object> cachingQueryParser = new CachingQueryParser<>(queryParser, 10);
+
+    Predicate<Object> predicate = cachingQueryParser.parse(" name ≈ *a  b* ");
+
+    assertNotSame(predicate, cachingQueryParser.parse("name ≈ *a b*"));
+    assertNotSame(predicate, cachingQueryParser.parse("name ≈ *a\tb*"));
+
+    verify(queryParser, times(1)).parse(" name ≈ *a  b* ");
+    verify(queryParser, times(1)).parse("name ≈ *a b*");
+    verify(queryParser, times(1)).parse("name ≈ *a\tb*");
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsed()
+  {
+    QueryParser<Predicate<Object>> queryParser = mockQueryParser();
+    CachingQueryParser<Object> cachingQueryParser = new CachingQueryParser<>(queryParser, 2);
+
+    cachingQueryParser.parse("value = 1");
+    cachingQueryParser.parse("value = 2");
+    cachingQueryParser.parse("value = 1");
+    cachingQueryParser.parse("value = 3");
+
+    assertEquals(2, cachingQueryParser.size());
+    assertEquals(1, cachingQueryParser.evictionCount());
+
+    cachingQueryParser.parse("value = 1");
+    cachingQueryParser.parse("value = 2");
+
+    verify(queryParser, times(1)).parse("value = 1");
+    verify(queryParser, times(2)).parse("value = 2");
+  }
+
+  @Test
+  void shouldClear()
+  {
+    QueryParser<Predicate<Object>> queryParser = mockQueryParser();
+    CachingQueryParser<Object> cachingQueryParser = new CachingQueryParser<>(queryParser, 10);
+
+    cachingQueryParser.parse("value = 1");
+    cachingQueryParser.clear();
+    cachingQueryParser.parse("value = 1");
+
+    assertEquals(1, cachingQueryParser.size());
+    verify(queryParser, times(2)).parse("value = 1");
+  }
+
+  @Test
+  void shouldParseAgainWhenVersionChanges()
+  {
+    QueryParser<Predicate<Object>> queryParser = mockQueryParser();
+    long[] version = {1};
+    CachingQueryParser<Object> cachingQueryParser = new CachingQueryParser<>(queryParser, 10, () -> version[0]);
+
+    Predicate<Object> predicate = cachingQueryParser.parse("value = 1");
+    assertSame(predicate, cachingQueryParser.parse("value = 1"));
+
+    version[0] = 2;
+    Predicate<Object> reparsed = cachingQueryParser.parse("value = 1");
+
+    assertNotSame(predicate, reparsed);
+    assertSame(reparsed, cachingQueryParser.parse("value = 1"));
+    assertEquals(1, cachingQueryParser.size());
+    verify(queryParser, times(2)).parse("value = 1");
+  }
+
+  @Test
+  void shouldNotCacheFailure()
+  {
+    @SuppressWarnings("unchecked")
+    QueryParser<Predicate<Object>> queryParser = mock(QueryParser.class);
+    when(queryParser.parse(anyString())).thenThrow(new QueryException("Invalid"));
+
+    CachingQueryParser<Object> cachingQueryParser = new CachingQueryParser<>(queryParser, 10);
+
+    assertThrows(QueryException.class, () -> cachingQueryParser.parse("value"));
+    assertThrows(QueryException.class, () -> cachingQueryParser.parse("value"));
+    assertEquals(0, cachingQueryParser.size());
+  }
+
+  @Test
+  void shouldFailWithInvalidMaximumSize()
+  {
+    assertThrows(IllegalArgumentException.class, () -> new CachingQueryParser<>(mockQueryParser(), 0));
+  }
+
+  @Test
+  void shouldTrimWhitespace()
+  {
+    String query = "a = 1 && b = 2";
+
+    assertSame(query, CachingQueryParser.normalise(query));
+    assertEquals(query, CachingQueryParser.normalise(" a = 1 && b = 2\n"));
+    assertEquals("a =  1\t&& b = 2", CachingQueryParser.normalise("\ta =  1\t&& b = 2\r\n"));
+    assertEquals("", CachingQueryParser.normalise("   "));
+  }
+
+  private QueryParser<Predicate<Object>> mockQueryParser()
+  {
+    @SuppressWarnings("unchecked")
+    QueryParser<Predicate<Object>> queryParser = mock(QueryParser.class);
+    when(queryParser.parse(anyString())).thenAnswer(invocation -> mock(Predicate.class));
+
+    return queryParser;
+  }
+}
@@ -0,0 +1,184 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class ColumnarSnapshotTest
+{
+  private final AtomicInteger nameReads = new AtomicInteger();
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> target.id),
+    Getter.longPrimitive("count", target -> target.count),
+    Getter.doublePrimitive("score", target -> target.score),
+    Getter.intValue("age", target -> target.age),
+    Getter.comparableValue("name", target -> { this.nameReads.incrementAndGet(); return target.name; })
+  );
+  private final JavaPredicateFactory<Target> predicateFactory = new JavaPredicateFactory<>(this.getters);
+  private final List<Target> targets = IntStream.range(0, 1000).mapToObj(Target::new).toList();
+  private final ColumnarSnapshot<Target> snapshot = new ColumnarSnapshot<>(this.targets, this.getters);
+
+  @Test
+  void shouldFilterPrimitiveColumns()
+  {
+    assertEquals(expected(target -> target.id == 5), this.snapshot.filter(this.predicateFactory.equal("id", 5)));
+    assertEquals(expected(target -> target.id != 5), this.snapshot.filter(this.predicateFactory.notEqual("id", 5)));
+    assertEquals(expected(target -> target.count > 990), this.snapshot.filter(this.predicateFactory.greaterThan("count", 990L)));
+    assertEquals(expected(target -> target.score <= 2.5), this.snapshot.filter(this.predicateFactory.lessThanOrEqual("score", 2.5)));
+    assertEquals(expected(target -> target.id == 1 || target.id == 999), this.snapshot.filter(this.predicateFactory.in("id", List.of(1, 999, 1000))));
+    assertTrue(this.snapshot.filter(this.predicateFactory.equal("id", 5L)).isEmpty());
+  }
+
+  @Test
+  void shouldFilterBoxedColumnWithNulls()
+  {
+    assertEquals(expected(target -> target.age == null), this.snapshot.filter(this.predicateFactory.equal("age", null)));
+    assertEquals(expected(target -> target.age != null && target.age == 7), this.snapshot.filter(this.predicateFactory.equal("age", 7)));
+    assertEquals(
+      expected(target -> target.age == null || target.age == 7),
+      this.snapshot.filter(this.predicateFactory.in("age", Arrays.asList(7, null)))
+    );
+  }
+
+  @Test
+  void shouldFilterDictionaryColumn()
+  {
+    this.nameReads.set(0);
+
+    assertEquals(expected(target -> target.name.equals("Name3")), this.snapshot.filter(this.predicateFactory.equal("name", "Name3")));
+    assertEquals(expected(target -> target.name.endsWith("3")), this.snapshot.filter(this.predicateFactory.like("name", "*3")));
+    assertEquals(expected(target -> target.name.compareTo("Name5") >= 0), this.snapshot.filter(this.predicateFactory.greaterThanOrEqual("name", "Name5")));
+    assertTrue(this.nameReads.get() < this.targets.size());
+  }
+
+  @Test
+  void shouldFilterJunctions()
+  {
+    assertEquals(
+      expected(target -> target.id < 500 && (target.name.equals("Name1") || target.score > 240.0)),
+      this.snapshot.filter(
+        this.predicateFactory.and(
+          this.predicateFactory.lessThan("id", 500),
+          this.predicateFactory.or(this.predicateFactory.equal("name", "Name1"), this.predicateFactory.greaterThan("score", 240.0))
+        )
+      )
+    );
+  }
+
+  @Test
+  void shouldFilterCompiledPredicates()
+  {
+    CompilingPredicateFactory<Target> compilingPredicateFactory = new CompilingPredicateFactory<>(this.getters);
+
+    assertEquals(
+      expected(target -> target.id > 10 && target.name.equals("Name2")),
+      this.snapshot.filter(compilingPredicateFactory.and(compilingPredicateFactory.greaterThan("id", 10), compilingPredicateFactory.equal("name", "Name2")))
+    );
+  }
+
+  @Test
+  void shouldFilterOtherPredicates()
+  {
+    Predicate<Target> predicate = target -> target.id % 100 == 0;
+
+    assertEquals(expected(predicate), this.snapshot.filter(predicate));
+    assertEquals(
+      expected(target -> target.id < 200 && target.id % 100 == 0),
+      this.snapshot.filter(this.predicateFactory.and(this.predicateFactory.lessThan("id", 200), predicate))
+    );
+  }
+
+  @Test
+  void shouldFilterBitmapIndexes()
+  {
+    ColumnarSnapshot<Target> snapshot = new ColumnarSnapshot<>(this.targets, this.getters).withBitmapIndex("age").withBitmapIndex("name");
+
+    assertEquals(expected(target -> target.age == null), snapshot.filter(this.predicateFactory.equal("age", null)));
+    assertEquals(expected(target -> !"Name3".equals(target.name)), snapshot.filter(this.predicateFactory.notEqual("name", "Name3")));
+    assertEquals(
+      expected(target -> target.age == null || target.age == 7),
+      snapshot.filter(this.predicateFactory.in("age", Arrays.asList(7, null)))
+    );
+    assertEquals(
+      expected(target -> target.name.compareTo("Name5") >= 0 && target.id < 500),
+      snapshot.filter(this.predicateFactory.and(this.predicateFactory.greaterThanOrEqual("name", "Name5"), this.predicateFactory.lessThan("id", 500)))
+    );
+    assertThrows(QueryException.class, () -> snapshot.filter(this.predicateFactory.greaterThan("age", 5)));
+    assertThrows(QueryException.class, () -> snapshot.withBitmapIndex("missing"));
+  }
+
+  @Test
+  void shouldFilterBitmapIndexesOverManyRows()
+  {
+    List<Getter<Integer>> getters = List.of(
+      Getter.booleanValue("even", value -> value % 2 == 0),
+      Getter.intPrimitive("block", value -> value / 70000),
+      Getter.comparableValue("rare", value -> value % 5000 == 0 ? "Rare" : null)
+    );
+    JavaPredicateFactory<Integer> predicateFactory = new JavaPredicateFactory<>(getters);
+    List<Integer> values = IntStream.range(0, 200000).boxed().toList();
+    ColumnarSnapshot<Integer> snapshot = new ColumnarSnapshot<>(values, getters).withBitmapIndex("even").withBitmapIndex("block").withBitmapIndex("rare");
+
+    assertEquals(
+      values.stream().filter(value -> value % 2 == 0 && value / 70000 != 1).toList(),
+      snapshot.filter(predicateFactory.and(predicateFactory.equal("even", true), predicateFactory.notEqual("block", 1)))
+    );
+    assertEquals(
+      values.stream().filter(value -> value / 70000 == 2 || value % 5000 == 0).toList(),
+      snapshot.filter(predicateFactory.or(predicateFactory.in("block", List.of(2, 3)), predicateFactory.equal("rare", "Rare")))
+    );
+    assertEquals(values.stream().filter(value -> value / 70000 > 0).count(), (long)snapshot.count(predicateFactory.greaterThan("block", 0)));
+    assertEquals(40, snapshot.count(predicateFactory.and(predicateFactory.notEqual("rare", null), predicateFactory.like("rare", "R*"))));
+  }
+
+  @Test
+  void shouldCount()
+  {
+    assertEquals(expected(target -> target.id >= 100).size(), this.snapshot.count(this.predicateFactory.greaterThanOrEqual("id", 100)));
+    assertEquals(1000, this.snapshot.size());
+  }
+
+  @Test
+  void shouldFailAsTestingEachObjectWould()
+  {
+    assertThrows(QueryException.class, () -> this.snapshot.filter(this.predicateFactory.greaterThan("age", 5)));
+    assertThrows(QueryException.class, () -> this.snapshot.filter(this.predicateFactory.like("id", "1*")));
+    assertEquals(
+      expected(target -> target.age != null && target.age > 5),
+      this.snapshot.filter(this.predicateFactory.and(this.predicateFactory.notEqual("age", null), this.predicateFactory.greaterThan("age", 5)))
+    );
+  }
+
+  private List<Target> expected(Predicate<Target> predicate)
+  {
+    return this.targets.stream().filter(predicate).toList();
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final long count;
+    private final double score;
+    private final Integer age;
+    private final String name;
+
+    private Target(int id)
+    {
+      this.id = id;
+      this.count = id;
+      this.score = id / 4.0;
+      this.age = id % 10 == 0 ? null : id % 50;
+      this.name = "Name" + id % 10;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.PredicateFactory;
+import com.tn.query.QueryException;
+
+class CompilingPredicateFactoryTest
+{
+  private final PredicateFactory<Predicate<Target>> predicateFactory = new CompilingPredicateFactory<>(
+    List.of(
+      Getter.intPrimitive("intValue", target -> target.intValue),
+      Getter.comparableValue("stringValue", target -> target.stringValue)
+    )
+  );
+
+  @Test
+  void shouldMatchTerms()
+  {
+    Target target = new Target(1, "Test");
+
+    assertTrue(this.predicateFactory.equal("intValue", 1).test(target));
+    assertFalse(this.predicateFactory.equal("intValue", 2).test(target));
+    assertTrue(this.predicateFactory.notEqual("stringValue", "X").test(target));
+    assertTrue(this.predicateFactory.greaterThan("intValue", 0).test(target));
+    assertTrue(this.predicateFactory.greaterThanOrEqual("intValue", 1).test(target));
+    assertFalse(this.predicateFactory.lessThan("intValue", 1).test(target));
+    assertTrue(this.predicateFactory.lessThanOrEqual("intValue", 1).test(target));
+    assertTrue(this.predicateFactory.like("stringValue", "T*t").test(target));
+    assertFalse(this.predicateFactory.notLike("stringValue", "T*t").test(target));
+    assertTrue(this.predicateFactory.in("stringValue", List.of("Test", "X")).test(target));
+  }
+
+  @Test
+  void shouldMatchAnd()
+  {
+    Target target = new Target(1, "Test");
+
+    assertTrue(this.predicateFactory.and(this.predicateFactory.equal("intValue", 1), this.predicateFactory.like("stringValue", "T*")).test(target));
+    assertFalse(this.predicateFactory.and(this.predicateFactory.equal("intValue", 1), this.predicateFactory.like("stringValue", "X*")).test(target));
+    assertFalse(this.predicateFactory.and(this.predicateFactory.equal("intValue", 2), this.predicateFactory.like("stringValue", "T*")).test(target));
+    assertFalse(this.predicateFactory.and(object -> false, object -> false).test(target));
+  }
+
+  @Test
+  void shouldMatchOr()
+  {
+    Target target = new Target(1, "Test");
+
+    assertTrue(this.predicateFactory.or(this.predicateFactory.equal("intValue", 1), this.predicateFactory.like("stringValue", "X*")).test(target));
+    assertTrue(this.predicateFactory.or(this.predicateFactory.equal("intValue", 2), this.predicateFactory.like("stringValue", "T*")).test(target));
+    assertFalse(this.predicateFactory.or(this.predicateFactory.equal("intValue", 2), this.predicateFactory.like("stringValue", "X*")).test(target));
+    assertTrue(this.predicateFactory.or(object -> true, object -> false).test(target));
+  }
+
+  @Test
+  void shouldMatchNested()
+  {
+    Predicate<Target> predicate = this.predicateFactory.or(
+      this.predicateFactory.parenthesis(
+        this.predicateFactory.and(this.predicateFactory.equal("intValue", 1), this.predicateFactory.greaterThan("intValue", 0))
+      ),
+      this.predicateFactory.like("stringValue", "X*")
+    );
+
+    assertTrue(predicate.test(new Target(1, "Test")));
+    assertTrue(predicate.test(new Target(2, "XTest")));
+    assertFalse(predicate.test(new Target(2, "Test")));
+  }
+
+  @Test
+  void shouldShortCircuit()
+  {
+    AtomicInteger calls = new AtomicInteger();
+    Predicate<Target> counting = target -> calls.incrementAndGet() > 0;
+
+    this.predicateFactory.and(this.predicateFactory.equal("intValue", 2), counting).test(new Target(1, "Test"));
+    this.predicateFactory.or(this.predicateFactory.equal("intValue", 1), counting).test(new Target(1, "Test"));
+
+    assertFalse(calls.get() > 0);
+  }
+
+  @Test
+  void shouldFailWithException()
+  {
+    assertThrows(QueryException.class, () -> this.predicateFactory.like("intValue", "T*").test(new Target(1, "Test")));
+    assertThrows(QueryException.class, () -> this.predicateFactory.greaterThan("stringValue", 1).test(new Target(1, "Test")));
+    assertThrows(QueryException.class, () -> this.predicateFactory.equal("Missing", 1));
+  }
+
+  private static class Target
+  {
+    private final int intValue;
+    private final String stringValue;
+
+    private Target(int intValue, String stringValue)
+    {
+      this.intValue = intValue;
+      this.stringValue = stringValue;
+    }
+  }
+}
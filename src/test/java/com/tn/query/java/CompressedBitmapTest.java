@@ -0,0 +1,65 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedBitmapTest
+{
+  private static final int SIZE = 200_000;
+
+  @Test
+  void shouldHoldEachKindOfContainer()
+  {
+    //Scattered rows in an array, dense rows in a bitmap and clustered rows in runs.
+    List<Integer> rows = IntStream.concat(
+      IntStream.concat(IntStream.range(0, 100).map(row -> row * 7), IntStream.range(65_536, 131_072).filter(row -> row % 3 != 0)),
+      IntStream.range(131_072, 150_000)
+    ).boxed().toList();
+
+    assertEquals(rows, rows(bitmap(rows).optimise()));
+  }
+
+  @Test
+  void shouldAddToRunsAfterOptimising()
+  {
+    List<Integer> small = IntStream.range(0, 1000).boxed().toList();
+    List<Integer> large = IntStream.range(0, 10_000).boxed().toList();
+
+    assertEquals(List.of(0, 1, 2, 500, 70_000), rows(add(bitmap(List.of(0, 1, 2)).optimise(), 500, 70_000)));
+    assertEquals(IntStream.concat(IntStream.range(0, 1000), IntStream.of(5000)).boxed().toList(), rows(add(bitmap(small).optimise(), 5000)));
+    assertEquals(IntStream.concat(IntStream.range(0, 10_000), IntStream.of(20_000)).boxed().toList(), rows(add(bitmap(large).optimise(), 20_000)));
+  }
+
+  @Test
+  void shouldAddAfterOptimisingEmpty()
+  {
+    assertEquals(List.of(5, 100_000), rows(add(new CompressedBitmap().optimise(), 5, 100_000)));
+  }
+
+  private static CompressedBitmap bitmap(List<Integer> rows)
+  {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    rows.forEach(bitmap::add);
+
+    return bitmap;
+  }
+
+  private static CompressedBitmap add(CompressedBitmap bitmap, int... rows)
+  {
+    for (int row : rows) bitmap.add(row);
+
+    return bitmap;
+  }
+
+  private static List<Integer> rows(CompressedBitmap bitmap)
+  {
+    Selection selection = new Selection(SIZE);
+    bitmap.or(selection);
+
+    return IntStream.range(0, SIZE).filter(selection::get).boxed().toList();
+  }
+}
@@ -0,0 +1,133 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class GetterRegistryTest
+{
+  @Test
+  void shouldRegisterGetter()
+  {
+    GetterRegistry<String> getterRegistry = new GetterRegistry<>(List.of(Getter.comparableValue("value", String::valueOf)));
+    Getter<String> length = Getter.intPrimitive("length", String::length);
+
+    assertEquals(0, getterRegistry.version());
+    assertNull(getterRegistry.get("length"));
+
+    assertEquals(1, getterRegistry.register(length));
+    assertSame(length, getterRegistry.get("length"));
+    assertEquals(2, getterRegistry.getters().size());
+    assertEquals(1, getterRegistry.version());
+  }
+
+  @Test
+  void shouldReplaceGetter()
+  {
+    Getter<String> value = Getter.comparableValue("value", String::valueOf);
+    Getter<String> upperCase = Getter.comparableValue("value", String::toUpperCase);
+    GetterRegistry<String> getterRegistry = new GetterRegistry<>(List.of(value));
+
+    assertEquals(1, getterRegistry.register(upperCase));
+    assertSame(upperCase, getterRegistry.get("value"));
+    assertEquals(1, getterRegistry.getters().size());
+  }
+
+  @Test
+  void shouldRemoveGetter()
+  {
+    GetterRegistry<String> getterRegistry = new GetterRegistry<>(List.of(Getter.comparableValue("value", String::valueOf)));
+
+    assertEquals(1, getterRegistry.remove("value"));
+    assertNull(getterRegistry.get("value"));
+    assertEquals(1, getterRegistry.remove("value"));
+  }
+
+  @Test
+  void shouldNotChangeGettersReturned()
+  {
+    GetterRegistry<String> getterRegistry = new GetterRegistry<>(List.of(Getter.comparableValue("value", String::valueOf)));
+    Collection<Getter<String>> getters = getterRegistry.getters();
+
+    getterRegistry.register(Getter.intPrimitive("length", String::length));
+
+    assertEquals(1, getters.size());
+    assertThrows(UnsupportedOperationException.class, getters::clear);
+  }
+
+  @Test
+  void shouldFailWithDuplicateGetter()
+  {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new GetterRegistry<String>(List.of(Getter.comparableValue("value", String::valueOf), Getter.comparableValue("value", String::toUpperCase)))
+    );
+  }
+
+  @Test
+  void shouldQueryRegisteredGetters()
+  {
+    GetterRegistry<String> getterRegistry = new GetterRegistry<>(List.of(Getter.comparableValue("value", String::valueOf)));
+    JavaPredicateFactory<String> predicateFactory = new JavaPredicateFactory<>(getterRegistry);
+
+    assertThrows(QueryException.class, () -> predicateFactory.greaterThan("length", 2));
+
+    getterRegistry.register(Getter.intPrimitive("length", String::length));
+    Predicate<String> predicate = predicateFactory.greaterThan("length", 2);
+
+    assertTrue(predicate.test("XXX"));
+    assertFalse(predicate.test("XX"));
+
+    //Predicates keep the getter they were built with.
+    getterRegistry.register(Getter.intPrimitive("length", value -> 0));
+
+    assertTrue(predicate.test("XXX"));
+    assertFalse(predicateFactory.greaterThan("length", 2).test("XXX"));
+  }
+
+  @Test
+  void shouldRegisterConcurrently() throws Exception
+  {
+    GetterRegistry<String> getterRegistry = new GetterRegistry<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try
+    {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++)
+      {
+        int offset = thread * 100;
+        futures.add(
+          executor.submit(
+            () ->
+            {
+              for (int i = offset; i < offset + 100; i++) getterRegistry.register(Getter.comparableValue("value" + i, String::valueOf));
+            }
+          )
+        );
+      }
+      for (Future<?> future : futures) future.get();
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+
+    assertEquals(400, getterRegistry.getters().size());
+    assertEquals(400, getterRegistry.version());
+  }
+}
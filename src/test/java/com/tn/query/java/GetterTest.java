@@ -53,6 +53,16 @@ class GetterTest
     assertEquals(0d, getter.get(target));
   }
 
+  @Test
+  void shouldGetDoublePrimitive()
+  {
+    Getter<Object> getter = Getter.doublePrimitive("doublePrimitive", object -> object.equals(target) ? 0d : 1d);
+
+    assertEquals("doublePrimitive", getter.name());
+    assertEquals(0d, getter.get(target));
+    assertEquals(0d, ((Getter.DoubleGetter<Object>)getter).getDouble(target));
+  }
+
   @Test
   void shouldGetFloat()
   {
@@ -71,6 +81,16 @@ class GetterTest
     assertEquals(0, getter.get(target));
   }
 
+  @Test
+  void shouldGetIntPrimitive()
+  {
+    Getter<Object> getter = Getter.intPrimitive("intPrimitive", object -> object.equals(target) ? 0 : 1);
+
+    assertEquals("intPrimitive", getter.name());
+    assertEquals(0, getter.get(target));
+    assertEquals(0, ((Getter.IntGetter<Object>)getter).getInt(target));
+  }
+
   @Test
   void shouldGetLong()
   {
@@ -80,6 +100,16 @@ class GetterTest
     assertEquals(0L, getter.get(target));
   }
 
+  @Test
+  void shouldGetLongPrimitive()
+  {
+    Getter<Object> getter = Getter.longPrimitive("longPrimitive", object -> object.equals(target) ? 0L : 1L);
+
+    assertEquals("longPrimitive", getter.name());
+    assertEquals(0L, getter.get(target));
+    assertEquals(0L, ((Getter.LongGetter<Object>)getter).getLong(target));
+  }
+
   @Test
   void shouldGetShort()
   {
@@ -0,0 +1,193 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.toMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.java.Getter.DoubleGetter;
+import com.tn.query.java.Getter.IntGetter;
+import com.tn.query.java.Getter.LongGetter;
+
+class GettersTest
+{
+  private static final Person PERSON = new Person(1, 2L, 3.5, true, 'x', "Smith", new Address("London", new Postcode("SW1")));
+
+  @Test
+  void shouldGetRecordComponents()
+  {
+    Map<String, Getter<Person>> getters = byName(Getters.forRecord(Person.class));
+
+    assertEquals(List.of("id", "count", "score", "active", "initial", "name", "address"), List.copyOf(getters.keySet()));
+    assertTrue(getters.get("id") instanceof IntGetter);
+    assertTrue(getters.get("count") instanceof LongGetter);
+    assertTrue(getters.get("score") instanceof DoubleGetter);
+    assertEquals(1, ((IntGetter<Person>)getters.get("id")).getInt(PERSON));
+    assertEquals(2L, ((LongGetter<Person>)getters.get("count")).getLong(PERSON));
+    assertEquals(3.5, ((DoubleGetter<Person>)getters.get("score")).getDouble(PERSON));
+    assertEquals(1, getters.get("id").get(PERSON));
+    assertEquals(true, getters.get("active").get(PERSON));
+    assertEquals('x', getters.get("initial").get(PERSON));
+    assertEquals("Smith", getters.get("name").get(PERSON));
+    assertEquals(PERSON.address(), getters.get("address").get(PERSON));
+  }
+
+  @Test
+  void shouldGetBeanProperties()
+  {
+    Map<String, Getter<Bean>> getters = byName(Getters.forBean(Bean.class));
+    Bean bean = new Bean();
+
+    assertEquals(List.of("age", "name", "URL", "valid"), List.copyOf(getters.keySet()));
+    assertTrue(getters.get("age") instanceof IntGetter);
+    assertEquals(42, getters.get("age").get(bean));
+    assertEquals("Jones", getters.get("name").get(bean));
+    assertEquals(true, getters.get("valid").get(bean));
+    assertEquals("http://localhost", getters.get("URL").get(bean));
+  }
+
+  @Test
+  void shouldGetPath()
+  {
+    Getter<Person> city = Getters.forPath(Person.class, "address.city");
+    Getter<Person> postcode = Getters.forPath(Person.class, "address.postcode.value");
+
+    assertEquals("address.city", city.name());
+    assertEquals("London", city.get(PERSON));
+    assertEquals("SW1", postcode.get(PERSON));
+    assertNull(postcode.get(new Person(1, 2L, 3.5, true, 'x', "Smith", new Address("Paris", null))));
+    assertNull(city.get(new Person(1, 2L, 3.5, true, 'x', "Smith", null)));
+    assertTrue(Getters.forPath(Person.class, "id") instanceof IntGetter);
+  }
+
+  @Test
+  void shouldCacheGetters()
+  {
+    assertSame(Getters.forRecord(Person.class).get(0), Getters.forRecord(Person.class).get(0));
+    assertSame(Getters.forPath(Person.class, "address.city"), Getters.forPath(Person.class, "address.city"));
+  }
+
+  @Test
+  void shouldQueryWithGetters()
+  {
+    JavaPredicateFactory<Person> predicateFactory = new JavaPredicateFactory<>(
+      List.of(Getters.forRecord(Person.class).get(0), Getters.forPath(Person.class, "address.city"))
+    );
+
+    assertTrue(predicateFactory.and(predicateFactory.greaterThan("id", 0), predicateFactory.equal("address.city", "London")).test(PERSON));
+  }
+
+  @Test
+  void shouldFailForMissingProperty()
+  {
+    assertThrows(IllegalArgumentException.class, () -> Getters.forPath(Person.class, "address.country"));
+    assertThrows(IllegalArgumentException.class, () -> Getters.forBean(Person.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldGetRecordComponentsFromOtherClassLoader() throws Exception
+  {
+    Class<? extends Record> type = (Class<? extends Record>)new IsolatingClassLoader(Measurement.class).loadClass(Measurement.class.getName());
+    Constructor<? extends Record> constructor = type.getDeclaredConstructor(int.class, long.class, double.class, String.class);
+    constructor.setAccessible(true);
+    Object measurement = constructor.newInstance(1, 2L, 3.5, "Smith");
+    Map<String, Getter<Object>> getters = byName((List<Getter<Object>>)(List<?>)Getters.forRecord(type));
+
+    assertTrue(type != Measurement.class);
+    assertEquals(1, ((IntGetter<Object>)getters.get("id")).getInt(measurement));
+    assertEquals(2L, ((LongGetter<Object>)getters.get("count")).getLong(measurement));
+    assertEquals(3.5, ((DoubleGetter<Object>)getters.get("score")).getDouble(measurement));
+    assertEquals("Smith", getters.get("name").get(measurement));
+  }
+
+  private <T> Map<String, Getter<T>> byName(List<Getter<T>> getters)
+  {
+    return getters.stream().collect(toMap(Getter::name, Function.identity(), (getter1, getter2) -> getter1, LinkedHashMap::new));
+  }
+
+  private record Person(int id, long count, double score, boolean active, char initial, String name, Address address) {}
+
+  private record Address(String city, Postcode postcode) {}
+
+  private record Postcode(String value) {}
+
+  private record Measurement(int id, long count, double score, String name) {}
+
+  //Defines the given class itself rather than delegating to its parent, so the class is in another class loader's unnamed module.
+  private static class IsolatingClassLoader extends ClassLoader
+  {
+    private final String name;
+
+    private IsolatingClassLoader(Class<?> type)
+    {
+      super(type.getClassLoader());
+      this.name = type.getName();
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+    {
+      if (!name.equals(this.name)) return super.loadClass(name, resolve);
+
+      synchronized (getClassLoadingLock(name))
+      {
+        Class<?> type = findLoadedClass(name);
+        if (type != null) return type;
+
+        try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class"))
+        {
+          byte[] bytes = in.readAllBytes();
+          return defineClass(name, bytes, 0, bytes.length);
+        }
+        catch (IOException e)
+        {
+          throw new ClassNotFoundException(name, e);
+        }
+      }
+    }
+  }
+
+  public static class Bean
+  {
+    public int getAge()
+    {
+      return 42;
+    }
+
+    public String getName()
+    {
+      return "Jones";
+    }
+
+    public boolean isValid()
+    {
+      return true;
+    }
+
+    public String getURL()
+    {
+      return "http://localhost";
+    }
+
+    public void setName(String name) {}
+
+    public static String getStatic()
+    {
+      return "static";
+    }
+  }
+}
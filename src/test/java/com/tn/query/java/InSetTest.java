@@ -0,0 +1,106 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class InSetTest
+{
+  @Test
+  void shouldMatchEmpty()
+  {
+    assertFalse(InSet.of(List.of()).test(1));
+    assertFalse(InSet.of(List.of()).test(null));
+  }
+
+  @Test
+  void shouldMatchSmallInts()
+  {
+    Predicate<Object> in = InSet.of(List.of(3, 1, 2, 0));
+
+    assertTrue(in.test(0));
+    assertTrue(in.test(2));
+    assertFalse(in.test(4));
+    assertFalse(in.test(2L));
+    assertFalse(in.test("2"));
+    assertFalse(in.test(null));
+  }
+
+  @Test
+  void shouldMatchLargeInts()
+  {
+    Predicate<Object> in = InSet.of(IntStream.range(-500, 500).map(i -> i * 7).boxed().collect(toList()));
+
+    assertTrue(in.test(0));
+    assertTrue(in.test(-3500));
+    assertTrue(in.test(3493));
+    assertFalse(in.test(1));
+    assertFalse(in.test(3500));
+    assertFalse(in.test(7L));
+    assertFalse(in.test(null));
+  }
+
+  @Test
+  void shouldMatchLargeLongs()
+  {
+    Predicate<Object> in = InSet.of(LongStream.range(0, 1000).map(l -> l * Integer.MAX_VALUE).boxed().collect(toList()));
+
+    assertTrue(in.test(0L));
+    assertTrue(in.test(999L * Integer.MAX_VALUE));
+    assertFalse(in.test(1L));
+    assertFalse(in.test(0));
+  }
+
+  @Test
+  void shouldMatchShortsBytesAndChars()
+  {
+    assertTrue(InSet.of(List.of((short)1, (short)2)).test((short)2));
+    assertFalse(InSet.of(List.of((short)1, (short)2)).test(2));
+    assertTrue(InSet.of(List.of((byte)1, (byte)2)).test((byte)1));
+    assertFalse(InSet.of(List.of((byte)1, (byte)2)).test((short)1));
+    assertTrue(InSet.of(List.of('a', 'b')).test('b'));
+    assertFalse(InSet.of(List.of('a', 'b')).test((int)'b'));
+  }
+
+  @Test
+  void shouldMatchNull()
+  {
+    Predicate<Object> in = InSet.of(Arrays.asList(1, null, 2));
+
+    assertTrue(in.test(null));
+    assertTrue(in.test(1));
+    assertFalse(in.test(3));
+  }
+
+  @Test
+  void shouldMatchComparables()
+  {
+    Predicate<Object> in = InSet.of(List.of("A", "B", 1, new BigDecimal("1.0")));
+
+    assertTrue(in.test("A"));
+    assertTrue(in.test(1));
+    assertTrue(in.test(new BigDecimal("1.0")));
+    assertFalse(in.test(new BigDecimal("1.00")));
+    assertFalse(in.test("C"));
+  }
+
+  @Test
+  void shouldMatchOtherObjects()
+  {
+    Object value = new Object();
+    Predicate<Object> in = InSet.of(List.of(value, "A"));
+
+    assertTrue(in.test(value));
+    assertTrue(in.test("A"));
+    assertFalse(in.test(new Object()));
+  }
+}
@@ -0,0 +1,242 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class IndexedCollectionTest
+{
+  private final AtomicInteger nameReads = new AtomicInteger();
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> target.id),
+    Getter.intValue("age", target -> target.age),
+    Getter.comparableValue("name", target -> { this.nameReads.incrementAndGet(); return target.name; })
+  );
+  private final JavaPredicateFactory<Target> predicateFactory = new JavaPredicateFactory<>(this.getters);
+
+  @Test
+  void shouldFilterWithHashIndex()
+  {
+    IndexedCollection<Target> targets = targets(1000).withHashIndex("id");
+
+    assertEquals(Set.of(new Target(5)), Set.copyOf(targets.filter(this.predicateFactory.equal("id", 5))));
+    assertEquals(Set.of(new Target(5), new Target(7)), Set.copyOf(targets.filter(this.predicateFactory.in("id", List.of(5, 7, 5000)))));
+    assertTrue(targets.filter(this.predicateFactory.equal("id", 5000)).isEmpty());
+  }
+
+  @Test
+  void shouldFilterWithRangeIndex()
+  {
+    IndexedCollection<Target> targets = targets(1000).withRangeIndex("age");
+
+    assertEquals(expected(1000, target -> target.age > 95), Set.copyOf(targets.filter(this.predicateFactory.greaterThan("age", 95))));
+    assertEquals(expected(1000, target -> target.age >= 95), Set.copyOf(targets.filter(this.predicateFactory.greaterThanOrEqual("age", 95))));
+    assertEquals(expected(1000, target -> target.age < 3), Set.copyOf(targets.filter(this.predicateFactory.lessThan("age", 3))));
+    assertEquals(expected(1000, target -> target.age <= 3), Set.copyOf(targets.filter(this.predicateFactory.lessThanOrEqual("age", 3))));
+    assertEquals(
+      expected(1000, target -> target.age > 10 && target.age <= 12),
+      Set.copyOf(targets.filter(this.predicateFactory.and(this.predicateFactory.greaterThan("age", 10), this.predicateFactory.lessThanOrEqual("age", 12))))
+    );
+    assertTrue(targets.filter(this.predicateFactory.and(this.predicateFactory.greaterThan("age", 12), this.predicateFactory.lessThan("age", 10))).isEmpty());
+  }
+
+  @Test
+  void shouldFilterWithTrigramIndex()
+  {
+    IndexedCollection<Target> targets = targets(1000).withTrigramIndex("name");
+    this.nameReads.set(0);
+
+    assertEquals(expected(1000, target -> target.name.contains("123")), Set.copyOf(targets.filter(this.predicateFactory.like("name", "*123*"))));
+    assertEquals(expected(1000, target -> target.name.endsWith("99")), Set.copyOf(targets.filter(this.predicateFactory.like("name", "*99"))));
+    assertEquals(expected(1000, target -> target.name.startsWith("Name12")), Set.copyOf(targets.filter(this.predicateFactory.like("name", "Name12*"))));
+    assertEquals(
+      expected(1000, target -> target.name.startsWith("Name4") && target.name.endsWith("7")),
+      Set.copyOf(targets.filter(this.predicateFactory.like("name", "Name4*7")))
+    );
+    assertEquals(Set.of(new Target(7)), Set.copyOf(targets.filter(this.predicateFactory.like("name", "Name7"))));
+    assertTrue(targets.filter(this.predicateFactory.like("name", "*xyz*")).isEmpty());
+    assertTrue(this.nameReads.get() < 100);
+
+    assertEquals(expected(1000, target -> target.name.contains("e5")), Set.copyOf(targets.filter(this.predicateFactory.like("name", "*e5*"))));
+  }
+
+  @Test
+  void shouldOnlyTestIndexedCandidates()
+  {
+    IndexedCollection<Target> targets = targets(1000).withHashIndex("id").withRangeIndex("age");
+    this.nameReads.set(0);
+
+    List<Target> matches = targets.filter(
+      this.predicateFactory.and(
+        this.predicateFactory.like("name", "Name*"),
+        this.predicateFactory.or(this.predicateFactory.equal("id", 5), this.predicateFactory.in("id", List.of(6, 7)))
+      )
+    );
+
+    assertEquals(Set.of(new Target(5), new Target(6), new Target(7)), Set.copyOf(matches));
+    assertEquals(3, this.nameReads.get());
+  }
+
+  @Test
+  void shouldFilterWithoutIndex()
+  {
+    IndexedCollection<Target> targets = targets(100).withHashIndex("id");
+
+    assertEquals(expected(100, target -> target.name.endsWith("1")), Set.copyOf(targets.filter(this.predicateFactory.like("name", "*1"))));
+    assertEquals(
+      expected(100, target -> target.id == 1 || target.name.endsWith("2")),
+      Set.copyOf(targets.filter(this.predicateFactory.or(this.predicateFactory.equal("id", 1), this.predicateFactory.like("name", "*2"))))
+    );
+  }
+
+  @Test
+  void shouldFilterCompiledPredicates()
+  {
+    IndexedCollection<Target> targets = targets(1000).withHashIndex("id");
+    CompilingPredicateFactory<Target> compilingPredicateFactory = new CompilingPredicateFactory<>(this.getters);
+    this.nameReads.set(0);
+
+    assertEquals(
+      Set.of(new Target(5)),
+      Set.copyOf(targets.filter(compilingPredicateFactory.and(compilingPredicateFactory.equal("id", 5), compilingPredicateFactory.like("name", "N*"))))
+    );
+    assertEquals(1, this.nameReads.get());
+  }
+
+  @Test
+  void shouldMaintainIndexes()
+  {
+    IndexedCollection<Target> targets = targets(10).withHashIndex("id").withRangeIndex("age").withTrigramIndex("name");
+
+    assertTrue(targets.remove(new Target(5)));
+    assertTrue(targets.filter(this.predicateFactory.like("name", "Name5")).isEmpty());
+    assertFalse(targets.remove(new Target(5)));
+    assertTrue(targets.filter(this.predicateFactory.equal("id", 5)).isEmpty());
+    assertTrue(targets.filter(this.predicateFactory.greaterThanOrEqual("age", 5)).stream().noneMatch(target -> target.id == 5));
+
+    Iterator<Target> iterator = targets.iterator();
+    iterator.next();
+    iterator.remove();
+
+    assertEquals(8, targets.size());
+    assertTrue(targets.filter(this.predicateFactory.equal("id", 0)).isEmpty());
+
+    assertTrue(targets.add(new Target(5)));
+    assertFalse(targets.add(new Target(5)));
+    assertEquals(List.of(new Target(5)), targets.filter(this.predicateFactory.equal("id", 5)));
+    assertEquals(List.of(new Target(5)), targets.filter(this.predicateFactory.like("name", "*me5")));
+
+    targets.clear();
+
+    assertTrue(targets.isEmpty());
+    assertTrue(targets.filter(this.predicateFactory.equal("id", 5)).isEmpty());
+  }
+
+  @Test
+  void shouldFailWithTypeMismatch()
+  {
+    IndexedCollection<Target> targets = targets(10).withRangeIndex("age");
+
+    assertThrows(QueryException.class, () -> targets.filter(this.predicateFactory.greaterThan("age", "X")));
+    assertThrows(
+      QueryException.class,
+      () -> targets(10).withRangeIndex("name").filter(
+        this.predicateFactory.and(this.predicateFactory.greaterThan("name", 1), this.predicateFactory.lessThan("name", 9))
+      )
+    );
+    assertThrows(QueryException.class, () -> targets(10).withTrigramIndex("age").filter(this.predicateFactory.like("age", "*123*")));
+  }
+
+  @Test
+  void shouldFilterInOrderAdded()
+  {
+    IndexedCollection<Target> indexed = new IndexedCollection<>(this.getters).withHashIndex("id").withRangeIndex("age");
+    IndexedCollection<Target> unindexed = new IndexedCollection<>(this.getters);
+    IntStream.range(0, 1000).map(i -> (i * 389) % 1000).mapToObj(Target::new).forEach(target -> { indexed.add(target); unindexed.add(target); });
+
+    Predicate<Target> range = this.predicateFactory.greaterThan("age", 90);
+    Predicate<Target> in = this.predicateFactory.in("id", List.of(900, 5, 389, 17, 778));
+
+    assertEquals(unindexed.filter(range), indexed.filter(range));
+    assertEquals(unindexed.filter(in), indexed.filter(in));
+    assertEquals(List.of(389, 778, 900, 5, 17), indexed.filter(in).stream().map(target -> target.id).collect(Collectors.toList()));
+  }
+
+  @Test
+  void shouldLeaveCollectionUnchangedWhenIndexFails()
+  {
+    List<Getter<Object>> getters = List.of(Getter.comparableValue("value", value -> (Comparable<?>)value));
+    JavaPredicateFactory<Object> predicateFactory = new JavaPredicateFactory<>(getters);
+    IndexedCollection<Object> values = new IndexedCollection<>(getters).withHashIndex("value").withRangeIndex("value");
+    values.add(1);
+    values.add(2);
+
+    assertThrows(QueryException.class, () -> values.add("X"));
+    assertFalse(values.contains("X"));
+    assertEquals(2, values.size());
+    assertTrue(values.filter(predicateFactory.equal("value", "X")).isEmpty());
+    assertEquals(List.of(2), values.filter(predicateFactory.greaterThan("value", 1)));
+  }
+
+  @Test
+  void shouldFailWhenGetterMissing()
+  {
+    assertThrows(QueryException.class, () -> new IndexedCollection<>(this.getters).withHashIndex("missing"));
+  }
+
+  private IndexedCollection<Target> targets(int count)
+  {
+    IndexedCollection<Target> targets = new IndexedCollection<>(this.getters);
+    IntStream.range(0, count).mapToObj(Target::new).forEach(targets::add);
+
+    return targets;
+  }
+
+  private Set<Target> expected(int count, Predicate<Target> predicate)
+  {
+    Set<Target> expected = new HashSet<>();
+    IntStream.range(0, count).mapToObj(Target::new).filter(predicate).forEach(expected::add);
+
+    return expected;
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final Integer age;
+    private final String name;
+
+    private Target(int id)
+    {
+      this.id = id;
+      this.age = id % 100;
+      this.name = "Name" + id;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+      return other instanceof Target && ((Target)other).id == this.id;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return this.id;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.toMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class InstrumentingPredicateFactoryTest
+{
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> target.id),
+    Getter.comparableValue("name", target -> target.name)
+  );
+  private final QueryMetrics queryMetrics = new QueryMetrics(1);
+  private final InstrumentingPredicateFactory<Target> predicateFactory = new InstrumentingPredicateFactory<>(this.getters, this.queryMetrics);
+
+  @Test
+  void shouldRecordTerms()
+  {
+    Predicate<Target> predicate = this.predicateFactory.greaterThan("id", 1);
+
+    assertFalse(predicate.test(new Target(1, "A")));
+    assertTrue(predicate.test(new Target(2, "B")));
+    assertTrue(predicate.test(new Target(3, "C")));
+
+    NodeMetrics node = nodes().get("id GREATER_THAN");
+    assertEquals("id", node.field());
+    assertEquals("GREATER_THAN", node.operator());
+    assertEquals(3, node.invocations());
+    assertEquals(2, node.passes());
+    assertEquals(2.0 / 3, node.passRate());
+    assertEquals(3, node.samples());
+    assertTrue(node.maxNanos() >= 0);
+  }
+
+  @Test
+  void shouldRecordJunctions()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.like("name", "A*"));
+
+    assertTrue(predicate.test(new Target(1, "Ann")));
+    assertFalse(predicate.test(new Target(2, "Ann")));
+
+    Map<String, NodeMetrics> nodes = nodes();
+    assertNull(nodes.get("AND").field());
+    assertEquals(2, nodes.get("AND").invocations());
+    assertEquals(1, nodes.get("AND").passes());
+    assertEquals(2, nodes.get("id EQUAL").invocations());
+    assertEquals(1, nodes.get("name LIKE").invocations());
+  }
+
+  @Test
+  void shouldRecordFailures()
+  {
+    List<String> failures = new ArrayList<>();
+    this.queryMetrics.addListener(
+      new QueryMetricsListener()
+      {
+        @Override
+        public void failed(NodeMetrics node, RuntimeException exception)
+        {
+          failures.add(node.name());
+        }
+      }
+    );
+
+    Predicate<Target> predicate = this.predicateFactory.or(this.predicateFactory.equal("id", 1), this.predicateFactory.greaterThan("name", 5));
+
+    assertThrows(QueryException.class, () -> predicate.test(new Target(2, "B")));
+    assertEquals(List.of("name GREATER_THAN", "OR"), failures);
+    assertEquals(1, nodes().get("name GREATER_THAN").failures());
+  }
+
+  @Test
+  void shouldNotifySamples()
+  {
+    List<Long> samples = new ArrayList<>();
+    this.queryMetrics.addListener(
+      new QueryMetricsListener()
+      {
+        @Override
+        public void sampled(NodeMetrics node, long nanos)
+        {
+          samples.add(nanos);
+        }
+      }
+    );
+
+    this.predicateFactory.equal("id", 1).test(new Target(1, "A"));
+
+    assertEquals(1, samples.size());
+  }
+
+  @Test
+  void shouldReset()
+  {
+    this.predicateFactory.equal("id", 1).test(new Target(1, "A"));
+    this.queryMetrics.reset();
+
+    assertEquals(0, nodes().get("id EQUAL").invocations());
+  }
+
+  @Test
+  void shouldPublishOverJmx() throws Exception
+  {
+    this.predicateFactory.equal("id", 1).test(new Target(1, "A"));
+
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("com.tn.query:type=QueryMetrics,name=test");
+    mBeanServer.registerMBean(this.queryMetrics, name);
+    try
+    {
+      TabularData invocations = (TabularData)mBeanServer.getAttribute(name, "Invocations");
+      assertEquals(1L, invocations.get(new Object[] {"id EQUAL"}).get("value"));
+    }
+    finally
+    {
+      mBeanServer.unregisterMBean(name);
+    }
+  }
+
+  @Test
+  void shouldKeepQueryStructure()
+  {
+    IndexedCollection<Target> targets = new IndexedCollection<>(this.getters).withHashIndex("id");
+    targets.add(new Target(1, "A"));
+    targets.add(new Target(2, "B"));
+
+    assertEquals(List.of(new Target(2, "B")), targets.filter(this.predicateFactory.equal("id", 2)));
+    assertEquals(1, nodes().get("id EQUAL").invocations());
+  }
+
+  private Map<String, NodeMetrics> nodes()
+  {
+    return this.queryMetrics.nodes().stream().collect(toMap(NodeMetrics::name, Function.identity()));
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final String name;
+
+    private Target(int id, String name)
+    {
+      this.id = id;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+      return other instanceof Target && ((Target)other).id == this.id;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return this.id;
+    }
+  }
+}
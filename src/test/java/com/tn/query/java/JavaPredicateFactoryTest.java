@@ -83,7 +83,10 @@ class JavaPredicateFactoryTest
     shouldMatchPredicate("Test", (predicateFactory, left) -> predicateFactory.like(left, "Tes*"));
     shouldMatchPredicate("Test", (predicateFactory, left) -> predicateFactory.like(left, "*est"));
     shouldMatchPredicate("Test", (predicateFactory, left) -> predicateFactory.like(left, "T*st"));
+    shouldMatchPredicate("Test", (predicateFactory, left) -> predicateFactory.like(left, "*es*"));
+    shouldMatchPredicate("T.st", (predicateFactory, left) -> predicateFactory.like(left, "T.s*"));
     shouldNotMatchPredicate("Test", (predicateFactory, left) -> predicateFactory.like(left, "X*"));
+    shouldNotMatchPredicate("Test", (predicateFactory, left) -> predicateFactory.like(left, "T.s*"));
     shouldFailWithException("Test", (predicateFactory, left) -> predicateFactory.like(left, 1));
     shouldFailWithException(1, (predicateFactory, left) -> predicateFactory.like(left, "Test"));
   }
@@ -104,6 +107,8 @@ class JavaPredicateFactoryTest
   {
     shouldMatchPredicate("A", (predicateFactory, left) -> predicateFactory.in(left, List.of("A", "B", "C")));
     shouldNotMatchPredicate("Z", (predicateFactory, left) -> predicateFactory.in(left, List.of("A", "B", "C")));
+    shouldMatchPredicate(1, (predicateFactory, left) -> predicateFactory.in(left, List.of(1, 2, 3)));
+    shouldNotMatchPredicate(1L, (predicateFactory, left) -> predicateFactory.in(left, List.of(1, 2, 3)));
   }
 
   @Test
@@ -131,6 +136,73 @@ class JavaPredicateFactoryTest
     shouldNotMatchPredicate("A", (predicateFactory, left) -> predicateFactory.parenthesis(target -> false));
   }
 
+  @Test
+  void shouldMatchIntPrimitive()
+  {
+    PredicateFactory<Predicate<Integer>> predicateFactory = new JavaPredicateFactory<>(List.of(Getter.intPrimitive("value", Integer::intValue)));
+
+    assertTrue(predicateFactory.equal("value", 1).test(1));
+    assertFalse(predicateFactory.equal("value", 1L).test(1));
+    assertTrue(predicateFactory.notEqual("value", 2).test(1));
+    assertTrue(predicateFactory.greaterThan("value", 0).test(1));
+    assertFalse(predicateFactory.greaterThan("value", 1).test(1));
+    assertTrue(predicateFactory.greaterThanOrEqual("value", 1).test(1));
+    assertTrue(predicateFactory.lessThan("value", 2).test(1));
+    assertFalse(predicateFactory.lessThanOrEqual("value", 0).test(1));
+    assertTrue(predicateFactory.in("value", List.of(1, 2, 3)).test(1));
+    assertFalse(predicateFactory.in("value", List.of(1L, 2L, 3L)).test(1));
+    assertThrows(QueryException.class, () -> predicateFactory.greaterThan("value", 1L));
+    assertThrows(QueryException.class, () -> predicateFactory.greaterThan("value", new Object()));
+  }
+
+  @Test
+  void shouldMatchLongPrimitive()
+  {
+    PredicateFactory<Predicate<Long>> predicateFactory = new JavaPredicateFactory<>(List.of(Getter.longPrimitive("value", Long::longValue)));
+
+    assertTrue(predicateFactory.equal("value", 1L).test(1L));
+    assertFalse(predicateFactory.equal("value", 1).test(1L));
+    assertTrue(predicateFactory.greaterThan("value", 0L).test(1L));
+    assertTrue(predicateFactory.greaterThanOrEqual("value", 1L).test(1L));
+    assertTrue(predicateFactory.lessThan("value", 2L).test(1L));
+    assertFalse(predicateFactory.lessThanOrEqual("value", 0L).test(1L));
+    assertTrue(predicateFactory.in("value", List.of(1L, 2L, 3L)).test(1L));
+    assertThrows(QueryException.class, () -> predicateFactory.lessThan("value", "X"));
+  }
+
+  @Test
+  void shouldMatchDoublePrimitive()
+  {
+    PredicateFactory<Predicate<Double>> predicateFactory = new JavaPredicateFactory<>(List.of(Getter.doublePrimitive("value", Double::doubleValue)));
+
+    assertTrue(predicateFactory.equal("value", 1.5).test(1.5));
+    assertFalse(predicateFactory.equal("value", 1.5F).test(1.5));
+    assertTrue(predicateFactory.greaterThan("value", 1.0).test(1.5));
+    assertTrue(predicateFactory.greaterThanOrEqual("value", 1.5).test(1.5));
+    assertTrue(predicateFactory.lessThan("value", 2.0).test(1.5));
+    assertFalse(predicateFactory.lessThanOrEqual("value", 1.0).test(1.5));
+    assertTrue(predicateFactory.greaterThan("value", 1.0).test(Double.NaN));
+    assertTrue(predicateFactory.in("value", List.of(1.5, 2.5)).test(1.5));
+    assertThrows(QueryException.class, () -> predicateFactory.greaterThan("value", 1));
+  }
+
+  @Test
+  void shouldResolveComparisonsFromDeclaredTypes()
+  {
+    PredicateFactory<Predicate<Integer>> predicateFactory = new JavaPredicateFactory<>(
+      List.of(Getter.intValue("value", value -> value), Getter.comparableValue("comparable", value -> value))
+    );
+
+    assertTrue(predicateFactory.greaterThan("value", 0).test(1));
+    assertFalse(predicateFactory.lessThanOrEqual("value", 0).test(1));
+    assertThrows(QueryException.class, () -> predicateFactory.greaterThan("value", 1L));
+    assertThrows(QueryException.class, () -> predicateFactory.lessThan("value", 1).test(null));
+    assertTrue(predicateFactory.greaterThan("comparable", 0).test(1));
+
+    Predicate<Integer> mismatch = predicateFactory.greaterThan("comparable", 1L);
+    assertThrows(QueryException.class, () -> mismatch.test(1));
+  }
+
   @Test
   void shouldFailWhenGetterMissing()
   {
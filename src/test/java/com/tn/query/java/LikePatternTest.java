@@ -0,0 +1,81 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+class LikePatternTest
+{
+  @Test
+  void shouldMatchExact()
+  {
+    Predicate<String> pattern = LikePattern.compile("Test");
+
+    assertTrue(pattern.test("Test"));
+    assertFalse(pattern.test("Tests"));
+    assertFalse(pattern.test("test"));
+  }
+
+  @Test
+  void shouldMatchPrefix()
+  {
+    Predicate<String> pattern = LikePattern.compile("Tes*");
+
+    assertTrue(pattern.test("Test"));
+    assertTrue(pattern.test("Tes"));
+    assertFalse(pattern.test("Te"));
+    assertFalse(pattern.test("XTest"));
+  }
+
+  @Test
+  void shouldMatchSuffix()
+  {
+    Predicate<String> pattern = LikePattern.compile("*est");
+
+    assertTrue(pattern.test("Test"));
+    assertTrue(pattern.test("est"));
+    assertFalse(pattern.test("Tests"));
+  }
+
+  @Test
+  void shouldMatchContains()
+  {
+    Predicate<String> pattern = LikePattern.compile("*es*");
+
+    assertTrue(pattern.test("Test"));
+    assertTrue(pattern.test("es"));
+    assertFalse(pattern.test("Tst"));
+  }
+
+  @Test
+  void shouldMatchAny()
+  {
+    assertTrue(LikePattern.compile("*").test("Test"));
+    assertTrue(LikePattern.compile("**").test(""));
+  }
+
+  @Test
+  void shouldMatchMultipleWildcards()
+  {
+    Predicate<String> pattern = LikePattern.compile("T*s*t");
+
+    assertTrue(pattern.test("Test"));
+    assertTrue(pattern.test("Tst"));
+    assertTrue(pattern.test("Toast"));
+    assertFalse(pattern.test("Tests"));
+    assertFalse(pattern.test("Tet"));
+  }
+
+  @Test
+  void shouldMatchRegexCharactersLiterally()
+  {
+    assertTrue(LikePattern.compile("T.s*").test("T.st"));
+    assertFalse(LikePattern.compile("T.s*").test("Test"));
+    assertTrue(LikePattern.compile("*(a|b)*[c]").test("x(a|b)y[c]"));
+    assertFalse(LikePattern.compile("*(a|b)*[c]").test("xay c"));
+    assertTrue(LikePattern.compile("a\\E*b").test("a\\Exb"));
+  }
+}
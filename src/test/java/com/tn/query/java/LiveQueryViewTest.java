@@ -0,0 +1,202 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class LiveQueryViewTest
+{
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> target.id),
+    Getter.intValue("age", target -> target.age)
+  );
+  private final JavaPredicateFactory<Target> predicateFactory = new JavaPredicateFactory<>(this.getters);
+  private final LiveCollection<Target> targets = new LiveCollection<>();
+
+  @Test
+  void shouldInitialiseFromCollection()
+  {
+    this.targets.add(new Target(1, 10));
+    this.targets.add(new Target(2, 20));
+
+    LiveQueryView<Target> view = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+
+    assertEquals(Set.of(new Target(2, 20)), view.results());
+    assertEquals(1, view.size());
+  }
+
+  @Test
+  void shouldTrackChanges()
+  {
+    LiveQueryView<Target> view = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+    Events events = new Events();
+    view.addListener(events);
+
+    Target target1 = new Target(1, 10);
+    Target target2 = new Target(2, 20);
+    this.targets.add(target1);
+    this.targets.add(target2);
+
+    assertEquals(Set.of(target2), view.results());
+
+    target1.age = 30;
+    assertTrue(this.targets.update(target1));
+    target2.age = 5;
+    assertTrue(this.targets.update(target2));
+
+    assertEquals(Set.of(target1), view.results());
+
+    assertTrue(this.targets.remove(target1));
+    assertFalse(this.targets.remove(target1));
+
+    assertTrue(view.results().isEmpty());
+    assertEquals(List.of("+2", "+1", "-2", "-1"), events.events);
+  }
+
+  @Test
+  void shouldOnlyNotifyChanges()
+  {
+    LiveQueryView<Target> view = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+    Events events = new Events();
+    view.addListener(events);
+
+    Target target = new Target(1, 20);
+    this.targets.add(target);
+    assertFalse(this.targets.add(new Target(1, 20)));
+    target.age = 25;
+    this.targets.update(target);
+
+    assertEquals(List.of("+1"), events.events);
+    assertFalse(this.targets.update(new Target(2, 20)));
+  }
+
+  @Test
+  void shouldUpdateEveryView()
+  {
+    LiveQueryView<Target> young = this.targets.view(this.predicateFactory.lessThan("age", 18));
+    LiveQueryView<Target> old = this.targets.view(this.predicateFactory.greaterThanOrEqual("age", 18));
+
+    Target target = new Target(1, 10);
+    this.targets.add(target);
+    target.age = 40;
+    this.targets.update(target);
+
+    assertTrue(young.results().isEmpty());
+    assertEquals(Set.of(target), old.results());
+
+    this.targets.clear();
+
+    assertTrue(old.results().isEmpty());
+  }
+
+  @Test
+  void shouldRemoveThroughIterator()
+  {
+    LiveQueryView<Target> view = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+    this.targets.add(new Target(1, 20));
+
+    Iterator<Target> iterator = this.targets.iterator();
+    iterator.next();
+    iterator.remove();
+
+    assertTrue(this.targets.isEmpty());
+    assertTrue(view.results().isEmpty());
+  }
+
+  @Test
+  void shouldStopUpdatingWhenClosed()
+  {
+    LiveQueryView<Target> view = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+    view.close();
+
+    this.targets.add(new Target(1, 20));
+
+    assertTrue(view.results().isEmpty());
+  }
+
+  @Test
+  void shouldLeaveCollectionUnchangedOnFailure()
+  {
+    LiveQueryView<Target> view = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+
+    assertThrows(QueryException.class, () -> this.targets.add(new Target(1, null)));
+    assertTrue(this.targets.isEmpty());
+    assertTrue(view.results().isEmpty());
+  }
+
+  @Test
+  void shouldUpdateEveryViewWhenListenerFails()
+  {
+    LiveQueryView<Target> first = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+    LiveQueryView<Target> second = this.targets.view(this.predicateFactory.greaterThan("age", 15));
+    Events events = new Events();
+    first.addListener(new LiveQueryListener<>()
+    {
+      @Override
+      public void added(Target element)
+      {
+        throw new IllegalStateException("Listener failed");
+      }
+    });
+    second.addListener(events);
+
+    Target target = new Target(1, 20);
+    assertThrows(IllegalStateException.class, () -> this.targets.add(target));
+
+    assertEquals(Set.of(target), this.targets);
+    assertEquals(Set.of(target), first.results());
+    assertEquals(Set.of(target), second.results());
+    assertEquals(List.of("+1"), events.events);
+  }
+
+  private static class Events implements LiveQueryListener<Target>
+  {
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    public void added(Target element)
+    {
+      this.events.add("+" + element.id);
+    }
+
+    @Override
+    public void removed(Target element)
+    {
+      this.events.add("-" + element.id);
+    }
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private Integer age;
+
+    private Target(int id, Integer age)
+    {
+      this.id = id;
+      this.age = age;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+      return other instanceof Target && ((Target)other).id == this.id;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return this.id;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.tn.query.java;
+
+import static java.util.stream.Collectors.toList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.PredicateFactory;
+import com.tn.query.QueryException;
+
+class OptimisingPredicateFactoryTest
+{
+  private final AtomicInteger idReads = new AtomicInteger();
+  private final AtomicInteger nameReads = new AtomicInteger();
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> { this.idReads.incrementAndGet(); return target.id; }),
+    Getter.intPrimitive("age", target -> target.id % 100),
+    Getter.comparableValue("name", target -> { this.nameReads.incrementAndGet(); return target.name; })
+  );
+  private final PredicateFactory<Predicate<Target>> predicateFactory = new OptimisingPredicateFactory<>(this.getters);
+  private final PredicateFactory<Predicate<Target>> javaPredicateFactory = new JavaPredicateFactory<>(this.getters);
+
+  @Test
+  void shouldMatchAnd()
+  {
+    Target target = new Target(1);
+
+    assertTrue(this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.like("name", "N*")).test(target));
+    assertFalse(this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.like("name", "X*")).test(target));
+    assertFalse(this.predicateFactory.and(this.predicateFactory.equal("id", 2), this.predicateFactory.like("name", "N*")).test(target));
+  }
+
+  @Test
+  void shouldMatchOr()
+  {
+    Target target = new Target(1);
+
+    assertTrue(this.predicateFactory.or(this.predicateFactory.equal("id", 1), this.predicateFactory.like("name", "X*")).test(target));
+    assertTrue(this.predicateFactory.or(this.predicateFactory.equal("id", 2), this.predicateFactory.like("name", "N*")).test(target));
+    assertFalse(this.predicateFactory.or(this.predicateFactory.equal("id", 2), this.predicateFactory.like("name", "X*")).test(target));
+  }
+
+  @Test
+  void shouldMatchAsWritten()
+  {
+    Predicate<Target> optimised = query(this.predicateFactory);
+    Predicate<Target> written = query(this.javaPredicateFactory);
+
+    IntStream.range(0, 100_000).mapToObj(Target::new).forEach(target -> assertEquals(written.test(target), optimised.test(target)));
+  }
+
+  @Test
+  void shouldTestCheapOperandFirst()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(
+      this.predicateFactory.in("name", IntStream.range(0, 9).mapToObj(i -> "Name" + i * 7).collect(toList())),
+      this.predicateFactory.equal("id", 5)
+    );
+
+    IntStream.range(0, 1000).mapToObj(Target::new).forEach(predicate::test);
+
+    assertEquals(1000, this.idReads.get());
+    assertTrue(this.nameReads.get() < 100, "name read " + this.nameReads.get() + " times");
+  }
+
+  @Test
+  void shouldNotTestAheadOfOperandThatMayFail()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(this.predicateFactory.like("name", "*1*2*"), this.predicateFactory.equal("id", 5));
+
+    IntStream.range(0, 1000).mapToObj(Target::new).forEach(predicate::test);
+
+    assertEquals(1000, this.nameReads.get());
+  }
+
+  @Test
+  void shouldReorderFromSamples()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(this.predicateFactory.greaterThan("id", -1), this.predicateFactory.greaterThan("age", 1000));
+
+    IntStream.range(0, 100_000).mapToObj(Target::new).forEach(predicate::test);
+    this.idReads.set(0);
+    IntStream.range(0, 10_000).mapToObj(Target::new).forEach(predicate::test);
+
+    assertTrue(this.idReads.get() < 1000, "id read " + this.idReads.get() + " times");
+  }
+
+  @Test
+  void shouldFailWithException()
+  {
+    assertThrows(
+      QueryException.class,
+      () -> this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.like("id", 1)).test(new Target(1))
+    );
+  }
+
+  @Test
+  void shouldFailAsWrittenWhenOperandFails()
+  {
+    List<Getter<Target>> getters = List.of(Getter.intPrimitive("id", target -> target.id), Getter.intValue("age", target -> null));
+    PredicateFactory<Predicate<Target>> predicateFactory = new OptimisingPredicateFactory<>(getters);
+    Predicate<Target> predicate = predicateFactory.and(predicateFactory.greaterThan("age", 30), predicateFactory.equal("id", 1));
+    Predicate<Target> reordered = predicateFactory.and(predicateFactory.equal("id", 1), predicateFactory.greaterThan("age", 30));
+
+    for (int i = 0; i < 10_000; i++)
+    {
+      assertTrue(fails(predicate, new Target(1)));
+      assertTrue(fails(predicate, new Target(2)));
+      assertTrue(fails(reordered, new Target(1)));
+      assertFalse(fails(reordered, new Target(2)));
+    }
+  }
+
+  private boolean fails(Predicate<Target> predicate, Target target)
+  {
+    try
+    {
+      assertFalse(predicate.test(target));
+      return false;
+    }
+    catch (QueryException e)
+    {
+      return true;
+    }
+  }
+
+  private Predicate<Target> query(PredicateFactory<Predicate<Target>> predicateFactory)
+  {
+    return predicateFactory.or(
+      predicateFactory.and(predicateFactory.like("name", "*1*"), predicateFactory.lessThan("age", 50)),
+      predicateFactory.parenthesis(
+        predicateFactory.and(predicateFactory.in("id", List.of(1, 2, 3, 500)), predicateFactory.notEqual("age", 2))
+      )
+    );
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final String name;
+
+    private Target(int id)
+    {
+      this.id = id;
+      this.name = "Name" + id;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class OrderByTest
+{
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> target.id),
+    Getter.intValue("age", target -> target.age),
+    Getter.comparableValue("name", target -> target.name)
+  );
+
+  private final Target ann = new Target(1, 30, "Ann");
+  private final Target bob = new Target(2, null, "Bob");
+  private final Target cat = new Target(3, 25, "Ann");
+  private final Target dan = new Target(4, 30, "Dan");
+
+  @Test
+  void shouldOrderByFields()
+  {
+    assertEquals(List.of(this.cat, this.dan, this.ann, this.bob), sorted("age", "id DESC"));
+    assertEquals(List.of(this.dan, this.bob, this.cat, this.ann), sorted("name desc", "age ASC"));
+    assertEquals(List.of(this.dan, this.cat, this.bob, this.ann), sorted("id DESC"));
+  }
+
+  @Test
+  void shouldOrderNullsLastWhenAscending()
+  {
+    assertEquals(List.of(this.cat, this.ann, this.dan, this.bob), sorted("age", "id"));
+    assertEquals(List.of(this.bob, this.ann, this.dan, this.cat), sorted("age DESC", "id"));
+  }
+
+  @Test
+  void shouldFailForInvalidFields()
+  {
+    assertThrows(QueryException.class, () -> new OrderBy<>(this.getters, List.of()));
+    assertThrows(QueryException.class, () -> new OrderBy<>(this.getters, List.of("missing")));
+    assertThrows(QueryException.class, () -> new OrderBy<>(this.getters, List.of("age UP")));
+    assertThrows(QueryException.class, () -> new OrderBy<>(this.getters, List.of("age DESC id")));
+  }
+
+  private List<Target> sorted(String... fields)
+  {
+    List<Target> targets = new ArrayList<>(List.of(this.ann, this.bob, this.cat, this.dan));
+    targets.sort(new OrderBy<>(this.getters, List.of(fields)));
+
+    return targets;
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final Integer age;
+    private final String name;
+
+    private Target(int id, Integer age, String name)
+    {
+      this.id = id;
+      this.age = age;
+      this.name = name;
+    }
+  }
+}
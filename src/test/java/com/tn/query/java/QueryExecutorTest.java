@@ -0,0 +1,180 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class QueryExecutorTest
+{
+  private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+  private final List<Integer> targets = IntStream.range(0, 100_000).boxed().toList();
+  private final Predicate<Integer> predicate = value -> value % 7 == 3;
+  private final QueryExecutor<Integer> queryExecutor = new QueryExecutor<>(this.predicate, POOL);
+
+  @Test
+  void shouldFilterInOrder()
+  {
+    assertEquals(this.targets.stream().filter(this.predicate).toList(), this.queryExecutor.filter(this.targets));
+  }
+
+  @Test
+  void shouldFilterArray()
+  {
+    assertEquals(this.targets.stream().filter(this.predicate).toList(), this.queryExecutor.filter(this.targets.toArray(new Integer[0])));
+  }
+
+  @Test
+  void shouldFilterLinkedList()
+  {
+    assertEquals(this.targets.stream().filter(this.predicate).toList(), this.queryExecutor.filter(new LinkedList<>(this.targets)));
+  }
+
+  @Test
+  void shouldFilterSmallAndEmptyLists()
+  {
+    assertEquals(List.of(3, 10), this.queryExecutor.filter(List.of(1, 3, 5, 10, 12)));
+    assertTrue(this.queryExecutor.filter(List.of()).isEmpty());
+  }
+
+  @Test
+  void shouldCount()
+  {
+    assertEquals(this.targets.stream().filter(this.predicate).count(), this.queryExecutor.count(this.targets));
+    assertEquals(0, this.queryExecutor.count(List.of()));
+  }
+
+  @Test
+  void shouldReturnFirst()
+  {
+    assertEquals(List.of(3, 10, 17), this.queryExecutor.first(this.targets, 3));
+    assertEquals(this.targets.stream().filter(this.predicate).limit(5000).toList(), this.queryExecutor.first(this.targets, 5000));
+    assertEquals(this.targets.stream().filter(this.predicate).toList(), this.queryExecutor.first(this.targets, Integer.MAX_VALUE));
+    assertTrue(this.queryExecutor.first(this.targets, 0).isEmpty());
+  }
+
+  @Test
+  void shouldStopFirstEarly()
+  {
+    AtomicInteger tested = new AtomicInteger();
+    QueryExecutor<Integer> queryExecutor = new QueryExecutor<>(value -> tested.incrementAndGet() > 0, POOL);
+
+    assertEquals(List.of(0, 1), queryExecutor.first(this.targets, 2));
+    assertTrue(tested.get() < this.targets.size());
+  }
+
+  @Test
+  void shouldNotAcceptNegativeLimit()
+  {
+    assertThrows(IllegalArgumentException.class, () -> this.queryExecutor.first(this.targets, -1));
+  }
+
+  @Test
+  void shouldPage()
+  {
+    List<Integer> matches = new ArrayList<>();
+    Page<Integer> page = null;
+    int pages = 0;
+    do
+    {
+      page = this.queryExecutor.page(this.targets, page != null ? page.continuation() : null, 1000);
+      assertTrue(page.matches().size() <= 1000);
+
+      matches.addAll(page.matches());
+      pages++;
+    }
+    while (page.hasMore());
+
+    assertEquals(this.targets.stream().filter(this.predicate).toList(), matches);
+    assertEquals(matches.size() / 1000 + 1, pages);
+  }
+
+  @Test
+  void shouldPageFromContinuation()
+  {
+    AtomicInteger tested = new AtomicInteger();
+    QueryExecutor<Integer> queryExecutor = new QueryExecutor<>(value -> tested.incrementAndGet() > 0 && value % 7 == 3, POOL);
+
+    Page<Integer> first = queryExecutor.page(this.targets, null, 2);
+    assertEquals(List.of(3, 10), first.matches());
+    assertTrue(first.hasMore());
+
+    tested.set(0);
+    Page<Integer> second = queryExecutor.page(this.targets.toArray(new Integer[0]), first.continuation(), 2);
+    assertEquals(List.of(17, 24), second.matches());
+    assertTrue(tested.get() < this.targets.size());
+
+    Page<Integer> last = queryExecutor.page(List.of(1, 3, 5, 10, 12), null, 5);
+    assertEquals(List.of(3, 10), last.matches());
+    assertFalse(last.hasMore());
+    assertTrue(queryExecutor.page(List.of(1, 3, 5, 10, 12), last.continuation(), 5).matches().isEmpty());
+  }
+
+  @Test
+  void shouldPageObjectsAddedAtEnd()
+  {
+    List<Integer> targets = new ArrayList<>(List.of(1, 3, 5, 10));
+
+    Page<Integer> first = this.queryExecutor.page(targets, null, 2);
+    assertEquals(List.of(3, 10), first.matches());
+    assertFalse(first.hasMore());
+
+    targets.add(17);
+    assertEquals(List.of(17), this.queryExecutor.page(targets, first.continuation(), 2).matches());
+  }
+
+  @Test
+  void shouldNotAcceptInvalidPage()
+  {
+    String continuation = this.queryExecutor.page(this.targets, null, 10).continuation();
+
+    assertThrows(IllegalArgumentException.class, () -> this.queryExecutor.page(this.targets, null, 0));
+    assertThrows(IllegalArgumentException.class, () -> this.queryExecutor.page(this.targets, "not a continuation", 10));
+    assertThrows(IllegalArgumentException.class, () -> this.queryExecutor.page(this.targets, "AAAA", 10));
+    assertThrows(IllegalArgumentException.class, () -> this.queryExecutor.page(List.of(1, 2), continuation, 10));
+  }
+
+  @Test
+  void shouldReturnTop()
+  {
+    Comparator<Integer> order = Comparator.comparing(value -> value % 100, Comparator.reverseOrder());
+
+    assertEquals(this.targets.stream().filter(this.predicate).sorted(order).limit(50).toList(), this.queryExecutor.top(this.targets, order, 50));
+    assertEquals(this.targets.stream().filter(this.predicate).sorted(order).toList(), this.queryExecutor.top(this.targets, order, Integer.MAX_VALUE));
+    assertEquals(List.of(10, 3), this.queryExecutor.top(new Integer[] {1, 3, 5, 10, 12}, Comparator.reverseOrder(), 5));
+    assertTrue(this.queryExecutor.top(this.targets, order, 0).isEmpty());
+    assertTrue(this.queryExecutor.top(List.of(), order, 10).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> this.queryExecutor.top(this.targets, order, -1));
+  }
+
+  @Test
+  void shouldCheckExists()
+  {
+    assertTrue(this.queryExecutor.exists(this.targets));
+    assertTrue(new QueryExecutor<Integer>(value -> value == 99_999, POOL).exists(this.targets));
+    assertFalse(new QueryExecutor<Integer>(value -> value < 0, POOL).exists(this.targets));
+    assertFalse(this.queryExecutor.exists(List.of()));
+  }
+
+  @Test
+  void shouldStopExistsEarly()
+  {
+    AtomicInteger tested = new AtomicInteger();
+    QueryExecutor<Integer> queryExecutor = new QueryExecutor<>(value -> tested.incrementAndGet() > 0, POOL);
+
+    assertTrue(queryExecutor.exists(this.targets));
+    assertTrue(tested.get() < this.targets.size());
+  }
+}
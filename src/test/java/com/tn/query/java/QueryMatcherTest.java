@@ -0,0 +1,135 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class QueryMatcherTest
+{
+  private final AtomicInteger nameReads = new AtomicInteger();
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> target.id),
+    Getter.intValue("age", target -> target.age),
+    Getter.comparableValue("name", target -> { this.nameReads.incrementAndGet(); return target.name; })
+  );
+  private final JavaPredicateFactory<Target> predicateFactory = new JavaPredicateFactory<>(this.getters);
+  private final QueryMatcher<Target> queryMatcher = new QueryMatcher<>();
+
+  @Test
+  void shouldMatchEqualAndIn()
+  {
+    this.queryMatcher.add("equal", this.predicateFactory.equal("id", 1));
+    this.queryMatcher.add("in", this.predicateFactory.in("id", List.of(1, 2)));
+    this.queryMatcher.add("name", this.predicateFactory.equal("name", "B"));
+
+    assertEquals(List.of("equal", "in"), this.queryMatcher.match(new Target(1, 10, "A")));
+    assertEquals(List.of("in", "name"), this.queryMatcher.match(new Target(2, 10, "B")));
+    assertTrue(this.queryMatcher.match(new Target(3, 10, "C")).isEmpty());
+  }
+
+  @Test
+  void shouldMatchRanges()
+  {
+    IntStream.range(0, 100).forEach(
+      i -> this.queryMatcher.add(
+        "between" + i,
+        this.predicateFactory.and(this.predicateFactory.greaterThan("age", i), this.predicateFactory.lessThanOrEqual("age", i + 10))
+      )
+    );
+    this.queryMatcher.add("over", this.predicateFactory.greaterThanOrEqual("age", 50));
+    this.queryMatcher.add("under", this.predicateFactory.lessThan("age", 5));
+
+    assertEquals(
+      List.of("between40", "between41", "between42", "between43", "between44", "between45", "between46", "between47", "between48", "between49", "over"),
+      this.queryMatcher.match(new Target(1, 50, "A"))
+    );
+    assertEquals(List.of("between0", "between1", "under"), this.queryMatcher.match(new Target(1, 2, "A")));
+  }
+
+  @Test
+  void shouldMatchJunctions()
+  {
+    this.queryMatcher.add(
+      "and",
+      this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.like("name", "A*"))
+    );
+    this.queryMatcher.add(
+      "or",
+      this.predicateFactory.or(this.predicateFactory.equal("id", 2), this.predicateFactory.greaterThan("age", 60))
+    );
+    this.queryMatcher.add("like", this.predicateFactory.like("name", "*Z"));
+
+    assertEquals(List.of("and"), this.queryMatcher.match(new Target(1, 10, "Ann")));
+    assertEquals(List.of("or"), this.queryMatcher.match(new Target(2, 10, "Bob")));
+    assertEquals(List.of("or", "like"), this.queryMatcher.match(new Target(3, 70, "LIZ")));
+  }
+
+  @Test
+  void shouldOnlyTestCandidates()
+  {
+    IntStream.range(0, 1000).forEach(
+      i -> this.queryMatcher.add("query" + i, this.predicateFactory.and(this.predicateFactory.equal("id", i), this.predicateFactory.like("name", "A*")))
+    );
+    this.queryMatcher.match(new Target(0, 10, "A"));
+    this.nameReads.set(0);
+
+    assertEquals(List.of("query5"), this.queryMatcher.match(new Target(5, 10, "Ann")));
+    assertEquals(1, this.nameReads.get());
+  }
+
+  @Test
+  void shouldNotMatchFailingQueries()
+  {
+    this.queryMatcher.add("mismatch", this.predicateFactory.greaterThan("name", 5));
+    this.queryMatcher.add("null", this.predicateFactory.lessThan("age", 5));
+    this.queryMatcher.add("valid", this.predicateFactory.equal("id", 1));
+
+    assertEquals(List.of("valid"), this.queryMatcher.match(new Target(1, null, "A")));
+  }
+
+  @Test
+  void shouldAddAndRemoveQueries()
+  {
+    this.queryMatcher.add("query", this.predicateFactory.equal("id", 1));
+
+    assertEquals(List.of("query"), this.queryMatcher.match(new Target(1, 10, "A")));
+
+    this.queryMatcher.add("query", this.predicateFactory.equal("id", 2));
+
+    assertTrue(this.queryMatcher.match(new Target(1, 10, "A")).isEmpty());
+    assertEquals(1, this.queryMatcher.size());
+    assertTrue(this.queryMatcher.remove("query"));
+    assertFalse(this.queryMatcher.remove("query"));
+    assertTrue(this.queryMatcher.match(new Target(2, 10, "A")).isEmpty());
+  }
+
+  @Test
+  void shouldMatchCompiledPredicates()
+  {
+    CompilingPredicateFactory<Target> compilingPredicateFactory = new CompilingPredicateFactory<>(this.getters);
+    this.queryMatcher.add("compiled", compilingPredicateFactory.or(compilingPredicateFactory.equal("id", 1), compilingPredicateFactory.in("age", List.of(5))));
+
+    assertEquals(List.of("compiled"), this.queryMatcher.match(new Target(2, 5, "A")));
+    assertTrue(this.queryMatcher.match(new Target(2, 6, "A")).isEmpty());
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final Integer age;
+    private final String name;
+
+    private Target(int id, Integer age, String name)
+    {
+      this.id = id;
+      this.age = age;
+      this.name = name;
+    }
+  }
+}
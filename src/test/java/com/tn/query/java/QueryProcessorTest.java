@@ -0,0 +1,218 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class QueryProcessorTest
+{
+  private final RangePublisher publisher = new RangePublisher(10_000);
+  private final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+  @Test
+  void shouldPassOnMatchesAsRequested()
+  {
+    QueryProcessor<Integer> processor = new QueryProcessor<>(value -> value % 3 == 0);
+    this.publisher.subscribe(processor);
+    processor.subscribe(this.subscriber);
+
+    this.subscriber.subscription.request(10);
+    assertEquals(IntStream.range(0, 10).map(value -> value * 3).boxed().toList(), this.subscriber.items);
+    assertTrue(this.publisher.next <= 30 + QueryProcessor.BATCH_SIZE);
+
+    this.subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals(3334, this.subscriber.items.size());
+    assertTrue(this.subscriber.complete);
+  }
+
+  @Test
+  void shouldCancelAtLimit()
+  {
+    QueryProcessor<Integer> processor = new QueryProcessor<>(value -> value % 3 == 0, 5);
+    this.publisher.subscribe(processor);
+    processor.subscribe(this.subscriber);
+
+    this.subscriber.subscription.request(100);
+    assertEquals(List.of(0, 3, 6, 9, 12), this.subscriber.items);
+    assertTrue(this.subscriber.complete);
+    assertTrue(this.publisher.cancelled);
+    assertTrue(this.publisher.next < 100);
+  }
+
+  @Test
+  void shouldFailWhenPredicateThrows()
+  {
+    QueryProcessor<Integer> processor = new QueryProcessor<>(value -> { if (value == 5) throw new QueryException("Failed"); return true; });
+    this.publisher.subscribe(processor);
+    processor.subscribe(this.subscriber);
+
+    this.subscriber.subscription.request(100);
+    assertEquals(List.of(0, 1, 2, 3, 4), this.subscriber.items);
+    assertTrue(this.subscriber.error instanceof QueryException);
+    assertTrue(this.publisher.cancelled);
+  }
+
+  @Test
+  void shouldCompleteWhenPublisherCompletesBeforeSubscribing()
+  {
+    QueryProcessor<Integer> processor = new QueryProcessor<>(value -> true);
+    new RangePublisher(0).subscribe(processor);
+    processor.subscribe(this.subscriber);
+
+    assertTrue(this.subscriber.complete);
+  }
+
+  @Test
+  void shouldRejectSecondSubscriber()
+  {
+    QueryProcessor<Integer> processor = new QueryProcessor<>(value -> true);
+    processor.subscribe(this.subscriber);
+
+    RecordingSubscriber second = new RecordingSubscriber();
+    processor.subscribe(second);
+
+    assertTrue(second.error instanceof IllegalStateException);
+  }
+
+  @Test
+  void shouldFailForInvalidRequests()
+  {
+    QueryProcessor<Integer> processor = new QueryProcessor<>(value -> true);
+    this.publisher.subscribe(processor);
+    processor.subscribe(this.subscriber);
+
+    this.subscriber.subscription.request(0);
+    assertTrue(this.subscriber.error instanceof IllegalArgumentException);
+    assertTrue(this.publisher.cancelled);
+  }
+
+  @Test
+  void shouldNotFinishBeforeSubscriberIsSubscribed()
+  {
+    assertEquals(List.of("onSubscribe", "subscribed", "onComplete"), signals(QueryProcessor::onComplete));
+    assertEquals(List.of("onSubscribe", "subscribed", "onError"), signals(processor -> processor.onError(new QueryException("Failed"))));
+  }
+
+  //The publisher finishes while the subscriber is being subscribed, as one on another thread might.
+  private static List<String> signals(Consumer<QueryProcessor<Integer>> finish)
+  {
+    QueryProcessor<Integer> processor = new QueryProcessor<>(value -> true);
+    List<String> signals = new ArrayList<>();
+    processor.subscribe(
+      new RecordingSubscriber()
+      {
+        @Override
+        public void onSubscribe(Flow.Subscription subscription)
+        {
+          signals.add("onSubscribe");
+          finish.accept(processor);
+          signals.add("subscribed");
+        }
+
+        @Override
+        public void onError(Throwable throwable)
+        {
+          signals.add("onError");
+        }
+
+        @Override
+        public void onComplete()
+        {
+          signals.add("onComplete");
+        }
+      }
+    );
+
+    return signals;
+  }
+
+  //Publishes the integers from zero as they're requested, on the requesting thread.
+  private static class RangePublisher implements Flow.Publisher<Integer>
+  {
+    private final int size;
+    private int next;
+    private long demand;
+    private boolean emitting;
+    private boolean cancelled;
+
+    private RangePublisher(int size)
+    {
+      this.size = size;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Integer> subscriber)
+    {
+      subscriber.onSubscribe(
+        new Flow.Subscription()
+        {
+          @Override
+          public void request(long n)
+          {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            if (emitting) return;
+
+            emitting = true;
+            while (demand > 0 && next < size && !cancelled)
+            {
+              demand--;
+              subscriber.onNext(next++);
+            }
+            emitting = false;
+
+            if (next == size && !cancelled) subscriber.onComplete();
+          }
+
+          @Override
+          public void cancel()
+          {
+            cancelled = true;
+          }
+        }
+      );
+
+      if (this.size == 0) subscriber.onComplete();
+    }
+  }
+
+  private static class RecordingSubscriber implements Flow.Subscriber<Integer>
+  {
+    private final List<Integer> items = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private Throwable error;
+    private boolean complete;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription)
+    {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Integer item)
+    {
+      this.items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable)
+    {
+      this.error = throwable;
+    }
+
+    @Override
+    public void onComplete()
+    {
+      this.complete = true;
+    }
+  }
+}
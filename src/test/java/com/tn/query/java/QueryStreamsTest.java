@@ -0,0 +1,118 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+class QueryStreamsTest
+{
+  private final List<Integer> targets = IntStream.range(0, 10_000).boxed().toList();
+  private final Predicate<Integer> predicate = value -> value % 7 == 3;
+  private final AtomicInteger reads = new AtomicInteger();
+
+  @Test
+  void shouldFilterIterator()
+  {
+    List<Integer> matches = StreamSupport.stream(((Iterable<Integer>)() -> QueryStreams.filter(iterator(), this.predicate)).spliterator(), false).toList();
+
+    assertEquals(this.targets.stream().filter(this.predicate).toList(), matches);
+    assertEquals(this.targets.stream().filter(this.predicate).count(), QueryStreams.count(this.targets.iterator(), this.predicate));
+  }
+
+  @Test
+  void shouldReadIteratorOnlyAsFarAsNeeded()
+  {
+    assertEquals(List.of(3, 10, 17), QueryStreams.first(iterator(), this.predicate, 3));
+    assertEquals(18, this.reads.get());
+
+    this.reads.set(0);
+    assertTrue(QueryStreams.exists(iterator(), this.predicate));
+    assertEquals(4, this.reads.get());
+    assertFalse(QueryStreams.exists(iterator(), value -> value < 0));
+    assertThrows(IllegalArgumentException.class, () -> QueryStreams.first(iterator(), this.predicate, -1));
+  }
+
+  @Test
+  void shouldFilterSpliteratorInParallel()
+  {
+    assertEquals(
+      this.targets.stream().filter(this.predicate).toList(),
+      StreamSupport.stream(QueryStreams.filter(this.targets.spliterator(), this.predicate), true).toList()
+    );
+    assertEquals(List.of(3, 10), StreamSupport.stream(QueryStreams.filter(this.targets.spliterator(), this.predicate), false).limit(2).toList());
+  }
+
+  @Test
+  void shouldFilterPublisher() throws InterruptedException, ExecutionException, TimeoutException
+  {
+    assertEquals(List.of(3, 10, 17), publish(publisher -> QueryStreams.first(publisher, this.predicate, 3)));
+    assertTrue(publish(publisher -> QueryStreams.exists(publisher, this.predicate)));
+    assertFalse(publish(publisher -> QueryStreams.exists(publisher, value -> value < 0)));
+    assertEquals(this.targets.stream().filter(this.predicate).count(), (long)publish(publisher -> QueryStreams.count(publisher, this.predicate)));
+  }
+
+  @Test
+  void shouldFailFromPublisher()
+  {
+    ExecutionException exception = assertThrows(
+      ExecutionException.class,
+      () -> publish(publisher -> QueryStreams.count(publisher, value -> { throw new IllegalStateException(); }))
+    );
+    assertTrue(exception.getCause() instanceof IllegalStateException);
+  }
+
+  private Iterator<Integer> iterator()
+  {
+    Iterator<Integer> iterator = this.targets.iterator();
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Integer next()
+      {
+        reads.incrementAndGet();
+        return iterator.next();
+      }
+    };
+  }
+
+  private <R> R publish(Function<Flow.Publisher<Integer>, CompletableFuture<R>> query) throws InterruptedException, ExecutionException, TimeoutException
+  {
+    try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>())
+    {
+      CompletableFuture<R> result = query.apply(publisher);
+
+      //Stop once the query has cancelled its subscription.
+      for (Integer target : this.targets)
+      {
+        if (!publisher.hasSubscribers()) break;
+        publisher.submit(target);
+      }
+
+      publisher.close();
+      return result.get(10, TimeUnit.SECONDS);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.PredicateFactory;
+
+class RecordStoreTest
+{
+  private static final int PAGE_SIZE = 1024;
+
+  private final RecordLayout layout = new RecordLayout().withInt("id").withLong("timestamp").withDouble("price");
+
+  @Test
+  void shouldLayOutAlignedFields()
+  {
+    assertEquals(24, this.layout.size());
+    assertEquals(8, new RecordLayout().withInt("value").size());
+    assertThrows(IllegalArgumentException.class, () -> new RecordLayout().withInt("value").withLong("value"));
+    assertThrows(IllegalArgumentException.class, () -> RecordStore.create(new RecordLayout()));
+  }
+
+  @Test
+  void shouldQueryRecordsAcrossPages()
+  {
+    RecordStore store = RecordStore.create(this.layout, PAGE_SIZE);
+    add(store, 1000);
+
+    PredicateFactory<Predicate<RecordCursor>> predicateFactory = new JavaPredicateFactory<>(store.getters());
+    Predicate<RecordCursor> predicate = predicateFactory.and(predicateFactory.greaterThanOrEqual("id", 500), predicateFactory.lessThan("price", 600.0));
+
+    assertArrayEquals(LongStream.range(500, 600).toArray(), store.filter(predicate));
+    assertArrayEquals(new long[] {500, 501}, store.first(predicate, 2));
+    assertEquals(100, store.count(predicate));
+    assertEquals(0, store.count(predicateFactory.equal("timestamp", 5L)));
+    assertEquals(1, store.count(predicateFactory.equal("timestamp", 10L)));
+  }
+
+  @Test
+  void shouldReadAndWriteFields()
+  {
+    RecordStore store = RecordStore.create(this.layout, PAGE_SIZE);
+    add(store, 100);
+
+    RecordCursor cursor = store.cursor(99);
+    assertEquals(99, cursor.index());
+    assertEquals(99, cursor.getInt("id"));
+    assertEquals(990L, cursor.getLong("timestamp"));
+    assertEquals(99.5, cursor.getDouble("price"));
+
+    cursor.putDouble("price", -1.0);
+    assertEquals(-1.0, store.cursor(99).getDouble("price"));
+    assertThrows(IllegalArgumentException.class, () -> cursor.getLong("id"));
+    assertThrows(IllegalArgumentException.class, () -> cursor.getInt("missing"));
+    assertThrows(IndexOutOfBoundsException.class, () -> store.cursor(100));
+  }
+
+  @Test
+  void shouldReopenMappedFile() throws IOException
+  {
+    Path path = Files.createTempFile("records", ".store");
+    Files.delete(path);
+    try
+    {
+      try (RecordStore store = RecordStore.open(path, this.layout, PAGE_SIZE))
+      {
+        add(store, 1000);
+      }
+
+      try (RecordStore store = RecordStore.open(path, this.layout, PAGE_SIZE * 4))
+      {
+        assertEquals(1000, store.size());
+        assertEquals(999.5, store.cursor(999).getDouble("price"));
+
+        store.add().putInt("id", 1000);
+        assertEquals(1001, store.size());
+      }
+
+      assertThrows(IllegalArgumentException.class, () -> RecordStore.open(path, new RecordLayout().withInt("id"), PAGE_SIZE));
+
+      try (RecordStore store = RecordStore.open(path, this.layout))
+      {
+        assertEquals(1001, store.size());
+        assertEquals(1000, store.cursor(1000).getInt("id"));
+        assertEquals(10, store.count(new JavaPredicateFactory<>(store.getters()).greaterThan("id", 990)));
+      }
+    }
+    finally
+    {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  private void add(RecordStore store, int count)
+  {
+    for (int i = 0; i < count; i++) store.add().putInt("id", i).putLong("timestamp", i * 10L).putDouble("price", i + 0.5);
+  }
+}
@@ -0,0 +1,116 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.QueryException;
+
+class SharingPredicateFactoryTest
+{
+  private final AtomicInteger priceReads = new AtomicInteger();
+  private final AtomicInteger nameReads = new AtomicInteger();
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intValue("price", target -> { this.priceReads.incrementAndGet(); return target.price; }),
+    Getter.comparableValue("name", target -> { this.nameReads.incrementAndGet(); return target.name; })
+  );
+  private final SharingPredicateFactory<Target> predicateFactory = new SharingPredicateFactory<>(this.getters);
+
+  @Test
+  void shouldReadSharedFieldOnce()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(
+      this.predicateFactory.and(this.predicateFactory.greaterThan("price", 10), this.predicateFactory.lessThan("price", 20)),
+      this.predicateFactory.notEqual("price", 15)
+    );
+
+    assertTrue(predicate.test(new Target(12, "A")));
+    assertEquals(1, this.priceReads.getAndSet(0));
+    assertFalse(predicate.test(new Target(15, "A")));
+    assertEquals(1, this.priceReads.getAndSet(0));
+    assertFalse(predicate.test(new Target(25, "A")));
+    assertEquals(1, this.priceReads.get());
+  }
+
+  @Test
+  void shouldShareAcrossJunctions()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(
+      this.predicateFactory.or(this.predicateFactory.equal("name", "A"), this.predicateFactory.in("price", List.of(1, 2))),
+      this.predicateFactory.or(this.predicateFactory.like("name", "B*"), this.predicateFactory.lessThanOrEqual("price", 1))
+    );
+
+    assertTrue(predicate.test(new Target(1, "C")));
+    assertEquals(1, this.priceReads.get());
+    assertEquals(1, this.nameReads.get());
+    assertFalse(predicate.test(new Target(2, "C")));
+  }
+
+  @Test
+  void shouldOnlyReadFieldsWhenNeeded()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(
+      this.predicateFactory.equal("name", "A"),
+      this.predicateFactory.and(this.predicateFactory.greaterThan("price", 1), this.predicateFactory.equal("name", "A"))
+    );
+
+    assertFalse(predicate.test(new Target(5, "B")));
+    assertEquals(0, this.priceReads.get());
+    assertEquals(1, this.nameReads.get());
+  }
+
+  @Test
+  void shouldMergeRanges()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(
+      this.predicateFactory.and(this.predicateFactory.greaterThan("price", 10), this.predicateFactory.greaterThanOrEqual("price", 12)),
+      this.predicateFactory.and(this.predicateFactory.lessThanOrEqual("price", 20), this.predicateFactory.lessThan("price", 20))
+    );
+
+    assertFalse(predicate.test(new Target(11, "A")));
+    assertTrue(predicate.test(new Target(12, "A")));
+    assertTrue(predicate.test(new Target(19, "A")));
+    assertFalse(predicate.test(new Target(20, "A")));
+  }
+
+  @Test
+  void shouldFailAsTermsWould()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(this.predicateFactory.greaterThan("price", 10), this.predicateFactory.lessThan("price", 20));
+
+    assertThrows(QueryException.class, () -> predicate.test(new Target(null, "A")));
+    assertThrows(
+      QueryException.class,
+      () -> this.predicateFactory.or(this.predicateFactory.equal("price", 1), this.predicateFactory.like("price", "1*")).test(new Target(2, "A"))
+    );
+  }
+
+  @Test
+  void shouldKeepQueryStructure()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(this.predicateFactory.equal("name", "A"), this.predicateFactory.greaterThan("price", 1));
+
+    Node<Target> node = Node.of(predicate);
+    assertTrue(node instanceof Junction);
+    assertEquals(2, ((Junction<Target>)node).operands().size());
+  }
+
+  private static class Target
+  {
+    private final Integer price;
+    private final String name;
+
+    private Target(Integer price, String name)
+    {
+      this.price = price;
+      this.name = name;
+    }
+  }
+}
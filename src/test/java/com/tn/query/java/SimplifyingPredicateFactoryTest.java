@@ -0,0 +1,169 @@
+package com.tn.query.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.query.PredicateFactory;
+
+class SimplifyingPredicateFactoryTest
+{
+  private final AtomicInteger idReads = new AtomicInteger();
+  private final List<Getter<Target>> getters = List.of(
+    Getter.intPrimitive("id", target -> { this.idReads.incrementAndGet(); return target.id; }),
+    Getter.intPrimitive("age", target -> target.id % 100),
+    Getter.comparableValue("name", target -> target.name)
+  );
+  private final SimplifyingPredicateFactory<Target> predicateFactory = new SimplifyingPredicateFactory<>(this.getters);
+  private final JavaPredicateFactory<Target> javaPredicateFactory = new JavaPredicateFactory<>(this.getters);
+  private final List<Target> targets = IntStream.range(0, 1000).mapToObj(Target::new).collect(Collectors.toList());
+
+  @Test
+  void shouldMergeRanges()
+  {
+    assertEquals(
+      "id GREATER_THAN 5",
+      this.predicateFactory.and(this.predicateFactory.greaterThan("id", 5), this.predicateFactory.greaterThan("id", 3)).toString()
+    );
+    assertEquals(
+      "id GREATER_THAN_OR_EQUAL 3",
+      this.predicateFactory.or(this.predicateFactory.greaterThan("id", 5), this.predicateFactory.greaterThanOrEqual("id", 3)).toString()
+    );
+    assertEquals(
+      "(id LESS_THAN 5 && id GREATER_THAN_OR_EQUAL 3)",
+      this.predicateFactory.and(
+        this.predicateFactory.lessThanOrEqual("id", 5),
+        this.predicateFactory.and(this.predicateFactory.greaterThanOrEqual("id", 3), this.predicateFactory.lessThan("id", 5))
+      ).toString()
+    );
+  }
+
+  @Test
+  void shouldFoldContradictions()
+  {
+    assertEquals("false", this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.equal("id", 2)).toString());
+    assertEquals("false", this.predicateFactory.and(this.predicateFactory.greaterThan("id", 5), this.predicateFactory.lessThanOrEqual("id", 5)).toString());
+    assertEquals("false", this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.notEqual("id", 1)).toString());
+    assertEquals("false", this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.in("id", List.of(2, 3))).toString());
+    assertEquals(
+      "false",
+      this.predicateFactory.or(
+        this.predicateFactory.and(this.predicateFactory.equal("age", 1), this.predicateFactory.equal("age", 2)),
+        this.predicateFactory.and(this.predicateFactory.lessThan("id", 1), this.predicateFactory.greaterThan("id", 1))
+      ).toString()
+    );
+  }
+
+  @Test
+  void shouldFoldTautologies()
+  {
+    assertEquals("true", this.predicateFactory.or(this.predicateFactory.notEqual("id", 1), this.predicateFactory.notEqual("id", 2)).toString());
+    assertEquals("true", this.predicateFactory.or(this.predicateFactory.notEqual("id", 1), this.predicateFactory.equal("id", 1)).toString());
+    assertEquals("true", this.predicateFactory.or(this.predicateFactory.greaterThan("id", 5), this.predicateFactory.lessThan("id", 6)).toString());
+    assertEquals("name EQUAL N", this.predicateFactory.and(this.predicateFactory.notEqual("id", "1"), this.predicateFactory.equal("name", "N")).toString());
+  }
+
+  @Test
+  void shouldFoldMismatchedTypes()
+  {
+    assertEquals("false", this.predicateFactory.equal("id", "1").toString());
+    assertEquals("true", this.predicateFactory.notEqual("id", "1").toString());
+    assertEquals("false", this.predicateFactory.in("id", List.of("1", "2")).toString());
+    assertFalse(this.javaPredicateFactory.equal("id", "1").test(new Target(1)));
+  }
+
+  @Test
+  void shouldTestSingleValueInAsEqual()
+  {
+    Predicate<Target> predicate = this.predicateFactory.in("id", List.of(1));
+
+    assertEquals("id EQUAL 1", predicate.toString());
+    assertTrue(predicate.test(new Target(1)));
+    assertFalse(predicate.test(new Target(2)));
+  }
+
+  @Test
+  void shouldMergeEqualitiesIntoIn()
+  {
+    Predicate<Target> predicate = this.predicateFactory.or(
+      this.predicateFactory.or(this.predicateFactory.equal("id", 1), this.predicateFactory.like("name", "X*")),
+      this.predicateFactory.or(this.predicateFactory.equal("id", 2), this.predicateFactory.in("id", List.of(3, 4)))
+    );
+
+    assertEquals("(id IN [1, 2, 3, 4] || name LIKE X*)", predicate.toString());
+    assertEquals(List.of(1, 2, 3, 4), this.targets.stream().filter(predicate).map(target -> target.id).collect(Collectors.toList()));
+  }
+
+  @Test
+  void shouldFlattenAndDropRepeatedTerms()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(
+      this.predicateFactory.and(this.predicateFactory.like("name", "N*"), this.predicateFactory.equal("age", 1)),
+      this.predicateFactory.parenthesis(this.predicateFactory.and(this.predicateFactory.equal("age", 1), this.predicateFactory.like("name", "N*")))
+    );
+
+    assertEquals("(name LIKE N* && age EQUAL 1)", predicate.toString());
+  }
+
+  @Test
+  void shouldMatchAsWritten()
+  {
+    Predicate<Target> simplified = query(this.predicateFactory);
+    Predicate<Target> written = query(this.javaPredicateFactory);
+
+    this.targets.forEach(target -> assertEquals(written.test(target), simplified.test(target)));
+  }
+
+  @Test
+  void shouldNotTestObjectsForFalse()
+  {
+    Predicate<Target> predicate = this.predicateFactory.and(this.predicateFactory.equal("id", 1), this.predicateFactory.equal("id", 2));
+    QueryExecutor<Target> queryExecutor = new QueryExecutor<>(predicate);
+    IndexedCollection<Target> indexedCollection = new IndexedCollection<>(this.getters);
+    indexedCollection.addAll(this.targets);
+    ColumnarSnapshot<Target> snapshot = new ColumnarSnapshot<>(this.targets, this.getters);
+    this.idReads.set(0);
+
+    assertEquals(List.of(), queryExecutor.filter(this.targets));
+    assertEquals(0, queryExecutor.count(this.targets));
+    assertFalse(queryExecutor.exists(this.targets));
+    assertEquals(List.of(), queryExecutor.page(this.targets, null, 10).matches());
+    assertEquals(List.of(), indexedCollection.filter(predicate));
+    assertEquals(List.of(), snapshot.filter(predicate));
+    assertEquals(0, this.idReads.get());
+  }
+
+  private Predicate<Target> query(PredicateFactory<Predicate<Target>> predicateFactory)
+  {
+    return predicateFactory.or(
+      predicateFactory.and(
+        predicateFactory.and(predicateFactory.greaterThan("id", 100), predicateFactory.greaterThanOrEqual("id", 200)),
+        predicateFactory.lessThan("age", 50)
+      ),
+      predicateFactory.or(
+        predicateFactory.or(predicateFactory.equal("age", 7), predicateFactory.in("age", List.of(8, 9))),
+        predicateFactory.and(predicateFactory.in("id", List.of(1, 2, 3)), predicateFactory.notEqual("id", 2))
+      )
+    );
+  }
+
+  private static class Target
+  {
+    private final int id;
+    private final String name;
+
+    private Target(int id)
+    {
+      this.id = id;
+      this.name = "Name" + id;
+    }
+  }
+}